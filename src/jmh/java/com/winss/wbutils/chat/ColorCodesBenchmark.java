@@ -0,0 +1,79 @@
+package com.winss.wbutils.chat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strips the whole captured-chat corpus per invocation: the replaceAll calls the handlers used to make
+ * against {@link ColorCodes}. Run with {@code ./gradlew jmh}; add {@code -prof gc} to see the allocation side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorCodesBenchmark {
+    private String[] lines;
+    private final StringBuilder buffer = new StringBuilder(256);
+    private final char[] chars = new char[256];
+
+    @Setup
+    public void load() {
+        lines = CapturedChat.lines().toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void regexReplaceAll(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(line.replaceAll("§[0-9a-fk-or]", ""));
+        }
+    }
+
+    @Benchmark
+    public void strip(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(ColorCodes.strip(line));
+        }
+    }
+
+    @Benchmark
+    public void stripIntoBuffer(Blackhole bh) {
+        for (String line : lines) {
+            buffer.setLength(0);
+            bh.consume(ColorCodes.strip(line, buffer).length());
+        }
+    }
+
+    @Benchmark
+    public void stripIntoCharArray(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(ColorCodes.strip(line, chars));
+        }
+    }
+
+    @Benchmark
+    public void regexReplaceAllAnyCode(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(line.replaceAll("§.", ""));
+        }
+    }
+
+    @Benchmark
+    public void stripAll(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(ColorCodes.stripAll(line));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.winss.wbutils;
+
+import net.minecraft.util.Util;
+
+/**
+ * Shared cooldowns and delayed expiries for every feature, on one {@link TimerWheel} advanced once per client tick.
+ * A cooldown is just a pending timeout under its key, so checking one is a map lookup and nothing
+ * polls the clock per feature. Keys are "feature/what" (plus "/player" for per-player ones) so features can't collide.
+ *
+ * Resolution is one client tick: a cooldown ends on the first tick at or after it's due.
+ * Methods are synchronized since damage and chat hooks can come in off the client thread;
+ * callbacks run on the client thread from {@link #tick()}.
+ *
+ * The wheel runs on the real clock and only moves between ticks, so it's no use to handlers that
+ * EventReplay drives (chat, title and damage handlers): they keep EventClock timestamps instead.
+ */
+public final class Cooldowns {
+    private static final long TICK_MS = 50;
+    private static final Runnable NONE = () -> {};
+
+    private static final TimerWheel<String> wheel = new TimerWheel<>(TICK_MS, Util.getMeasuringTimeMs());
+
+    private Cooldowns() {}
+
+    /**
+     * Starts the cooldown if it isn't already running.
+     *
+     * @return false if it was already running (the caller should skip its action)
+     */
+    public static synchronized boolean tryStart(String key, long durationMs) {
+        return wheel.scheduleIfAbsent(key, durationMs, NONE);
+    }
+
+    /**
+     * Starts the cooldown, restarting it if it's already running.
+     */
+    public static synchronized void start(String key, long durationMs) {
+        wheel.schedule(key, durationMs, NONE);
+    }
+
+    public static synchronized boolean isActive(String key) {
+        return wheel.isScheduled(key);
+    }
+
+    /**
+     * @return Time left on the cooldown, or 0 if it isn't running
+     */
+    public static synchronized long remainingMs(String key) {
+        return wheel.remainingMs(key);
+    }
+
+    public static synchronized void reset(String key) {
+        wheel.cancel(key);
+    }
+
+    /**
+     * Runs action once delayMs has passed, replacing anything already scheduled under the key.
+     */
+    public static synchronized void schedule(String key, long delayMs, Runnable action) {
+        wheel.schedule(key, delayMs, action);
+    }
+
+    /**
+     * Called from END_CLIENT_TICK.
+     */
+    public static synchronized void tick() {
+        wheel.advance(Util.getMeasuringTimeMs());
+    }
+
+    public static synchronized int size() {
+        return wheel.size();
+    }
+}
@@ -0,0 +1,176 @@
+package com.winss.wbutils;
+
+import com.winss.wbutils.network.LatencyHistogram;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.RenderTickCounter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-feature timing for the tick tasks, world render callbacks and mixin hooks, for tracking down frame hitches.
+ * Hot paths grab a {@link Span} once (static field) and wrap their work in {@link Span#begin()} / {@link Span#end(long)}.
+ * With the profiler off, begin() is a single volatile read and end() returns straight away.
+ *
+ * Each span keeps two histograms and swaps them every {@value #WINDOW_MS}ms, clearing the one it swaps to,
+ * so reported percentiles cover the last 10-20 seconds rather than the whole session.
+ * Values recorded during a swap can land in the window being cleared; that's a few samples, not worth a lock.
+ */
+public final class FeatureProfiler {
+    private static final long WINDOW_MS = 10_000;
+    private static final long OVERLAY_REFRESH_MS = 500;
+    private static final int OVERLAY_LINES = 12;
+
+    private static volatile boolean enabled = false;
+    private static final Map<String, Span> spans = new ConcurrentHashMap<>();
+    private static long lastRotateMs = 0;
+
+    private static List<String> overlayLines = List.of();
+    private static long overlayUpdatedMs = 0;
+
+    private FeatureProfiler() {}
+
+    public static final class Span {
+        private final String name;
+        private final LatencyHistogram[] windows = { new LatencyHistogram(), new LatencyHistogram() };
+        private volatile int current = 0;
+
+        private Span(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return Start time to pass to {@link #end(long)}, or 0 if the profiler is off
+         */
+        public long begin() {
+            return enabled ? System.nanoTime() : 0;
+        }
+
+        public void end(long start) {
+            if (start != 0) {
+                windows[current].record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * For callers that already measured the duration themselves. Check {@link #isEnabled()} first.
+         */
+        public void record(long nanos) {
+            windows[current].record(nanos);
+        }
+
+        private void rotate() {
+            int next = current ^ 1;
+            windows[next].reset();
+            current = next;
+        }
+
+        private void reset() {
+            windows[0].reset();
+            windows[1].reset();
+        }
+    }
+
+    public record SpanStats(String name, LatencyHistogram.Summary summary) {}
+
+    /**
+     * Same instance for the same name, so it's fine to call from several places.
+     */
+    public static Span span(String name) {
+        return spans.computeIfAbsent(name, Span::new);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        if (value && !enabled) {
+            reset();
+        }
+        enabled = value;
+    }
+
+    public static void reset() {
+        for (Span span : spans.values()) {
+            span.reset();
+        }
+        lastRotateMs = System.currentTimeMillis();
+        overlayLines = List.of();
+    }
+
+    /**
+     * Called once per client tick.
+     */
+    public static void onTick() {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        if (now - lastRotateMs >= WINDOW_MS) {
+            lastRotateMs = now;
+            for (Span span : spans.values()) {
+                span.rotate();
+            }
+        }
+    }
+
+    /**
+     * @return Spans with samples in the last two windows, worst p99 first
+     */
+    public static List<SpanStats> getStats() {
+        List<SpanStats> stats = new ArrayList<>();
+        for (Span span : spans.values()) {
+            LatencyHistogram.Summary summary = LatencyHistogram.summarize(span.windows);
+            if (summary.count() > 0) {
+                stats.add(new SpanStats(span.name, summary));
+            }
+        }
+        stats.sort(Comparator.comparingDouble((SpanStats s) -> s.summary().p99Ms()).reversed());
+        return stats;
+    }
+
+    public static String formatMs(double ms) {
+        return ms >= 10 ? String.format("%.0fms", ms) : ms >= 0.1 ? String.format("%.2fms", ms) : String.format("%.0fus", ms * 1000);
+    }
+
+    /**
+     * HUD callback. Top left like F3; hidden while F3 is open so the two don't overlap.
+     */
+    public static void renderOverlay(DrawContext context, RenderTickCounter tickCounter) {
+        if (!enabled || !WBUtilsClient.getConfigManager().getConfig().profilerOverlay) return;
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.options.hudHidden || client.getDebugHud().shouldShowDebugHud()) return;
+
+        long now = System.currentTimeMillis();
+        if (now - overlayUpdatedMs >= OVERLAY_REFRESH_MS) {
+            overlayUpdatedMs = now;
+            overlayLines = buildOverlayLines();
+        }
+
+        TextRenderer textRenderer = client.textRenderer;
+        int y = 2;
+        for (String line : overlayLines) {
+            int width = textRenderer.getWidth(line);
+            context.fill(1, y - 1, 2 + width + 1, y + textRenderer.fontHeight, 0x90505050);
+            context.drawText(textRenderer, line, 2, y, 0xE0E0E0, false);
+            y += textRenderer.fontHeight;
+        }
+    }
+
+    private static List<String> buildOverlayLines() {
+        List<SpanStats> stats = getStats();
+        List<String> lines = new ArrayList<>(OVERLAY_LINES + 1);
+        lines.add("§9WBUtils perf §7(p50 / p99 / max)");
+        for (SpanStats span : stats.subList(0, Math.min(OVERLAY_LINES, stats.size()))) {
+            LatencyHistogram.Summary summary = span.summary();
+            lines.add("§b" + span.name() + " §f" + formatMs(summary.p50Ms()) + " / "
+                    + (summary.p99Ms() >= 1 ? "§e" : "§f") + formatMs(summary.p99Ms()) + " §f/ "
+                    + (summary.maxMs() >= 5 ? "§c" : "§f") + formatMs(summary.maxMs()));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,168 @@
+package com.winss.wbutils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the per-feature client tick work.
+ * Each task has a period (run every N ticks), a phase (which of those N ticks), an enabled check and a time budget.
+ * A task that isn't due costs one modulo; a disabled one is skipped without calling into the feature at all.
+ * Low-frequency tasks get different phases so they don't all land on the same tick.
+ *
+ * A run that takes longer than its budget counts as an overrun and the task's next run is pushed back a period,
+ * so one slow feature can't eat every tick. Budget 0 means the task always runs on schedule
+ * (state machines that count ticks, anything that clicks menus).
+ */
+public class TickScheduler {
+    public record TaskStats(String name, int period, int phase, long budgetNanos, boolean enabled,
+                            long runs, long overruns, long deferred, long totalNanos, long maxNanos) {
+        public double meanUs() {
+            return runs > 0 ? totalNanos / 1000.0 / runs : 0;
+        }
+    }
+
+    public static final class Task {
+        private final String name;
+        private final int period;
+        private final int phase;
+        private final long budgetNanos;
+        private final BooleanSupplier enabled;
+        private final Runnable action;
+        private final FeatureProfiler.Span span;
+        private Runnable onDisable;
+
+        private boolean wasEnabled = false;
+        private long nextAllowedTick = 0;
+        private long runs;
+        private long overruns;
+        private long deferred;
+        private long totalNanos;
+        private long maxNanos;
+
+        private Task(String name, int period, int phase, long budgetNanos, BooleanSupplier enabled, Runnable action) {
+            this.name = name;
+            this.period = period;
+            this.phase = Math.floorMod(phase, period);
+            this.budgetNanos = budgetNanos;
+            this.enabled = enabled;
+            this.action = action;
+            this.span = FeatureProfiler.span("tick/" + name);
+        }
+
+        /**
+         * Runs once when the task goes from enabled to disabled, for features that clean up
+         * in their own disabled branch (typically the tick method itself).
+         */
+        public Task onDisable(Runnable onDisable) {
+            this.onDisable = onDisable;
+            return this;
+        }
+
+        private void tick(long tick) {
+            if (tick % period != phase) return;
+
+            if (!enabled.getAsBoolean()) {
+                if (wasEnabled) {
+                    wasEnabled = false;
+                    if (onDisable != null) {
+                        run(onDisable);
+                    }
+                }
+                return;
+            }
+            wasEnabled = true;
+
+            if (tick < nextAllowedTick) {
+                deferred++;
+                return;
+            }
+
+            long elapsed = run(action);
+            runs++;
+            totalNanos += elapsed;
+            if (elapsed > maxNanos) maxNanos = elapsed;
+            if (FeatureProfiler.isEnabled()) span.record(elapsed);
+            if (budgetNanos > 0 && elapsed > budgetNanos) {
+                overruns++;
+                nextAllowedTick = tick + period + 1;
+            }
+        }
+
+        private long run(Runnable runnable) {
+            long start = System.nanoTime();
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                WBUtilsClient.LOGGER.error("[TickScheduler] Task {} threw", name, e);
+            }
+            return System.nanoTime() - start;
+        }
+
+        private TaskStats stats() {
+            return new TaskStats(name, period, phase, budgetNanos, wasEnabled, runs, overruns, deferred, totalNanos, maxNanos);
+        }
+    }
+
+    private static final List<Task> tasks = new CopyOnWriteArrayList<>();
+    private static long tickCount = 0;
+
+    /**
+     * Tasks run in registration order within a tick.
+     *
+     * @param period Run every this many ticks (1 = every tick)
+     * @param phase Which tick of the period to run on, to spread low-frequency tasks out
+     * @param budgetNanos Runs slower than this push the next run back a period; 0 for no budget
+     * @param enabled Checked on due ticks only; when false the task is skipped
+     */
+    public static Task register(String name, int period, int phase, long budgetNanos,
+                                BooleanSupplier enabled, Runnable action) {
+        if (period < 1) throw new IllegalArgumentException("period must be at least 1");
+        Task task = new Task(name, period, phase, budgetNanos, enabled, action);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Every-tick task with no budget.
+     */
+    public static Task register(String name, BooleanSupplier enabled, Runnable action) {
+        return register(name, 1, 0, 0, enabled, action);
+    }
+
+    /**
+     * Called from END_CLIENT_TICK.
+     */
+    public static void tick() {
+        long tick = tickCount++;
+        for (Task task : tasks) {
+            task.tick(tick);
+        }
+    }
+
+    public static long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Client thread only.
+     */
+    public static List<TaskStats> getStats() {
+        List<TaskStats> stats = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            stats.add(task.stats());
+        }
+        return stats;
+    }
+
+    public static void resetStats() {
+        for (Task task : tasks) {
+            task.runs = 0;
+            task.overruns = 0;
+            task.deferred = 0;
+            task.totalNanos = 0;
+            task.maxNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.winss.wbutils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hierarchical hashed timer wheel: keyed timeouts with O(1) schedule and cancel, fired from {@link #advance}.
+ * Time is counted in fixed ticks of tickMs. Four levels of {@value #SLOTS} slots each; a timeout sits in the
+ * lowest level whose range covers it and moves down a level as its time gets closer, so advancing costs
+ * one slot per tick plus the occasional cascade, no matter how many timeouts are pending.
+ *
+ * One timeout per key: scheduling a key that's already pending replaces it. Not thread-safe.
+ */
+public class TimerWheel<K> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // Furthest a timeout can be placed directly; anything later waits in the top level and is re-placed on cascade
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMs;
+    private final Node<K>[][] wheels;
+    private final Map<K, Node<K>> byKey = new HashMap<>();
+    private long currentTick;
+
+    private static final class Node<K> {
+        final K key;
+        long deadline;
+        final Runnable callback;
+        Node<K> prev;
+        Node<K> next;
+        int level = -1;
+        int slot;
+
+        Node(K key, long deadline, Runnable callback) {
+            this.key = key;
+            this.deadline = deadline;
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * @param tickMs Resolution; timeouts fire on the first tick at or after their due time
+     * @param nowMs Current time on the clock later passed to {@link #advance}
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMs, long nowMs) {
+        this.tickMs = Math.max(1, tickMs);
+        this.wheels = (Node<K>[][]) new Node[LEVELS][SLOTS];
+        this.currentTick = nowMs / this.tickMs;
+    }
+
+    /**
+     * Fires callback once delayMs has passed, replacing any pending timeout for the key.
+     */
+    public void schedule(K key, long delayMs, Runnable callback) {
+        cancel(key);
+        Node<K> node = new Node<>(key, deadline(delayMs), callback);
+        byKey.put(key, node);
+        place(node);
+    }
+
+    /**
+     * Moves the key's pending timeout to delayMs from now, keeping its callback. Reuses the pending node,
+     * so pushing back a timeout that's re-armed all the time doesn't allocate.
+     *
+     * @return false if nothing was pending for the key
+     */
+    public boolean reschedule(K key, long delayMs) {
+        Node<K> node = byKey.get(key);
+        if (node == null) return false;
+        if (node.level < 0) {
+            // Part of the batch being fired right now and still chained to it; replace it rather than move it
+            schedule(key, delayMs, node.callback);
+            return true;
+        }
+        unlink(node);
+        node.deadline = deadline(delayMs);
+        place(node);
+        return true;
+    }
+
+    /**
+     * Only schedules if nothing is pending for the key.
+     *
+     * @return false if the key was already scheduled
+     */
+    public boolean scheduleIfAbsent(K key, long delayMs, Runnable callback) {
+        if (byKey.containsKey(key)) return false;
+        schedule(key, delayMs, callback);
+        return true;
+    }
+
+    /**
+     * @return true if a timeout was pending for the key
+     */
+    public boolean cancel(K key) {
+        Node<K> node = byKey.remove(key);
+        if (node == null) return false;
+        unlink(node);
+        return true;
+    }
+
+    public boolean isScheduled(K key) {
+        return byKey.containsKey(key);
+    }
+
+    /**
+     * @return Time until the key's timeout fires (rounded up to whole ticks), or 0 if none is pending
+     */
+    public long remainingMs(K key) {
+        Node<K> node = byKey.get(key);
+        return node == null ? 0 : Math.max(0, node.deadline - currentTick) * tickMs;
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    public void clear() {
+        for (Node<K>[] wheel : wheels) {
+            Arrays.fill(wheel, null);
+        }
+        byKey.clear();
+    }
+
+    /**
+     * Moves time forward to nowMs, firing every timeout that's come due, in deadline order.
+     * Callbacks may schedule and cancel freely; anything they schedule fires on a later tick.
+     */
+    public void advance(long nowMs) {
+        long target = nowMs / tickMs;
+        if (byKey.isEmpty()) {
+            currentTick = Math.max(currentTick, target);
+            return;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            // Bring the timeouts due in the next stretch down a level before firing this tick's slot
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                }
+            }
+            fire((int) currentTick & SLOT_MASK);
+            if (byKey.isEmpty()) {
+                currentTick = target;
+                return;
+            }
+        }
+    }
+
+    private long deadline(long delayMs) {
+        return currentTick + Math.max(1, (delayMs + tickMs - 1) / tickMs);
+    }
+
+    private void place(Node<K> node) {
+        long delta = node.deadline - currentTick;
+        int level = 0;
+        long deadline = node.deadline;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        if (delta >= MAX_SPAN) {
+            // Park it in the last top-level slot before wrapping; the cascade re-places it from there
+            deadline = currentTick + MAX_SPAN - 1;
+        }
+        int slot = (int) (deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = wheels[level][slot];
+        if (node.next != null) node.next.prev = node;
+        wheels[level][slot] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.level < 0) return;
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            wheels[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        node.level = -1;
+    }
+
+    private Node<K> detach(int level, int slot) {
+        Node<K> head = wheels[level][slot];
+        wheels[level][slot] = null;
+        return head;
+    }
+
+    private void cascade(int level, int slot) {
+        Node<K> node = detach(level, slot);
+        while (node != null) {
+            Node<K> next = node.next;
+            node.level = -1;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void fire(int slot) {
+        Node<K> node = detach(0, slot);
+        // Slots are push-front lists; reverse so timeouts placed straight into this slot fire in schedule order.
+        // Everything is marked unlinked first so a callback cancelling another node of this batch is a no-op.
+        Node<K> reversed = null;
+        while (node != null) {
+            Node<K> next = node.next;
+            node.level = -1;
+            node.prev = null;
+            node.next = reversed;
+            reversed = node;
+            node = next;
+        }
+        node = reversed;
+        while (node != null) {
+            Node<K> next = node.next;
+            node.next = null;
+            if (node.deadline > currentTick) {
+                // Parked past the horizon; not due yet
+                place(node);
+            } else if (byKey.get(node.key) == node) {
+                byKey.remove(node.key);
+                node.callback.run();
+            }
+            node = next;
+        }
+    }
+}
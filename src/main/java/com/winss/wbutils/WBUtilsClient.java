@@ -1,11 +1,16 @@
 package com.winss.wbutils;
 
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.ChatEventBus;
+import com.winss.wbutils.chat.ChatFilter;
+import com.winss.wbutils.chat.EventRecorder;
 import com.winss.wbutils.command.AutoBuyCommand;
 import com.winss.wbutils.command.CameraResetCommand;
 import com.winss.wbutils.command.QuestCommand;
 import com.winss.wbutils.command.ShopCommand;
 import com.winss.wbutils.command.WBUtilsCommand;
 import com.winss.wbutils.config.ConfigManager;
+import com.winss.wbutils.config.ModConfig;
 import com.winss.wbutils.features.AuthService;
 import com.winss.wbutils.features.AutoBuy;
 import com.winss.wbutils.features.AutoRejoin;
@@ -15,6 +20,7 @@ import com.winss.wbutils.features.KillTracker;
 import com.winss.wbutils.features.HousingDetector;
 import com.winss.wbutils.features.KothProtector;
 import com.winss.wbutils.features.ModUserManager;
+import com.winss.wbutils.features.PlayerRegistry;
 import com.winss.wbutils.features.QuestHelper;
 import com.winss.wbutils.features.RPSTracker;
 import com.winss.wbutils.features.AutoRPS;
@@ -24,12 +30,20 @@ import com.winss.wbutils.features.StatSpy;
 import com.winss.wbutils.features.MayhemBlast;
 import com.winss.wbutils.features.TrapAvoider;
 import com.winss.wbutils.features.BorgRadar;
+import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.NetworkMetrics;
+import com.winss.wbutils.network.PushChannel;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
+import net.minecraft.text.Text;
 import org.lwjgl.glfw.GLFW;
 import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
@@ -63,6 +77,8 @@ public class WBUtilsClient implements ClientModInitializer {
     private static AutoBuy autoBuy;
     private static BorgRadar borgRadar;
     private static KeyBinding copyItemInfoKey;
+    private static final FeatureProfiler.Span TICK_SPAN = FeatureProfiler.span("tick");
+    private static final FeatureProfiler.Span DRAIN_SPAN = FeatureProfiler.span("tick/ChatEventBus");
     
     @Override
     public void onInitializeClient() {
@@ -71,6 +87,11 @@ public class WBUtilsClient implements ClientModInitializer {
         configManager = new ConfigManager();
         configManager.load();
         
+        ModConfig config = configManager.getConfig();
+        NetworkManager.configureRateLimits(config.networkEndpointRatePerSecond, config.networkEndpointBurst,
+                config.networkHostRatePerSecond, config.networkHostBurst);
+        NetworkMetrics.configureDump(config.networkStatsDumpMinutes);
+        
         kothProtector = new KothProtector();
         housingDetector = new HousingDetector();
         killTracker = new KillTracker();
@@ -86,6 +107,7 @@ public class WBUtilsClient implements ClientModInitializer {
         trapAvoider = new TrapAvoider();
         autoBuy = new AutoBuy();
         borgRadar = new BorgRadar();
+        registerChatSubscribers();
 
         // Register keybinds
         copyItemInfoKey = KeyBindingHelper.registerKeyBinding(new KeyBinding(
@@ -95,35 +117,26 @@ public class WBUtilsClient implements ClientModInitializer {
             "key.categories.wbutils"
         ));
 
+        registerTickTasks();
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
-            if (routeHelper != null) {
-                routeHelper.tick();
-            }
-            housingDetector.onClientTick();
-            AuthService.checkConnectivityTick();
-            autoRejoin.onClientTick();
-            autoRejoin.refreshDisconnectMessagesIfNeeded();
-            
-            boolean featuresActive = !configManager.getConfig().requireHousing || housingDetector.isInDptb2Housing();
-            
-            if (featuresActive) {
-                kothProtector.onClientTick();
-                killTracker.onClientTick();
-                doorSpirit.onClientTick();
-                autoRPS.onClientTick();
-                modUserManager.onClientTick();
-                bootlistTracker.onClientTick();
-                statSpy.onClientTick();
-                mayhemBlast.onClientTick();
-                trapAvoider.onClientTick();
-                borgRadar.onClientTick();
-            }
-            QuestHelper.onClientTick();
-            ShopHelper.onClientTick();
-            autoBuy.onClientTick();
-            CameraReset.onClientTick();
+            long tickStart = TICK_SPAN.begin();
+            FeatureProfiler.onTick();
+            long drainStart = DRAIN_SPAN.begin();
+            ChatEventBus.drain(Math.max(1, configManager.getConfig().chatEventsPerTick));
+            DRAIN_SPAN.end(drainStart);
+            Cooldowns.tick();
+            TickScheduler.tick();
+            TICK_SPAN.end(tickStart);
         });
         
+        FeatureProfiler.setEnabled(config.profilerEnabled);
+        HudRenderCallback.EVENT.register(FeatureProfiler::renderOverlay);
+        
+        // Finish the gzip stream so a recording running at shutdown is complete
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> EventRecorder.stop());
+        
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(PlayerRegistry::onNewConnection));
+        
         ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
             WBUtilsCommand.register(dispatcher);
             QuestCommand.register(dispatcher);
@@ -135,6 +148,123 @@ public class WBUtilsClient implements ClientModInitializer {
         LOGGER.info("WBUtils initialized successfully!");
     }
     
+    // Whether the housing-gated features may run; read live so it reflects HousingDetector's latest tick
+    private static boolean featuresActive() {
+        return !configManager.getConfig().requireHousing || housingDetector.isInDptb2Housing();
+    }
+    
+    /**
+     * Same order the features always ticked in. Periods and phases: HousingDetector every 4 ticks,
+     * BorgRadar every 5, the network housekeeping (connectivity, push channel, mod user sync) once a second
+     * on different ticks, and the daily fetches every 5 seconds. Everything that counts ticks or clicks
+     * through menus stays on every tick with no budget.
+     * The gates call featuresActive() when they're checked, so everything registered after HousingDetector
+     * sees the housing state it just updated on the same tick.
+     */
+    private static void registerTickTasks() {
+        TickScheduler.register("RouteHelper", () -> routeHelper.isStargazerEnabled(), routeHelper::tick);
+        TickScheduler.register("HousingDetector", 4, 0, 2_000_000, () -> true, housingDetector::onClientTick);
+        TickScheduler.register("AuthService/connectivity", 20, 1, 0, () -> true, AuthService::checkConnectivityTick);
+        TickScheduler.register("AutoRejoin", () -> configManager.getConfig().autoRejoinEnabled, autoRejoin::onClientTick)
+            .onDisable(autoRejoin::onClientTick);
+        TickScheduler.register("AutoRejoin/refresh", 100, 3, 0, () -> true, autoRejoin::refreshDisconnectMessagesIfNeeded);
+        TickScheduler.register("PushChannel", 20, 5, 0,
+            () -> featuresActive() && configManager.getConfig().networkPushEnabled,
+            () -> PushChannel.ensureConnected(configManager.getConfig().authServerUrl, configManager.getConfig().authToken))
+            .onDisable(PushChannel::disconnect);
+        
+        // KothProtector debounces its own ticks and resets itself on the debounced tick
+        TickScheduler.register("KothProtector", () -> featuresActive(), kothProtector::onClientTick);
+        TickScheduler.register("KillTracker", () -> featuresActive() && configManager.getConfig().ktrackEnabled,
+            killTracker::onClientTick);
+        TickScheduler.register("DoorSpirit", 2, 1, 2_000_000,
+            () -> featuresActive() && configManager.getConfig().doorSpiritEnabled, doorSpirit::onClientTick);
+        TickScheduler.register("AutoRPS", () -> featuresActive() && configManager.getConfig().autoRPSEnabled
+                && configManager.getConfig().autoRPSMode != AutoRPS.Mode.OFF, autoRPS::onClientTick)
+            .onDisable(autoRPS::onClientTick);
+        TickScheduler.register("ModUserManager", 20, 9, 2_000_000, () -> featuresActive(), modUserManager::onClientTick);
+        TickScheduler.register("BootlistTracker", () -> featuresActive() && configManager.getConfig().bootlistEnabled,
+            bootlistTracker::onClientTick)
+            .onDisable(bootlistTracker::onClientTick);
+        TickScheduler.register("StatSpy", 10, 7, 0, () -> featuresActive(), statSpy::onClientTick);
+        TickScheduler.register("MayhemBlast", () -> featuresActive(), mayhemBlast::onClientTick);
+        TickScheduler.register("TrapAvoider", 100, 13, 0,
+            () -> featuresActive() && configManager.getConfig().trapAvoiderEnabled, trapAvoider::onClientTick);
+        TickScheduler.register("BorgRadar", 5, 2, 2_000_000,
+            () -> featuresActive() && configManager.getConfig().borgRadarEnabled, borgRadar::onClientTick);
+        
+        TickScheduler.register("QuestHelper", () -> true, QuestHelper::onClientTick);
+        TickScheduler.register("ShopHelper", () -> true, ShopHelper::onClientTick);
+        TickScheduler.register("AutoBuy", () -> true, autoBuy::onClientTick);
+        TickScheduler.register("CameraReset", () -> true, CameraReset::onClientTick);
+    }
+    
+    /**
+     * Order matters: AutoRejoin and HousingDetector run first and ungated, and HousingDetector
+     * has to see "Sending to..." before the housing-gated features check featuresActive().
+     * Player chat is filtered out for everything that reacts to server messages, so players can't fake them.
+     * AutoRejoin is synchronous so a disconnect message is acted on before the queue is drained.
+     */
+    private static void registerChatSubscribers() {
+        ChatEventBus.subscribeSynchronous("AutoRejoin",
+            ChatFilter.enabled(c -> c.autoRejoinEnabled),
+            autoRejoin::handleChatMessage);
+        ChatEventBus.subscribe("BountyDebug",
+            ChatFilter.enabled(c -> c.debugBounty).and(ChatFilter.anyKeyword("your bounty")),
+            WBUtilsClient::logBountyDebug);
+        ChatEventBus.subscribe("HousingDetector",
+            ChatFilter.anyKeyword("sending to"),
+            housingDetector::handleChatMessage);
+        // Keyword anchors are the literal parts of each feature's regexes; the handlers still run the full patterns.
+        // With a feature's debug flag on, it sees every message again so its "Checking message" log stays useful.
+        ChatEventBus.subscribe("KothProtector",
+            ChatFilter.featuresActive().and(ChatFilter.anyKeyword("bounty")).and(ChatFilter.systemMessages()),
+            kothProtector::handleChatMessage);
+        ChatEventBus.subscribe("KothProtector/ignored",
+            ChatFilter.enabled(c -> c.debugBounty).and(ChatFilter.featuresActive()).and(ChatFilter.anyKeyword("bounty"))
+                .and(ChatFilter.playerChat()),
+            event -> LOGGER.info("[ChatMixin] Ignoring player chat with bounty keyword"));
+        ChatEventBus.subscribe("DoorSpirit",
+            ChatFilter.enabled(c -> c.doorSpiritEnabled).and(ChatFilter.featuresActive())
+                .and(ChatFilter.anyKeyword("wrong door", "correct door", "has cycled").or(ChatFilter.enabled(c -> c.debugDoorSpirit)))
+                .and(ChatFilter.systemMessages()),
+            doorSpirit::handleChatMessage);
+        ChatEventBus.subscribe("RPSTracker",
+            ChatFilter.enabled(c -> c.rpsTrackerEnabled).and(ChatFilter.startsWith("*")).and(ChatFilter.featuresActive())
+                .and(ChatFilter.anyKeyword("[npc] rock:", "rps! you selected")).and(ChatFilter.systemMessages()),
+            rpsTracker::handleChatMessage);
+        ChatEventBus.subscribe("MayhemBlast",
+            ChatFilter.enabled(c -> c.mayhemBlastEnabled).and(ChatFilter.featuresActive())
+                .and(ChatFilter.anyKeyword("mayhem!").or(ChatFilter.enabled(c -> c.debugMayhemBlast)))
+                .and(ChatFilter.systemMessages()),
+            mayhemBlast::handleChatMessage);
+        ChatEventBus.subscribe("TrapAvoider",
+            ChatFilter.enabled(c -> c.trapAvoiderEnabled).and(ChatFilter.featuresActive()).and(ChatFilter.anyKeyword("from your bounty")),
+            trapAvoider::handleChatMessage);
+
+        ChatEventBus.subscribe(ChatEvent.Kind.TITLE, "KothProtector/title", ChatFilter.all(),
+            event -> kothProtector.handleTitle(event.text()));
+        ChatEventBus.subscribe(ChatEvent.Kind.SUBTITLE, "KothProtector/subtitle", ChatFilter.all(),
+            event -> kothProtector.handleTitle(event.text()));
+        ChatEventBus.subscribe(ChatEvent.Kind.TITLE, "StatSpy/title", ChatFilter.all(),
+            event -> statSpy.handleTitle(event.text()));
+        ChatEventBus.subscribe(ChatEvent.Kind.SUBTITLE, "StatSpy/subtitle", ChatFilter.all(),
+            event -> statSpy.handleSubtitle(event.text()));
+    }
+    
+    private static void logBountyDebug(ChatEvent event) {
+        boolean isPlayerChat = event.isPlayerChat();
+        LOGGER.info("[ChatMixin] BOUNTY KEYWORD FOUND!");
+        LOGGER.info("[ChatMixin] Raw: {}", event.plain());
+        LOGGER.info("[ChatMixin] Is player chat (ignored): {}", isPlayerChat);
+        
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player != null) {
+            client.player.sendMessage(Text.literal(Messages.format("mixin.bounty.debug.msg", "msg", event.plain())), false);
+            client.player.sendMessage(Text.literal(Messages.format("mixin.bounty.debug.chat", "status", String.valueOf(isPlayerChat))), false);
+        }
+    }
+    
     public static ConfigManager getConfigManager() {
         return configManager;
     }
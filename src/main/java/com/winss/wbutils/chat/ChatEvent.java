@@ -0,0 +1,103 @@
+package com.winss.wbutils.chat;
+
+import net.minecraft.text.Text;
+
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+/**
+ * One incoming chat message (or title / subtitle), shared by every subscriber on the {@link ChatEventBus}.
+ * The derived forms (plain string, colour-stripped string, lowercase, player-chat flag) are computed
+ * the first time somebody asks for them and then reused, so adding a subscriber doesn't add another
+ * getString() / strip / regex pass per message.
+ *
+ * Events are handed from the packet hook to the tick drain through the bus queue, which publishes them
+ * safely; they are never touched by two threads at once.
+ */
+public final class ChatEvent {
+    private static final Pattern PLAYER_CHAT_PATTERN = Pattern.compile(
+        "^(?:\\[[^\\]]+\\]\\s*)*[A-Za-z0-9_]{1,16}:\\s"
+    );
+
+    public enum Kind { CHAT, TITLE, SUBTITLE }
+
+    private final Text text;
+    private final Kind kind;
+    private String plain;
+    private String stripped;
+    private String lower;
+    private Boolean playerChat;
+    private BitSet keywordHits;
+
+    public ChatEvent(Text text) {
+        this(text, Kind.CHAT);
+    }
+
+    public ChatEvent(Text text, Kind kind) {
+        this.text = text;
+        this.kind = kind;
+    }
+
+    public Text text() {
+        return text;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * message.getString(), colour codes included
+     */
+    public String plain() {
+        if (plain == null) {
+            String value = text != null ? text.getString() : null;
+            plain = value != null ? value : "";
+        }
+        return plain;
+    }
+
+    /**
+     * Plain text with colour codes removed and trimmed
+     */
+    public String stripped() {
+        if (stripped == null) {
+            stripped = ColorCodes.strip(plain()).trim();
+        }
+        return stripped;
+    }
+
+    /**
+     * Lowercase form of {@link #stripped()}
+     */
+    public String lower() {
+        if (lower == null) {
+            lower = stripped().toLowerCase();
+        }
+        return lower;
+    }
+
+    /**
+     * Ids of every registered keyword (see {@link ChatFilter#anyKeyword}) found in the message.
+     * All keywords are matched in one pass, the first time any keyword filter asks.
+     */
+    BitSet keywordHits() {
+        if (keywordHits == null) {
+            keywordHits = ChatEventBus.scanKeywords(stripped());
+        }
+        return keywordHits;
+    }
+
+    /**
+     * True if the message looks like something a player typed ("[RANK] Name: ..."), which
+     * features must ignore so other players can't fake server messages.
+     */
+    public boolean isPlayerChat() {
+        if (playerChat == null) {
+            String s = stripped();
+            playerChat = !s.startsWith("* You earned") && !s.startsWith("*You earned")
+                && PLAYER_CHAT_PATTERN.matcher(s).find();
+        }
+        return playerChat;
+    }
+}
@@ -0,0 +1,159 @@
+package com.winss.wbutils.chat;
+
+import com.winss.wbutils.WBUtilsClient;
+import net.minecraft.client.MinecraftClient;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Fans incoming chat messages and titles out to feature subscribers.
+ * One {@link ChatEvent} is built per packet and handed to every subscriber whose filter accepts it,
+ * in registration order - which matters, e.g. HousingDetector has to see a message before the
+ * housing-gated features decide whether they're active.
+ *
+ * Packet hooks only {@link #post} the event: synchronous subscribers run right there, everything else
+ * is queued and dispatched by {@link #drain} at the end of the client tick, a bounded number per tick,
+ * so a chat flood can't stall packet handling.
+ */
+public class ChatEventBus {
+    private record Subscriber(ChatEvent.Kind kind, String name, ChatFilter filter, Consumer<ChatEvent> handler,
+                              boolean synchronous) {}
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private static final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private static final MpscRingBuffer<ChatEvent> queue = new MpscRingBuffer<>(QUEUE_CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+
+    // Every keyword used by an anyKeyword filter; a keyword's id is its index
+    private static final List<String> keywords = new ArrayList<>();
+    private static volatile KeywordMatcher keywordMatcher = new KeywordMatcher(List.of());
+
+    /**
+     * Chat subscriber, dispatched from the tick drain.
+     *
+     * @param name Shown in the log if the handler throws
+     */
+    public static void subscribe(String name, ChatFilter filter, Consumer<ChatEvent> handler) {
+        subscribe(ChatEvent.Kind.CHAT, name, filter, handler);
+    }
+
+    public static void subscribe(ChatEvent.Kind kind, String name, ChatFilter filter, Consumer<ChatEvent> handler) {
+        subscribers.add(new Subscriber(kind, name, filter, handler, false));
+    }
+
+    /**
+     * Chat subscriber that runs inline when the packet is handled, ahead of every queued subscriber.
+     * Only for handlers that can't wait for the next tick (e.g. disconnect detection) - keep them cheap.
+     */
+    public static void subscribeSynchronous(String name, ChatFilter filter, Consumer<ChatEvent> handler) {
+        subscribers.add(new Subscriber(ChatEvent.Kind.CHAT, name, filter, handler, true));
+    }
+
+    /**
+     * Registers a keyword for the shared prefilter and returns its id. Case-insensitive.
+     */
+    static synchronized int keywordId(String keyword) {
+        String folded = keyword.toLowerCase();
+        int id = keywords.indexOf(folded);
+        if (id >= 0) return id;
+        keywords.add(folded);
+        keywordMatcher = new KeywordMatcher(List.copyOf(keywords));
+        return keywords.size() - 1;
+    }
+
+    static BitSet scanKeywords(String text) {
+        return keywordMatcher.scan(text);
+    }
+
+    /**
+     * Runs synchronous subscribers now and queues the event for the rest. Safe from any thread.
+     */
+    public static void post(ChatEvent event) {
+        EventRecorder.record(event);
+        dispatch(event, true);
+
+        if (queue.offer(event)) return;
+        if (MinecraftClient.getInstance().isOnThread()) {
+            // We're the consumer thread anyway: catch up on the backlog so ordering is kept
+            drain(Integer.MAX_VALUE);
+            if (queue.offer(event)) return;
+        }
+        long total = dropped.incrementAndGet();
+        if (total == 1 || total % 100 == 0) {
+            WBUtilsClient.LOGGER.warn("[ChatEventBus] Event queue full, dropped {} event(s) so far", total);
+        }
+    }
+
+    /**
+     * Dispatches up to budget queued events, oldest first. Client thread only.
+     *
+     * @return The number of events dispatched
+     */
+    public static int drain(int budget) {
+        int processed = 0;
+        while (processed < budget) {
+            ChatEvent event = queue.poll();
+            if (event == null) break;
+            dispatch(event, false);
+            processed++;
+        }
+        return processed;
+    }
+
+    public static int getBacklog() {
+        return queue.size();
+    }
+
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Receives how long a subscriber spent on an event it accepted.
+     */
+    @FunctionalInterface
+    interface HandlerTimer {
+        void record(String subscriber, long nanos);
+    }
+
+    /**
+     * Replay path: runs every subscriber (synchronous first, then queued, as if the event had been posted
+     * and drained straight away) and times each one whose filter accepts the event.
+     */
+    static void dispatchTimed(ChatEvent event, Predicate<String> include, HandlerTimer timer) {
+        for (boolean synchronous : new boolean[] { true, false }) {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.synchronous() != synchronous || subscriber.kind() != event.kind()) continue;
+                if (!include.test(subscriber.name())) continue;
+                long start = System.nanoTime();
+                try {
+                    if (!subscriber.filter().test(event)) continue;
+                    subscriber.handler().accept(event);
+                } catch (Exception e) {
+                    WBUtilsClient.LOGGER.error("[ChatEventBus] {} failed to handle replayed {} event", subscriber.name(), event.kind(), e);
+                }
+                timer.record(subscriber.name(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static void dispatch(ChatEvent event, boolean synchronous) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.synchronous() != synchronous || subscriber.kind() != event.kind()) continue;
+            try {
+                if (subscriber.filter().test(event)) {
+                    subscriber.handler().accept(event);
+                }
+            } catch (Exception e) {
+                WBUtilsClient.LOGGER.error("[ChatEventBus] {} failed to handle {} event", subscriber.name(), event.kind(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.winss.wbutils.chat;
+
+import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.config.ModConfig;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * Decides whether a {@link ChatEventBus} subscriber sees an event.
+ * Filters are checked in order and short-circuit, so put the cheap ones (config flags) first.
+ */
+@FunctionalInterface
+public interface ChatFilter {
+    boolean test(ChatEvent event);
+
+    default ChatFilter and(ChatFilter other) {
+        return event -> test(event) && other.test(event);
+    }
+
+    default ChatFilter or(ChatFilter other) {
+        return event -> test(event) || other.test(event);
+    }
+
+    static ChatFilter all() {
+        return event -> true;
+    }
+
+    /**
+     * Only messages that don't look like player chat.
+     */
+    static ChatFilter systemMessages() {
+        return event -> !event.isPlayerChat();
+    }
+
+    static ChatFilter playerChat() {
+        return ChatEvent::isPlayerChat;
+    }
+
+    /**
+     * Only while a config setting holds, e.g. {@code enabled(c -> c.rpsTrackerEnabled)}.
+     */
+    static ChatFilter enabled(Predicate<ModConfig> setting) {
+        return event -> setting.test(WBUtilsClient.getConfigManager().getConfig());
+    }
+
+    /**
+     * Only while housing-gated features are active (or the housing requirement is off).
+     */
+    static ChatFilter featuresActive() {
+        return event -> {
+            ModConfig config = WBUtilsClient.getConfigManager().getConfig();
+            return !config.requireHousing
+                || (WBUtilsClient.getHousingDetector() != null && WBUtilsClient.getHousingDetector().isInDptb2Housing());
+        };
+    }
+
+    static ChatFilter startsWith(String prefix) {
+        return event -> event.stripped().startsWith(prefix);
+    }
+
+    static ChatFilter contains(String keyword) {
+        return event -> event.stripped().contains(keyword);
+    }
+
+    /**
+     * Only messages containing at least one of the keywords (case-insensitive).
+     * Keywords from every subscriber go into one Aho-Corasick automaton, so a message is scanned once
+     * for all of them; use a feature's literal anchors here and keep the full regexes in the handler.
+     */
+    static ChatFilter anyKeyword(String... keywords) {
+        BitSet ids = new BitSet();
+        for (String keyword : keywords) {
+            ids.set(ChatEventBus.keywordId(keyword));
+        }
+        return event -> event.keywordHits().intersects(ids);
+    }
+}
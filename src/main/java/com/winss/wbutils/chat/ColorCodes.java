@@ -0,0 +1,141 @@
+package com.winss.wbutils.chat;
+
+import net.minecraft.text.Text;
+
+import java.util.Optional;
+
+/**
+ * Strips legacy § formatting codes with a single char scan instead of a regex.
+ * {@link #strip(String)} behaves like {@code replaceAll("§[0-9a-fk-or]", "")} and
+ * {@link #stripAll(String)} like {@code replaceAll("§.", "")}, but a string without codes is returned
+ * as-is, and callers that strip in a loop can write into their own StringBuilder / char[] instead.
+ */
+public final class ColorCodes {
+    private static final char SECTION = '§';
+
+    private ColorCodes() {}
+
+    /**
+     * Removes colour and format codes (§0-9, §a-f, §k-o, §r).
+     *
+     * @return The same instance if there was nothing to strip
+     */
+    public static String strip(String text) {
+        return strip(text, false);
+    }
+
+    /**
+     * Removes § followed by any character.
+     *
+     * @return The same instance if there was nothing to strip
+     */
+    public static String stripAll(String text) {
+        return strip(text, true);
+    }
+
+    /**
+     * Appends text to out with colour and format codes removed.
+     */
+    public static StringBuilder strip(CharSequence text, StringBuilder out) {
+        if (appendStripped(text, out, false, false)) {
+            out.append(SECTION);
+        }
+        return out;
+    }
+
+    /**
+     * Writes text into dest with colour and format codes removed. dest must hold at least text.length() chars.
+     *
+     * @return The number of chars written
+     */
+    public static int strip(CharSequence text, char[] dest) {
+        int length = text.length();
+        int written = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == SECTION && i + 1 < length && isCode(text.charAt(i + 1), false)) {
+                i++;
+                continue;
+            }
+            dest[written++] = c;
+        }
+        return written;
+    }
+
+    /**
+     * Same result as {@code strip(text.getString())}, but walks the Text's parts directly
+     * without building the unstripped string first. Codes split across two parts are still removed.
+     */
+    public static String strip(Text text) {
+        if (text == null) return "";
+        return strip(text, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the Text's content to out with colour and format codes removed.
+     */
+    public static StringBuilder strip(Text text, StringBuilder out) {
+        boolean[] pending = { false };
+        text.visit(part -> {
+            pending[0] = appendStripped(part, out, pending[0], false);
+            return Optional.empty();
+        });
+        if (pending[0]) {
+            out.append(SECTION);
+        }
+        return out;
+    }
+
+    private static String strip(String text, boolean anyCode) {
+        if (text == null || text.indexOf(SECTION) < 0) return text;
+        StringBuilder out = new StringBuilder(text.length());
+        if (appendStripped(text, out, false, anyCode)) {
+            out.append(SECTION);
+        }
+        return out.length() == text.length() ? text : out.toString();
+    }
+
+    /**
+     * @param pending True if the previous chunk ended in a § that hasn't been written yet
+     * @return True if this chunk ends in a § that hasn't been written yet
+     */
+    private static boolean appendStripped(CharSequence text, StringBuilder out, boolean pending, boolean anyCode) {
+        int length = text.length();
+        int i = 0;
+        if (pending) {
+            if (length == 0) return true;
+            if (isCode(text.charAt(0), anyCode)) {
+                i = 1;
+            } else {
+                out.append(SECTION);
+            }
+        }
+
+        int runStart = i;
+        while (i < length) {
+            if (text.charAt(i) == SECTION) {
+                if (i + 1 == length) {
+                    out.append(text, runStart, i);
+                    return true;
+                }
+                if (isCode(text.charAt(i + 1), anyCode)) {
+                    out.append(text, runStart, i);
+                    i += 2;
+                    runStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+        out.append(text, runStart, length);
+        return false;
+    }
+
+    private static boolean isCode(char c, boolean anyCode) {
+        if (anyCode) {
+            // Same as the regex '.', which doesn't match line terminators
+            return c != '\n' && c != '\r' && c != '\u0085' && c != '\u2028' && c != '\u2029';
+        }
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'k' && c <= 'o') || c == 'r';
+    }
+}
@@ -0,0 +1,44 @@
+package com.winss.wbutils.chat;
+
+import net.minecraft.util.Util;
+
+/**
+ * Time source for chat/title handlers.
+ * Normally just the real clocks; during {@link EventReplay} it reports the time each recorded event
+ * originally arrived, so cooldowns and "within N seconds" windows behave the way they did live.
+ */
+public final class EventClock {
+    private static volatile boolean virtual = false;
+    private static volatile long virtualWallMs;
+    private static volatile long virtualMonotonicMs;
+
+    private EventClock() {}
+
+    /**
+     * Replacement for System.currentTimeMillis()
+     */
+    public static long now() {
+        return virtual ? virtualWallMs : System.currentTimeMillis();
+    }
+
+    /**
+     * Replacement for Util.getMeasuringTimeMs()
+     */
+    public static long monotonicMs() {
+        return virtual ? virtualMonotonicMs : Util.getMeasuringTimeMs();
+    }
+
+    public static boolean isVirtual() {
+        return virtual;
+    }
+
+    static void setVirtual(long wallMs, long monotonicMs) {
+        virtualWallMs = wallMs;
+        virtualMonotonicMs = monotonicMs;
+        virtual = true;
+    }
+
+    static void clearVirtual() {
+        virtual = false;
+    }
+}
@@ -0,0 +1,187 @@
+package com.winss.wbutils.chat;
+
+import com.winss.wbutils.WBUtilsClient;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.text.Text;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records incoming chat, titles, subtitles and health changes to a binary log for {@link EventReplay}.
+ *
+ * File layout (gzip-compressed):
+ * <pre>
+ *   header:  int magic "WBRE", byte version, long start time (epoch ms)
+ *   record:  byte type, varint ms since previous record, varint payload length, payload
+ * </pre>
+ * Chat/title payloads are the Text as UTF-8 JSON, so styles survive; health payloads are two floats (old, new).
+ * A file cut off mid-record (crash, game closed while recording) replays up to the last complete record.
+ */
+public final class EventRecorder {
+    static final int MAGIC = 0x57425245;
+    static final byte VERSION = 1;
+
+    static final byte TYPE_CHAT = 1;
+    static final byte TYPE_TITLE = 2;
+    static final byte TYPE_SUBTITLE = 3;
+    static final byte TYPE_HEALTH = 4;
+
+    static final String FILE_EXTENSION = ".wbrec";
+    private static final long FLUSH_INTERVAL_MS = 5000;
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static volatile DataOutputStream out;
+    private static Path currentFile;
+    private static long lastRecordMs;
+    private static long lastFlushMs;
+    private static long recordCount;
+
+    private EventRecorder() {}
+
+    public static Path getRecordingsDir() {
+        return FabricLoader.getInstance().getConfigDir().resolve("wbutils_recordings");
+    }
+
+    public static synchronized boolean isRecording() {
+        return out != null;
+    }
+
+    public static synchronized Path getCurrentFile() {
+        return currentFile;
+    }
+
+    public static synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Starts a new recording, stopping the current one first.
+     *
+     * @return The new file, or null if it couldn't be created
+     */
+    public static synchronized Path start() {
+        stop();
+        Path file = getRecordingsDir().resolve(LocalDateTime.now().format(FILE_NAME_FORMAT) + FILE_EXTENSION);
+        try {
+            Files.createDirectories(file.getParent());
+            OutputStream stream = new GZIPOutputStream(Files.newOutputStream(file), 8192, true);
+            out = new DataOutputStream(new BufferedOutputStream(stream, 65536));
+            long now = System.currentTimeMillis();
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(now);
+            currentFile = file;
+            lastRecordMs = now;
+            lastFlushMs = now;
+            recordCount = 0;
+            WBUtilsClient.LOGGER.info("[EventRecorder] Recording to {}", file);
+            return file;
+        } catch (IOException e) {
+            WBUtilsClient.LOGGER.error("[EventRecorder] Failed to start recording", e);
+            closeQuietly();
+            return null;
+        }
+    }
+
+    /**
+     * @return The finished file, or null if nothing was being recorded
+     */
+    public static synchronized Path stop() {
+        if (out == null) return null;
+        Path file = currentFile;
+        try {
+            out.close();
+            WBUtilsClient.LOGGER.info("[EventRecorder] Stopped recording, {} events written to {}", recordCount, file);
+        } catch (IOException e) {
+            WBUtilsClient.LOGGER.error("[EventRecorder] Failed to finish recording {}", file, e);
+        }
+        out = null;
+        currentFile = null;
+        return file;
+    }
+
+    /**
+     * Called for every event posted to the {@link ChatEventBus}.
+     */
+    static void record(ChatEvent event) {
+        if (out == null) return;
+        byte type = switch (event.kind()) {
+            case CHAT -> TYPE_CHAT;
+            case TITLE -> TYPE_TITLE;
+            case SUBTITLE -> TYPE_SUBTITLE;
+        };
+        String json;
+        try {
+            json = Text.Serialization.toJsonString(event.text(), registries());
+        } catch (RuntimeException e) {
+            WBUtilsClient.LOGGER.debug("[EventRecorder] Failed to serialize {}: {}", event.kind(), e.getMessage());
+            return;
+        }
+        write(type, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void recordHealth(float oldHealth, float newHealth) {
+        if (out == null) return;
+        int oldBits = Float.floatToIntBits(oldHealth);
+        int newBits = Float.floatToIntBits(newHealth);
+        write(TYPE_HEALTH, new byte[] {
+            (byte) (oldBits >>> 24), (byte) (oldBits >>> 16), (byte) (oldBits >>> 8), (byte) oldBits,
+            (byte) (newBits >>> 24), (byte) (newBits >>> 16), (byte) (newBits >>> 8), (byte) newBits
+        });
+    }
+
+    static RegistryWrapper.WrapperLookup registries() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        return client.world != null ? client.world.getRegistryManager() : DynamicRegistryManager.EMPTY;
+    }
+
+    private static synchronized void write(byte type, byte[] payload) {
+        if (out == null) return;
+        long now = System.currentTimeMillis();
+        try {
+            out.writeByte(type);
+            writeVarLong(out, Math.max(0, now - lastRecordMs));
+            writeVarLong(out, payload.length);
+            out.write(payload);
+            lastRecordMs = now;
+            recordCount++;
+            // Sync-flush now and then so a crash loses seconds, not the whole session
+            if (now - lastFlushMs >= FLUSH_INTERVAL_MS) {
+                out.flush();
+                lastFlushMs = now;
+            }
+        } catch (IOException e) {
+            WBUtilsClient.LOGGER.error("[EventRecorder] Write failed, stopping recording", e);
+            closeQuietly();
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream stream, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            stream.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        stream.writeByte((int) value);
+    }
+
+    private static void closeQuietly() {
+        try {
+            if (out != null) out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+        currentFile = null;
+    }
+}
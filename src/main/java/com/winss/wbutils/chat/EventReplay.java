@@ -0,0 +1,278 @@
+package com.winss.wbutils.chat;
+
+import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.features.KothProtector;
+import com.winss.wbutils.network.NetworkManager;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.text.Text;
+import net.minecraft.util.Util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Feeds a recording from {@link EventRecorder} back through the chat subscribers and damage handling,
+ * with {@link EventClock} replaying the original arrival times, and measures how long each handler took.
+ *
+ * The network is switched off for the duration (and a few seconds after, for reports handlers kicked off
+ * asynchronously), so replaying a session never re-sends its reports. Runs on the client thread.
+ *
+ * The handlers are the live features, so a replay changes their state as if the events had just happened
+ * (RPS stats, KothProtector and DoorSpirit state). That's why it refuses to run while connected to a server.
+ */
+public final class EventReplay {
+    // Subscribers with side effects on the real connection (AutoRejoin sends /lobby and friends)
+    private static final Set<String> EXCLUDED_SUBSCRIBERS = Set.of("AutoRejoin");
+    private static final String DAMAGE_HANDLER = "KothProtector/damage";
+    private static final long NETWORK_RELEASE_DELAY_SECONDS = 5;
+
+    private EventReplay() {}
+
+    public record HandlerStats(String name, long calls, long totalNanos, double p50Us, double p99Us, double maxUs) {
+        public double meanUs() {
+            return calls > 0 ? totalNanos / 1000.0 / calls : 0;
+        }
+
+        /**
+         * How many events per second this handler could keep up with, going by its mean
+         */
+        public double throughputPerSecond() {
+            return totalNanos > 0 ? calls * 1_000_000_000.0 / totalNanos : 0;
+        }
+    }
+
+    /**
+     * @param events Records replayed
+     * @param skipped Records that couldn't be decoded
+     * @param spanMs Real time covered by the recording
+     * @param elapsedNanos Time the replay took
+     * @param truncated Whether the file ended mid-record
+     * @param handlers Sorted by total time, slowest first
+     */
+    public record Report(Path file, int events, int skipped, long spanMs, long elapsedNanos, boolean truncated,
+                         List<HandlerStats> handlers) {}
+
+    private record Recorded(byte type, long timeMs, Text text, float oldHealth, float newHealth) {}
+
+    /**
+     * @return File names in the recordings folder, newest first
+     */
+    public static List<String> listRecordings() {
+        Path dir = EventRecorder.getRecordingsDir();
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(EventRecorder.FILE_EXTENSION))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            WBUtilsClient.LOGGER.error("[EventReplay] Failed to list recordings", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Whether replaying is allowed: not on a multiplayer server, where the replayed events would mix into the
+     * live session's feature state and the network would go offline under it.
+     */
+    public static boolean canRun() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        return client.getNetworkHandler() == null || client.isInSingleplayer();
+    }
+
+    /**
+     * Replays a recording. Client thread only, and only when {@link #canRun()}.
+     *
+     * @param fileName A name from {@link #listRecordings()}
+     */
+    public static Report run(String fileName) throws IOException {
+        if (!canRun()) {
+            throw new IllegalStateException("Replay while connected to a server");
+        }
+        Path file = EventRecorder.getRecordingsDir().resolve(fileName).normalize();
+        if (!file.startsWith(EventRecorder.getRecordingsDir())) {
+            throw new IOException("Not a recording: " + fileName);
+        }
+
+        // Decode everything up front so Text parsing isn't counted against the handlers
+        List<Recorded> records = new ArrayList<>();
+        int[] skipped = { 0 };
+        boolean truncated = read(file, EventRecorder.registries(), records, skipped);
+        if (records.isEmpty()) {
+            return new Report(file, 0, skipped[0], 0, 0, truncated, List.of());
+        }
+
+        long firstMs = records.get(0).timeMs();
+        long lastMs = records.get(records.size() - 1).timeMs();
+        // Map the recording so it ends "now": every replayed timestamp is in the past, so nothing the
+        // handlers remember looks like it happened in the future once the real clock takes over again
+        long wallBase = System.currentTimeMillis();
+        long monotonicBase = Util.getMeasuringTimeMs();
+
+        Map<String, Samples> samples = new HashMap<>();
+        ChatEventBus.HandlerTimer timer = (name, nanos) -> samples.computeIfAbsent(name, k -> new Samples()).add(nanos);
+        KothProtector kothProtector = WBUtilsClient.getKothProtector();
+
+        NetworkManager.setOffline(true);
+        long started = System.nanoTime();
+        long elapsed;
+        try {
+            for (Recorded record : records) {
+                long agoMs = lastMs - record.timeMs();
+                EventClock.setVirtual(wallBase - agoMs, monotonicBase - agoMs);
+
+                if (record.type() == EventRecorder.TYPE_HEALTH) {
+                    // Same as ClientPlayerEntityMixin: only drops in health count as damage
+                    if (kothProtector != null && record.newHealth() < record.oldHealth()) {
+                        long start = System.nanoTime();
+                        kothProtector.onPlayerDamaged(record.oldHealth() - record.newHealth(), null, "unknown");
+                        timer.record(DAMAGE_HANDLER, System.nanoTime() - start);
+                    }
+                } else {
+                    ChatEvent.Kind kind = record.type() == EventRecorder.TYPE_TITLE ? ChatEvent.Kind.TITLE
+                            : record.type() == EventRecorder.TYPE_SUBTITLE ? ChatEvent.Kind.SUBTITLE
+                            : ChatEvent.Kind.CHAT;
+                    ChatEventBus.dispatchTimed(new ChatEvent(record.text(), kind),
+                            name -> !EXCLUDED_SUBSCRIBERS.contains(name), timer);
+                }
+            }
+        } finally {
+            elapsed = System.nanoTime() - started;
+            EventClock.clearVirtual();
+            CompletableFuture.delayedExecutor(NETWORK_RELEASE_DELAY_SECONDS, TimeUnit.SECONDS)
+                    .execute(() -> NetworkManager.setOffline(false));
+        }
+
+        List<HandlerStats> handlers = new ArrayList<>();
+        samples.forEach((name, handlerSamples) -> handlers.add(handlerSamples.summarize(name)));
+        handlers.sort(Comparator.comparingLong(HandlerStats::totalNanos).reversed());
+
+        WBUtilsClient.LOGGER.info("[EventReplay] Replayed {} events ({} skipped) from {} in {}ms",
+                records.size(), skipped[0], file.getFileName(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        for (HandlerStats stats : handlers) {
+            WBUtilsClient.LOGGER.info("[EventReplay]   {}: {} calls, mean {}us, p50 {}us, p99 {}us, max {}us, ~{}/s",
+                    stats.name(), stats.calls(), String.format("%.1f", stats.meanUs()), String.format("%.1f", stats.p50Us()),
+                    String.format("%.1f", stats.p99Us()), String.format("%.1f", stats.maxUs()),
+                    String.format("%.0f", stats.throughputPerSecond()));
+        }
+        return new Report(file, records.size(), skipped[0], lastMs - firstMs, elapsed, truncated, handlers);
+    }
+
+    /**
+     * @return true if the file ended in the middle of a record
+     */
+    private static boolean read(Path file, RegistryWrapper.WrapperLookup registries, List<Recorded> records, int[] skipped) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(raw), 65536))) {
+            if (in.readInt() != EventRecorder.MAGIC) {
+                throw new IOException("Not a WBUtils recording");
+            }
+            byte version = in.readByte();
+            if (version != EventRecorder.VERSION) {
+                throw new IOException("Unsupported recording version " + version);
+            }
+            long timeMs = in.readLong();
+
+            while (true) {
+                int type = in.read();
+                if (type < 0) return false;
+                byte[] payload;
+                try {
+                    timeMs += readVarLong(in);
+                    int length = (int) readVarLong(in);
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return true;
+                }
+
+                if (type == EventRecorder.TYPE_HEALTH && payload.length == 8) {
+                    float oldHealth = Float.intBitsToFloat(readInt(payload, 0));
+                    float newHealth = Float.intBitsToFloat(readInt(payload, 4));
+                    records.add(new Recorded((byte) type, timeMs, null, oldHealth, newHealth));
+                } else if (type >= EventRecorder.TYPE_CHAT && type <= EventRecorder.TYPE_SUBTITLE) {
+                    try {
+                        Text text = Text.Serialization.fromJson(new String(payload, StandardCharsets.UTF_8), registries);
+                        if (text != null) {
+                            records.add(new Recorded((byte) type, timeMs, text, 0, 0));
+                            continue;
+                        }
+                    } catch (RuntimeException e) {
+                        WBUtilsClient.LOGGER.debug("[EventReplay] Failed to decode record: {}", e.getMessage());
+                    }
+                    skipped[0]++;
+                } else {
+                    skipped[0]++;
+                }
+            }
+        } catch (EOFException e) {
+            // Cut off inside the gzip stream itself
+            return true;
+        }
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+            if (shift > 63) throw new IOException("Malformed varint");
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Per-handler durations, kept raw so the percentiles are exact.
+     */
+    private static final class Samples {
+        private long[] nanos = new long[64];
+        private int count = 0;
+        private long total = 0;
+
+        void add(long value) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            total += value;
+        }
+
+        HandlerStats summarize(String name) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new HandlerStats(name, count, total, percentileUs(sorted, 0.50), percentileUs(sorted, 0.99),
+                    count > 0 ? sorted[count - 1] / 1000.0 : 0);
+        }
+
+        private static double percentileUs(long[] sorted, double quantile) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(sorted.length * quantile) - 1));
+            return sorted[index] / 1000.0;
+        }
+    }
+}
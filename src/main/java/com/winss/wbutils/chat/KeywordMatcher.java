@@ -0,0 +1,185 @@
+package com.winss.wbutils.chat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords.
+ * {@link #scan} finds every keyword occurring anywhere in the text in a single left-to-right pass,
+ * no matter how many keywords there are. Matching is case-insensitive: keywords are folded to lowercase
+ * when the automaton is built and each input char is folded as it's read.
+ *
+ * Immutable once built, so one instance can be shared and swapped atomically.
+ */
+public final class KeywordMatcher {
+    private static final int[] NO_OUTPUT = new int[0];
+
+    // Per state: sorted transition chars and their target states
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    // Keyword ids ending at each state, including those reached through failure links
+    private final int[][] output;
+    // First keyword id spelled out exactly by the path to each state, or -1
+    private final int[] terminal;
+    private final int keywordCount;
+
+    public KeywordMatcher(List<String> keywords) {
+        this.keywordCount = keywords.size();
+
+        // 1. Trie
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(new ArrayList<>());
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            if (keyword == null || keyword.isEmpty()) continue;
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.get(state).add(id);
+        }
+
+        int stateCount = trie.size();
+        terminal = new int[stateCount];
+        for (int state = 0; state < stateCount; state++) {
+            List<Integer> ids = outputs.get(state);
+            terminal[state] = ids.isEmpty() ? -1 : ids.get(0);
+        }
+        transitionChars = new char[stateCount][];
+        transitionTargets = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            Map<Character, Integer> edges = trie.get(state);
+            char[] chars = new char[edges.size()];
+            int[] targets = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                chars[i] = edge.getKey();
+                targets[i] = edge.getValue();
+                i++;
+            }
+            transitionChars[state] = chars;
+            transitionTargets[state] = targets;
+        }
+
+        // 2. Failure links, breadth-first so a state's failure target is always finished before it
+        failure = new int[stateCount];
+        output = new int[stateCount][];
+        output[0] = toArray(outputs.get(0));
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int target : transitionTargets[0]) {
+            failure[target] = 0;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> merged = outputs.get(state);
+            int[] inherited = output[failure[state]];
+            if (inherited.length > 0) {
+                for (int id : inherited) merged.add(id);
+            }
+            output[state] = toArray(merged);
+
+            char[] chars = transitionChars[state];
+            int[] targets = transitionTargets[state];
+            for (int i = 0; i < chars.length; i++) {
+                int fallback = failure[state];
+                while (fallback != 0 && step(fallback, chars[i]) < 0) {
+                    fallback = failure[fallback];
+                }
+                int next = step(fallback, chars[i]);
+                failure[targets[i]] = next >= 0 && next != targets[i] ? next : 0;
+                queue.add(targets[i]);
+            }
+        }
+    }
+
+    public int keywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * @return The ids (indices into the keyword list) of every keyword found in text
+     */
+    public BitSet scan(CharSequence text) {
+        BitSet hits = new BitSet(keywordCount);
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = advance(state, fold(text.charAt(i)));
+            for (int id : output[state]) {
+                hits.set(id);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * @return true as soon as any keyword is found
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = advance(state, fold(text.charAt(i)));
+            if (output[state].length > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Case-insensitive whole-string lookup: follows the trie without failure links.
+     *
+     * @return The id of the keyword equal to text, or -1
+     */
+    public int exactMatch(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, fold(text.charAt(i)));
+            if (state < 0) return -1;
+        }
+        return terminal[state];
+    }
+
+    private int advance(int state, char c) {
+        while (true) {
+            int next = step(state, c);
+            if (next >= 0) return next;
+            if (state == 0) return 0;
+            state = failure[state];
+        }
+    }
+
+    private int step(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index >= 0 ? transitionTargets[state][index] : -1;
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        if (ids.isEmpty()) return NO_OUTPUT;
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; i++) result[i] = ids.get(i);
+        return result;
+    }
+}
@@ -8,8 +8,12 @@ import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.winss.wbutils.FeatureProfiler;
+import com.winss.wbutils.TickScheduler;
 import com.winss.wbutils.WBUtilsClient;
 import com.winss.wbutils.Messages;
+import com.winss.wbutils.chat.EventRecorder;
+import com.winss.wbutils.chat.EventReplay;
 import com.winss.wbutils.config.ModConfig;
 import com.winss.wbutils.features.AuthService;
 import com.winss.wbutils.features.AutoRejoin;
@@ -19,6 +23,8 @@ import com.winss.wbutils.features.RPSTracker;
 import com.winss.wbutils.features.AutoBuy;
 import com.winss.wbutils.features.AutoRPS;
 import com.winss.wbutils.features.StatSpy;
+import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.NetworkMetrics;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.text.ClickEvent;
 import net.minecraft.text.HoverEvent;
@@ -29,6 +35,8 @@ import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.packet.c2s.play.UpdateSelectedSlotC2SPacket;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -43,6 +51,16 @@ public class WBUtilsCommand {
         return builder.buildFuture();
     };
 
+    private static final SuggestionProvider<FabricClientCommandSource> RECORDING_SUGGESTIONS = (context, builder) -> {
+        String remaining = builder.getRemaining().toLowerCase();
+        for (String name : EventReplay.listRecordings()) {
+            if (name.toLowerCase().startsWith(remaining)) {
+                builder.suggest(name);
+            }
+        }
+        return builder.buildFuture();
+    };
+
     private static final SuggestionProvider<FabricClientCommandSource> AUTO_BUY_ITEM_SUGGESTIONS = (context, builder) -> {
         String remaining = builder.getRemaining().toLowerCase();
         for (AutoBuy.BuyableItem item : AutoBuy.BuyableItem.values()) {
@@ -365,19 +383,19 @@ public class WBUtilsCommand {
                         context.getSource().sendFeedback(Text.literal(Messages.getColorText() + Messages.get("command.ktrack_fetching")));
                         WBUtilsClient.getKillTracker().fetchHotList(success -> {
                             if (success) {
-                                List<KillTracker.KillerInfo> top = WBUtilsClient.getKillTracker().getTopKillers(5);
-                                if (top.isEmpty()) {
-                                    context.getSource().sendFeedback(Text.literal(Messages.getColorText() + Messages.get("command.ktrack_list_empty")));
-                                } else {
-                                    context.getSource().sendFeedback(Text.literal(Messages.withMainBold("command.ktrack_top_header")));
-                                    for (int i = 0; i < top.size(); i++) {
-                                        KillTracker.KillerInfo info = top.get(i);
-                                        context.getSource().sendFeedback(Text.literal(Messages.getColorAccent() + (i+1) + ". " + Messages.getColorText() + 
-                                            Messages.format("command.ktrack_list_entry", 
-                                                "player", info.playerName,
-                                                "kills", String.valueOf(info.totalKills),
-                                                "damages", String.valueOf(info.totalDamageEvents))));
+                                int[] rank = { 0 };
+                                int shown = WBUtilsClient.getKillTracker().forEachTop(5, info -> {
+                                    if (rank[0]++ == 0) {
+                                        context.getSource().sendFeedback(Text.literal(Messages.withMainBold("command.ktrack_top_header")));
                                     }
+                                    context.getSource().sendFeedback(Text.literal(Messages.getColorAccent() + rank[0] + ". " + Messages.getColorText() + 
+                                        Messages.format("command.ktrack_list_entry", 
+                                            "player", info.playerName,
+                                            "kills", String.valueOf(info.totalKills),
+                                            "damages", String.valueOf(info.totalDamageEvents))));
+                                });
+                                if (shown == 0) {
+                                    context.getSource().sendFeedback(Text.literal(Messages.getColorText() + Messages.get("command.ktrack_list_empty")));
                                 }
                             } else {
                                 context.getSource().sendFeedback(Text.literal("§c" + Messages.get("command.ktrack_fetch_failed")));
@@ -1403,6 +1421,132 @@ public class WBUtilsCommand {
                     return 1;
                 })
             )
+            .then(literal("net")
+                .then(literal("all")
+                    .executes(context -> {
+                        sendNetStats(context.getSource(), Integer.MAX_VALUE);
+                        return 1;
+                    })
+                )
+                .then(literal("reset")
+                    .executes(context -> {
+                        NetworkMetrics.reset();
+                        NetworkManager.resetRequestStats();
+                        context.getSource().sendFeedback(Text.literal("§9[WBUtils] §7Network stats reset."));
+                        return 1;
+                    })
+                )
+                .then(literal("dump")
+                    .executes(context -> {
+                        CompletableFuture.supplyAsync(NetworkMetrics::dump).thenAccept(path ->
+                            MinecraftClient.getInstance().execute(() -> context.getSource().sendFeedback(Text.literal(path != null
+                                ? "§9[WBUtils] §7Network stats written to §b" + path.getFileName()
+                                : "§9[WBUtils] §cFailed to write network stats, see log.")))
+                        );
+                        return 1;
+                    })
+                )
+                .executes(context -> {
+                    sendNetStats(context.getSource(), 8);
+                    context.getSource().sendFeedback(Text.literal("§7/wbutils net all §b- All endpoints §7| §7/wbutils net reset §b- Reset §7| §7/wbutils net dump §b- Write JSON"));
+                    return 1;
+                })
+            )
+            .then(literal("record")
+                .then(literal("start")
+                    .executes(context -> {
+                        Path file = EventRecorder.start();
+                        context.getSource().sendFeedback(Text.literal(file != null
+                            ? "§9[WBUtils] §7Recording chat, titles and health to §b" + file.getFileName()
+                            : "§9[WBUtils] §cFailed to start recording, see log."));
+                        return 1;
+                    })
+                )
+                .then(literal("stop")
+                    .executes(context -> {
+                        long events = EventRecorder.getRecordCount();
+                        Path file = EventRecorder.stop();
+                        context.getSource().sendFeedback(Text.literal(file != null
+                            ? "§9[WBUtils] §7Recording stopped: §f" + events + " §7events in §b" + file.getFileName()
+                            : "§9[WBUtils] §7Not recording."));
+                        return 1;
+                    })
+                )
+                .executes(context -> {
+                    if (EventRecorder.isRecording()) {
+                        context.getSource().sendFeedback(Text.literal("§9[WBUtils] §7Recording to §b" + EventRecorder.getCurrentFile().getFileName()
+                            + " §7(§f" + EventRecorder.getRecordCount() + " §7events)"));
+                    } else {
+                        context.getSource().sendFeedback(Text.literal("§9[WBUtils] §7Not recording."));
+                    }
+                    context.getSource().sendFeedback(Text.literal("§7/wbutils record start §b- Start §7| §7/wbutils record stop §b- Stop §7| §7/wbutils replay <file> §b- Replay (singleplayer only)"));
+                    return 1;
+                })
+            )
+            .then(literal("replay")
+                .then(argument("file", StringArgumentType.greedyString())
+                    .suggests(RECORDING_SUGGESTIONS)
+                    .executes(context -> {
+                        sendReplayReport(context.getSource(), StringArgumentType.getString(context, "file").trim());
+                        return 1;
+                    })
+                )
+                .executes(context -> {
+                    List<String> recordings = EventReplay.listRecordings();
+                    context.getSource().sendFeedback(Text.literal("§9[WBUtils] §9§l⸻ Recordings ⸻"));
+                    context.getSource().sendFeedback(Text.literal("§7Singleplayer only: a replay feeds the live features, so RPS stats, KOTH and Door Spirit state pick up the replayed events."));
+                    if (recordings.isEmpty()) {
+                        context.getSource().sendFeedback(Text.literal("§7None yet, use §b/wbutils record start"));
+                    }
+                    for (String name : recordings.subList(0, Math.min(10, recordings.size()))) {
+                        context.getSource().sendFeedback(Text.literal("§b" + name));
+                    }
+                    return 1;
+                })
+            )
+            .then(literal("perf")
+                .then(literal("on")
+                    .executes(context -> {
+                        setProfilerEnabled(true);
+                        context.getSource().sendFeedback(Text.literal("§9[WBUtils] §7Profiler §aon§7. Timings cover the last 10-20 seconds."));
+                        return 1;
+                    })
+                )
+                .then(literal("off")
+                    .executes(context -> {
+                        setProfilerEnabled(false);
+                        context.getSource().sendFeedback(Text.literal("§9[WBUtils] §7Profiler §coff§7."));
+                        return 1;
+                    })
+                )
+                .then(literal("overlay")
+                    .executes(context -> {
+                        ModConfig config = WBUtilsClient.getConfigManager().getConfig();
+                        config.profilerOverlay = !config.profilerOverlay;
+                        // The overlay has nothing to show without the profiler
+                        if (config.profilerOverlay) {
+                            config.profilerEnabled = true;
+                            FeatureProfiler.setEnabled(true);
+                        }
+                        WBUtilsClient.getConfigManager().save();
+                        context.getSource().sendFeedback(Text.literal("§9[WBUtils] §7Perf overlay: " + (config.profilerOverlay ? "§aon" : "§coff")));
+                        return 1;
+                    })
+                )
+                .then(literal("reset")
+                    .executes(context -> {
+                        FeatureProfiler.reset();
+                        TickScheduler.resetStats();
+                        context.getSource().sendFeedback(Text.literal("§9[WBUtils] §7Perf stats reset."));
+                        return 1;
+                    })
+                )
+                .executes(context -> {
+                    sendPerfStats(context.getSource());
+                    context.getSource().sendFeedback(Text.literal("§7/wbutils perf on|off §b- Profiler §7| §7/wbutils perf overlay §b- HUD §7| §7/wbutils perf reset §b- Reset"));
+                    return 1;
+                })
+            )
             .then(literal("help")
                 .executes(context -> {
                     context.getSource().sendFeedback(Text.literal(Messages.withMainBold("command.help.header")));
@@ -1425,6 +1569,121 @@ public class WBUtilsCommand {
     }
     
 
+    /**
+     * Per-endpoint summary: wire = time the server took, total = what the feature waited
+     * (rate-limit queueing + retries included). A large gap between the two points at the client.
+     */
+    private static void sendNetStats(FabricClientCommandSource source, int limit) {
+        source.sendFeedback(Text.literal("§9[WBUtils] §9§l⸻ Network Stats ⸻"));
+        source.sendFeedback(Text.literal("§7Since " + getTimeAgo(NetworkMetrics.getSinceMs())));
+
+        NetworkManager.RequestStats requests = NetworkManager.getRequestStats();
+        NetworkManager.RateLimitStats rateLimits = NetworkManager.getRateLimitStats();
+        NetworkManager.RetryStats retries = NetworkManager.getRetryStats();
+        source.sendFeedback(Text.literal("§7Cache: §f" + requests.hits() + " §7hits, §f" + requests.staleHits() + " §7stale, §f"
+                + requests.misses() + " §7misses, §f" + requests.coalesced() + " §7coalesced, §f" + requests.notModified() + " §7not modified"));
+        source.sendFeedback(Text.literal("§7Rate limit: §f" + rateLimits.delayed() + " §7delayed (max §f" + rateLimits.maxWaitMs() + "ms§7), §f"
+                + rateLimits.rejected() + " §7rejected, §f" + rateLimits.tooManyRequests() + " §7server 429s"));
+        source.sendFeedback(Text.literal("§7Retries: §f" + retries.retries() + " §7| Circuit rejections: §f" + retries.circuitRejections()));
+
+        List<NetworkMetrics.EndpointStats> endpoints = NetworkMetrics.getEndpointStats();
+        if (endpoints.isEmpty()) {
+            source.sendFeedback(Text.literal("§7No requests recorded yet."));
+            return;
+        }
+
+        int shown = 0;
+        for (NetworkMetrics.EndpointStats stats : endpoints) {
+            if (shown++ >= limit) {
+                source.sendFeedback(Text.literal("§7... " + (endpoints.size() - limit) + " more, use §b/wbutils net all"));
+                break;
+            }
+            // Drop the host, it's the same for every endpoint
+            String endpoint = stats.endpoint();
+            int slash = endpoint.indexOf('/');
+            String path = slash >= 0 ? endpoint.substring(slash) : endpoint;
+
+            long errors = stats.serverErrors() + stats.networkErrors();
+            source.sendFeedback(Text.literal("§b" + path + " §7calls §f" + stats.calls()
+                    + " §7err " + (errors > 0 ? "§c" : "§f") + errors
+                    + " §7wire p50/p99 §f" + formatMs(stats.wire().p50Ms()) + "/" + formatMs(stats.wire().p99Ms())
+                    + " §7total p99 §f" + formatMs(stats.total().p99Ms())
+                    + (stats.cacheHits() + stats.staleHits() > 0 ? " §7cached §f" + (stats.cacheHits() + stats.staleHits()) : "")
+                    + (stats.rateLimitDelayed() + stats.rateLimitRejected() > 0 ? " §7limited §e" + (stats.rateLimitDelayed() + stats.rateLimitRejected()) : "")));
+        }
+    }
+
+    private static void setProfilerEnabled(boolean enabled) {
+        ModConfig config = WBUtilsClient.getConfigManager().getConfig();
+        config.profilerEnabled = enabled;
+        WBUtilsClient.getConfigManager().save();
+        FeatureProfiler.setEnabled(enabled);
+    }
+
+    /**
+     * Profiler spans (rolling p50/p99/max) and the tick scheduler's overrun/deferral counts.
+     */
+    private static void sendPerfStats(FabricClientCommandSource source) {
+        source.sendFeedback(Text.literal("§9[WBUtils] §9§l⸻ Perf ⸻"));
+        if (!FeatureProfiler.isEnabled()) {
+            source.sendFeedback(Text.literal("§7Profiler is off, use §b/wbutils perf on"));
+        } else {
+            List<FeatureProfiler.SpanStats> spans = FeatureProfiler.getStats();
+            if (spans.isEmpty()) {
+                source.sendFeedback(Text.literal("§7No samples yet."));
+            }
+            for (FeatureProfiler.SpanStats span : spans) {
+                source.sendFeedback(Text.literal("§b" + span.name() + " §7calls §f" + span.summary().count()
+                        + " §7p50/p99 §f" + FeatureProfiler.formatMs(span.summary().p50Ms()) + "/" + FeatureProfiler.formatMs(span.summary().p99Ms())
+                        + " §7max §f" + FeatureProfiler.formatMs(span.summary().maxMs())));
+            }
+        }
+
+        long overruns = 0;
+        long deferred = 0;
+        for (TickScheduler.TaskStats task : TickScheduler.getStats()) {
+            overruns += task.overruns();
+            deferred += task.deferred();
+            if (task.overruns() > 0) {
+                source.sendFeedback(Text.literal("§e" + task.name() + " §7over budget §f" + task.overruns()
+                        + "§7x, deferred §f" + task.deferred() + "§7x, max §f" + FeatureProfiler.formatMs(task.maxNanos() / 1_000_000.0)));
+            }
+        }
+        source.sendFeedback(Text.literal("§7Tick tasks: §f" + overruns + " §7over budget, §f" + deferred + " §7deferred"));
+    }
+
+    private static void sendReplayReport(FabricClientCommandSource source, String fileName) {
+        if (!EventReplay.canRun()) {
+            source.sendFeedback(Text.literal("§9[WBUtils] §cReplays run the live features and take the network offline, so they only work in singleplayer."));
+            return;
+        }
+        EventReplay.Report report;
+        try {
+            report = EventReplay.run(fileName);
+        } catch (IOException e) {
+            source.sendFeedback(Text.literal("§9[WBUtils] §cReplay failed: " + e.getMessage()));
+            return;
+        }
+
+        source.sendFeedback(Text.literal("§9[WBUtils] §9§l⸻ Replay: " + report.file().getFileName() + " ⸻"));
+        source.sendFeedback(Text.literal("§f" + report.events() + " §7events covering §f" + formatMs(report.spanMs())
+                + " §7replayed in §f" + formatMs(report.elapsedNanos() / 1_000_000.0)
+                + (report.skipped() > 0 ? " §7(§e" + report.skipped() + " §7skipped)" : "")
+                + (report.truncated() ? " §e(file cut off)" : "")));
+        for (EventReplay.HandlerStats stats : report.handlers()) {
+            source.sendFeedback(Text.literal("§b" + stats.name() + " §7calls §f" + stats.calls()
+                    + " §7mean §f" + String.format("%.1fus", stats.meanUs())
+                    + " §7p50/p99 §f" + String.format("%.1f/%.1fus", stats.p50Us(), stats.p99Us())
+                    + " §7max §f" + String.format("%.1fus", stats.maxUs())
+                    + " §7~§f" + String.format("%.0f", stats.throughputPerSecond()) + "§7/s"));
+        }
+        source.sendFeedback(Text.literal("§7Network was offline during the replay; RPS stats, KOTH and Door Spirit state now include the replayed events. Details are in the log."));
+    }
+
+    private static String formatMs(double ms) {
+        return ms >= 1000 ? String.format("%.1fs", ms / 1000.0) : String.format("%.0fms", ms);
+    }
+
     private static String getTimeAgo(long timestamp) {
         long now = System.currentTimeMillis();
         long diff = now - timestamp;
@@ -17,6 +17,21 @@ public class ModConfig {
     public String minecraftName = "";
     public boolean useAuthSystem = true;
     
+    // Network rate limiting (token bucket: sustained requests/sec + burst size)
+    public double networkEndpointRatePerSecond = 5.0;
+    public int networkEndpointBurst = 10;
+    public double networkHostRatePerSecond = 20.0;
+    public int networkHostBurst = 40;
+    // Server push (WebSocket) for hotlist / mod users / door state; polling is used whenever it's down
+    public boolean networkPushEnabled = true;
+    // Write per-endpoint network stats to wbutils_netstats.json every N minutes (0 = off)
+    public int networkStatsDumpMinutes = 10;
+    // Queued chat / title events handled per client tick; the rest wait for the next tick
+    public int chatEventsPerTick = 64;
+    // Per-feature timing (/wbutils perf); the overlay shows the slowest spans in the top left
+    public boolean profilerEnabled = false;
+    public boolean profilerOverlay = false;
+    
     // KOTH++ 
     public boolean kothProtectorEnabled = false;
     public boolean kothNotifyOnDeath = true;
@@ -13,9 +13,9 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.winss.wbutils.network.JsonCodec;
 import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.UplinkOutbox;
 
 public class AuthService {
     private static final int TOKEN_LENGTH = 32;
@@ -58,7 +58,7 @@ public class AuthService {
                 escapeJson(name)
             );
 
-            NetworkManager.post(urlStr, json)
+            NetworkManager.post(urlStr, json, null, true)
                 .thenAccept(response -> runOnMainThread(() -> callback.accept(response.isSuccess())))
                 .exceptionally(e -> {
                     WBUtilsClient.LOGGER.warn("Auth token registration failed: {}", e.getMessage());
@@ -247,7 +247,7 @@ public class AuthService {
             String urlStr = config.authServerUrl + "/auth/unlink";
             String json = String.format("{\"minecraft_uuid\":\"%s\"}", escapeJson(uuid));
 
-            NetworkManager.post(urlStr, json, config.authToken)
+            NetworkManager.post(urlStr, json, config.authToken, true)
                 .thenAccept(response -> {
                     boolean success = response.isSuccess();
                     if (success) {
@@ -331,14 +331,21 @@ public class AuthService {
             .thenAccept(response -> {
                 boolean currentStatus = response.isSuccess();
                 boolean previousStatus = lastServerStatus.getAndSet(currentStatus);
+                UplinkOutbox.setServerReachable(currentStatus);
                 
                 if (previousStatus && !currentStatus) {
                     handleConnectionLoss();
                 } else if (!previousStatus && currentStatus) {
                     handleConnectionRestored();
                 }
+                
+                // Deliver anything stored during an outage (or left over from a previous session)
+                if (currentStatus) {
+                    UplinkOutbox.replay(config.authServerUrl, config.authToken);
+                }
             })
             .exceptionally(e -> {
+                UplinkOutbox.setServerReachable(false);
                 if (lastServerStatus.getAndSet(false)) {
                     handleConnectionLoss();
                 }
@@ -418,17 +425,7 @@ public class AuthService {
 
 
     private static boolean parseJsonBoolean(String json, String field) {
-        if (json == null || json.isBlank()) return false;
-        try {
-            Pattern pattern = Pattern.compile("\"" + Pattern.quote(field) + "\"\\s*:\\s*(true|false)", Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(json);
-            if (matcher.find()) {
-                return "true".equalsIgnoreCase(matcher.group(1));
-            }
-        } catch (Exception e) {
-            WBUtilsClient.LOGGER.error("Failed to parse JSON boolean field {}: {}", field, e.getMessage());
-        }
-        return false;
+        return JsonCodec.findBoolean(json, field);
     }
 }
 // hi 
\ No newline at end of file
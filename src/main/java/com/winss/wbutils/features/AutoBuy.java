@@ -1,6 +1,7 @@
 package com.winss.wbutils.features;
 
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ColorCodes;
 import com.winss.wbutils.config.ModConfig;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.ingame.HandledScreen;
@@ -728,7 +729,7 @@ public class AutoBuy {
 
     private String stripFormatting(String text) {
         if (text == null) return "";
-        return text.replaceAll("§.", "").trim();
+        return ColorCodes.stripAll(text).trim();
     }
 
     private void resetState() {
@@ -3,6 +3,7 @@ package com.winss.wbutils.features;
 import com.winss.wbutils.WBUtilsClient;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
+import com.winss.wbutils.chat.EventClock;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.ingame.HandledScreen;
 import net.minecraft.client.network.ClientPlayerEntity;
@@ -55,8 +56,9 @@ public class AutoRPS {
     private RPSTracker.RPSStats cachedStats = null;
     private boolean fetchingStats = false;
     
-    private long lastDamageAlertTime = 0L;
     private static final long DAMAGE_ALERT_COOLDOWN_MS = 10_000L;
+    // EventClock time, like KothProtector's, so a replay of the damage path runs on the replay clock
+    private long lastDamageAlertTime = 0L;
     
     public AutoRPS() {
         WBUtilsClient.LOGGER.info("[AutoRPS] Initialized");
@@ -358,7 +360,7 @@ public class AutoRPS {
             return;
         }
 
-        long now = net.minecraft.util.Util.getMeasuringTimeMs();
+        long now = EventClock.monotonicMs();
         if (now - lastDamageAlertTime < DAMAGE_ALERT_COOLDOWN_MS) {
             return;
         }
@@ -372,18 +374,13 @@ public class AutoRPS {
         lastDamageAlertTime = now;
         
         java.util.List<String> nearbyPlayers = new java.util.ArrayList<>();
-        com.winss.wbutils.features.ModUserManager modUserManager = WBUtilsClient.getModUserManager();
-        if (client.world != null) {
-            for (net.minecraft.client.network.AbstractClientPlayerEntity otherPlayer : client.world.getPlayers()) {
-                if (otherPlayer == player) continue;
-                String otherName = otherPlayer.getName().getString();
-                if (modUserManager != null && modUserManager.isModUser(otherName)) {
-                    continue;
-                }
-                if (player.distanceTo(otherPlayer) <= 5.0) {
-                    nearbyPlayers.add(otherName);
-                }
+        PlayerSnapshot snapshot = PlayerSnapshot.current();
+        for (int i : snapshot.within(player.getX(), player.getY(), player.getZ(), 5.0)) {
+            String otherName = snapshot.name(i);
+            if (snapshot.identity(i).isModUser()) {
+                continue;
             }
+            nearbyPlayers.add(otherName);
         }
         
         String attackerInfo = nearbyPlayers.isEmpty() ? "Unknown" : String.join(", ", nearbyPlayers);
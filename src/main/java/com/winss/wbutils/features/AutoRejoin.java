@@ -1,6 +1,9 @@
 package com.winss.wbutils.features;
 
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.ColorCodes;
+import com.winss.wbutils.chat.KeywordMatcher;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
 import net.minecraft.client.MinecraftClient;
@@ -11,11 +14,14 @@ import net.minecraft.text.Text;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.world.World;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import com.winss.wbutils.network.JsonCodec;
 import com.winss.wbutils.network.NetworkManager;
 
 public class AutoRejoin {
@@ -33,7 +39,36 @@ public class AutoRejoin {
     private static final int HOUSING_LOAD_DELAY_JITTER_TICKS = 1 * 20;
     private static final int VISIT_DELAY_BASE_TICKS = 20;
     
-    private final Set<String> disconnectIndicators = new HashSet<>();
+    // Generic network-error wording that always counts as a disconnect reason, on top of the indicators
+    private static final List<String> NETWORK_ERROR_KEYWORDS = List.of(
+        "timed out", "connection lost", "connection reset", "internal exception", "read timed out",
+        "connection refused", "network", "io exception", "permission denied", "getsockopt", "limbo"
+    );
+    
+    /**
+     * Indicators compiled into one case-folded automaton. Immutable; a refresh builds a new one and swaps it in.
+     * Keyword ids below indicatorCount are indicators, the rest are {@link #NETWORK_ERROR_KEYWORDS}.
+     */
+    private record IndicatorSet(List<String> indicators, KeywordMatcher matcher) {
+        static IndicatorSet of(Set<String> indicators) {
+            List<String> keywords = new ArrayList<>();
+            for (String indicator : indicators) {
+                keywords.add(indicator.trim());
+            }
+            keywords.addAll(NETWORK_ERROR_KEYWORDS);
+            return new IndicatorSet(List.copyOf(indicators), new KeywordMatcher(keywords));
+        }
+        
+        /**
+         * @return The indicator the whole message equals (ignoring case), or null
+         */
+        String exactIndicator(String message) {
+            int id = matcher.exactMatch(message);
+            return id >= 0 && id < indicators.size() ? indicators.get(id) : null;
+        }
+    }
+    
+    private volatile IndicatorSet disconnectIndicators;
     private long lastDisconnectMessagesFetch = 0L;
     private boolean isFetching = false;
     
@@ -71,14 +106,16 @@ public class AutoRejoin {
     
     public AutoRejoin() {
         WBUtilsClient.LOGGER.info("[AutoRejoin] Initialized");
-        disconnectIndicators.add("/limbo for more information.");
-        disconnectIndicators.add("You were spawned in Limbo");
-        disconnectIndicators.add("You were kicked whilst connecting");
-        disconnectIndicators.add("Connection throttled!");
-        disconnectIndicators.add("You are already connecting to this server!");
-        disconnectIndicators.add("Internal Exception:");
-        disconnectIndicators.add("Timed out");
-        disconnectIndicators.add("Connection Lost");
+        Set<String> defaults = new LinkedHashSet<>();
+        defaults.add("/limbo for more information.");
+        defaults.add("You were spawned in Limbo");
+        defaults.add("You were kicked whilst connecting");
+        defaults.add("Connection throttled!");
+        defaults.add("You are already connecting to this server!");
+        defaults.add("Internal Exception:");
+        defaults.add("Timed out");
+        defaults.add("Connection Lost");
+        disconnectIndicators = IndicatorSet.of(defaults);
     }
     
 
@@ -173,7 +210,7 @@ public class AutoRejoin {
         }
         
         String reasonStr = reason != null ? reason.getString() : "";
-        String strippedReason = reasonStr.replaceAll("§[0-9a-fk-or]", "").trim();
+        String strippedReason = ColorCodes.strip(reasonStr).trim();
         
         boolean isNetworkDisconnect = isNetworkDisconnect(strippedReason);
         
@@ -199,57 +236,30 @@ public class AutoRejoin {
             return true;
         }
         
-        String lowerReason = reason.toLowerCase();
-        
-        for (String indicator : disconnectIndicators) {
-            if (lowerReason.contains(indicator.toLowerCase())) {
-                return true;
-            }
-        }
-        
-        if (lowerReason.contains("timed out") ||
-            lowerReason.contains("connection lost") ||
-            lowerReason.contains("connection reset") ||
-            lowerReason.contains("internal exception") ||
-            lowerReason.contains("read timed out") ||
-            lowerReason.contains("connection refused") ||
-            lowerReason.contains("network") ||
-            lowerReason.contains("io exception") ||
-            lowerReason.contains("permission denied") ||
-            lowerReason.contains("getsockopt") ||
-            lowerReason.contains("limbo")) {
-            return true;
-        }
-        
-        return false;
+        // Indicators and the generic network-error keywords, all in one pass
+        return disconnectIndicators.matcher().containsAny(reason);
     }
     
 
     public boolean isGenuineDisconnectMessage(Text message) {
         if (message == null) return false;
         
-        String plain = message.getString();
-        if (plain == null || plain.isEmpty()) return false;
+        ChatEvent event = new ChatEvent(message);
+        if (event.plain().isEmpty()) return false;
         
-        String stripped = plain.replaceAll("§[0-9a-fk-or]", "").trim();
+        String stripped = event.stripped();
         
-        if (!isGenuineSystemMessage(message, stripped)) {
+        if (!isGenuineSystemMessage(event)) {
             return false;
         }
         
-        for (String indicator : disconnectIndicators) {
-            if (stripped.equalsIgnoreCase(indicator.trim())) {
-                return true;
-            }
-        }
-        
-        return false;
+        return disconnectIndicators.exactIndicator(stripped) != null;
     }
-    private boolean isGenuineSystemMessage(Text message, String stripped) {
-        if (message == null || stripped == null) return false;
+    private boolean isGenuineSystemMessage(ChatEvent event) {
+        Text message = event.text();
+        if (message == null) return false;
         
-        String plain = message.getString();
-        if (plain == null) return false;
+        String plain = event.plain();
 
         boolean hasAquaColor = plain.startsWith("§b") || 
             plain.contains("§b") ||
@@ -258,13 +268,11 @@ public class AutoRejoin {
              "aqua".equals(message.getStyle().getColor().getName()));
         
 
-        boolean hasPlayerPrefix = stripped.matches("^(\\[[^\\]]+\\]\\s*)*[A-Za-z0-9_]{1,16}:\\s.*");
-        
-        if (hasPlayerPrefix) {
+        if (event.isPlayerChat()) {
             return false;
         }
         
-        if (stripped.toLowerCase().contains("limbo")) {
+        if (event.lower().contains("limbo")) {
             return hasAquaColor;
         }
         
@@ -273,7 +281,7 @@ public class AutoRejoin {
     }
     
 
-    public boolean handleChatMessage(Text message) {
+    public boolean handleChatMessage(ChatEvent event) {
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         
         if (!config.autoRejoinEnabled) {
@@ -284,26 +292,17 @@ public class AutoRejoin {
             return false;
         }
         
-        if (message == null) return false;
-        
-        String plain = message.getString();
-        if (plain == null || plain.isEmpty()) return false;
-        
-        String stripped = plain.replaceAll("§[0-9a-fk-or]", "").trim();
+        String plain = event.plain();
+        if (plain.isEmpty()) return false;
         
-        String matchedIndicator = null;
-        for (String indicator : disconnectIndicators) {
-            if (stripped.equalsIgnoreCase(indicator.trim())) {
-                matchedIndicator = indicator;
-                break;
-            }
-        }
+        String stripped = event.stripped();
         
+        String matchedIndicator = disconnectIndicators.exactIndicator(stripped);
         if (matchedIndicator == null) {
             return false;
         }
         
-        if (!isGenuineSystemMessage(message, stripped)) {
+        if (!isGenuineSystemMessage(event)) {
             if (config.debugAutoRejoin) {
                 WBUtilsClient.LOGGER.info("[AutoRejoin] Indicator detected but failed system message check (possible troll): {}", plain);
             }
@@ -613,29 +612,21 @@ public class AutoRejoin {
                         return;
                     }
                     
-                    String jsonStr = response.body().trim();
-                if (jsonStr.startsWith("[") && jsonStr.endsWith("]")) {
-                    Set<String> newIndicators = new HashSet<>();
-                    
-                    String content = jsonStr.substring(1, jsonStr.length() - 1);
-                    if (!content.isEmpty()) {
-                        String[] parts = content.split(",");
-                        for (String part : parts) {
-                            String cleaned = part.trim();
-                            if (cleaned.startsWith("\"") && cleaned.endsWith("\"")) {
-                                String msg = cleaned.substring(1, cleaned.length() - 1);
-                                msg = msg.replace("\\\"", "\"").replace("\\\\", "\\");
-                                if (!msg.isEmpty()) {
-                                    newIndicators.add(msg);
-                                }
-                            }
+                    List<String> fetched = JsonCodec.decodeStringArray(response.body());
+                if (fetched != null) {
+                    // Compile off the main thread, then swap the whole set in at once
+                    Set<String> merged = new LinkedHashSet<>(disconnectIndicators.indicators());
+                    for (String msg : fetched) {
+                        if (!msg.isEmpty()) {
+                            merged.add(msg);
                         }
                     }
+                    IndicatorSet compiled = IndicatorSet.of(merged);
+                    disconnectIndicators = compiled;
                     
                     runOnMainThread(() -> {
-                        disconnectIndicators.addAll(newIndicators);
                         if (config.debugAutoRejoin) {
-                            WBUtilsClient.LOGGER.info("[AutoRejoin] Updated disconnect indicators. Total: {}", disconnectIndicators.size());
+                            WBUtilsClient.LOGGER.info("[AutoRejoin] Updated disconnect indicators. Total: {}", compiled.indicators().size());
                         }
                         callback.accept(true);
                     });
@@ -671,7 +662,7 @@ public class AutoRejoin {
     }
 
     public int getDisconnectIndicatorCount() {
-        return disconnectIndicators.size();
+        return disconnectIndicators.indicators().size();
     }
 
     public void refreshDisconnectMessagesIfNeeded() {
@@ -1,9 +1,11 @@
 package com.winss.wbutils.features;
 
+import com.winss.wbutils.Cooldowns;
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ColorCodes;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
-import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.UplinkQueue;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.ingame.HandledScreen;
 import net.minecraft.item.ItemStack;
@@ -29,6 +31,7 @@ import java.util.regex.Pattern;
 public class BootlistTracker {
     
     private static final long SYNC_COOLDOWN_MS = 1 * 60 * 1000L;
+    private static final String SYNC_COOLDOWN = "bootlist/sync";
     private static final int MAX_WAIT_TICKS = 60;
     private static final int MAX_TRACK_TICKS = 20 * 60;
     private static final int PARSE_DELAY_TICKS = 4;
@@ -62,9 +65,8 @@ public class BootlistTracker {
             return;
         }
         
-        long now = System.currentTimeMillis();
-        if (now - lastSyncTime < SYNC_COOLDOWN_MS) {
-            long remainingMs = SYNC_COOLDOWN_MS - (now - lastSyncTime);
+        long remainingMs = Cooldowns.remainingMs(SYNC_COOLDOWN);
+        if (remainingMs > 0) {
             long remainingMin = Math.max(1, (remainingMs + 59999) / 60000);
             if (config.debugBootlist) {
                 WBUtilsClient.LOGGER.info("[BootlistTracker] Sync on cooldown, {} minutes remaining", remainingMin);
@@ -217,7 +219,7 @@ public class BootlistTracker {
             return null;
         }
 
-        String cleanTitle = title.replaceAll("§[0-9a-fk-or]", "").trim();
+        String cleanTitle = ColorCodes.strip(title).trim();
         Matcher matcher = BOOTS_TITLE_PATTERN.matcher(cleanTitle);
         if (!matcher.matches()) {
             return null;
@@ -246,7 +248,7 @@ public class BootlistTracker {
                 int storedCount = getStoredCount(stack);
                 
                 if (storedCount > 0) {
-                    String cleanName = itemName.replaceAll("§[0-9a-fk-or]", "").trim();
+                    String cleanName = ColorCodes.strip(itemName).trim();
                     boots.put(cleanName, storedCount);
                     
                     if (config.debugBootlist) {
@@ -270,7 +272,7 @@ public class BootlistTracker {
                     String lineStr = line.getString();
                     if (lineStr == null) continue;
                     
-                    String cleanLine = lineStr.replaceAll("§[0-9a-fk-or]", "");
+                    String cleanLine = ColorCodes.strip(lineStr);
                     
                     Matcher matcher = STORED_PATTERN.matcher(cleanLine);
                     if (matcher.find()) {
@@ -323,12 +325,11 @@ public class BootlistTracker {
             bootsJson
         );
         
-        String url = config.authServerUrl + "/boots/update";
-        
-        NetworkManager.post(url, json, authToken)
+        UplinkQueue.submit(config.authServerUrl, "/boots/update", json, authToken, UplinkQueue.Priority.LOW)
             .thenAccept(response -> {
                 if (response.isSuccess()) {
                     lastSyncTime = System.currentTimeMillis();
+                    Cooldowns.start(SYNC_COOLDOWN, SYNC_COOLDOWN_MS);
                     WBUtilsClient.LOGGER.info("[BootlistTracker] Synced {} boot types to server", boots.size());
                     
                     MinecraftClient.getInstance().execute(() -> {
@@ -343,6 +344,16 @@ public class BootlistTracker {
                 }
             })
             .exceptionally(e -> {
+                if (UplinkQueue.isQueued(e)) {
+                    // Not synced yet, so no cooldown; the outbox sends it once the server is back
+                    WBUtilsClient.LOGGER.info("[BootlistTracker] Server unreachable, {} boot types queued for later", boots.size());
+                    MinecraftClient.getInstance().execute(() -> {
+                        if (client.player != null) {
+                            client.player.sendMessage(Text.literal(Messages.get("command.bootlist.sync.queued")), false);
+                        }
+                    });
+                    return null;
+                }
                 WBUtilsClient.LOGGER.error("[BootlistTracker] Sync error", e);
                 return null;
             });
@@ -379,8 +390,7 @@ public class BootlistTracker {
     }
 
     public long getRemainingCooldownMs() {
-        long elapsed = System.currentTimeMillis() - lastSyncTime;
-        return Math.max(0, SYNC_COOLDOWN_MS - elapsed);
+        return Cooldowns.remainingMs(SYNC_COOLDOWN);
     }
 
     public Map<String, Integer> getLastBootsData() {
@@ -389,5 +399,6 @@ public class BootlistTracker {
 
     public void resetCooldown() {
         lastSyncTime = 0;
+        Cooldowns.reset(SYNC_COOLDOWN);
     }
 }
@@ -1,17 +1,17 @@
 package com.winss.wbutils.features;
 
+import com.winss.wbutils.Cooldowns;
 import com.winss.wbutils.WBUtilsClient;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.Box;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.UUID;
+import java.util.BitSet;
 
 public class BorgRadar {
-    private final Set<UUID> alertedPlayers = new HashSet<>();
-    private long lastClearTime = 0;
+    private static final long REALERT_MS = 5000;
+
+    // PlayerRegistry ids; each player stays in here for REALERT_MS after being alerted
+    private final BitSet alertedPlayers = new BitSet();
 
 
     private static final double MIN_X = -30;
@@ -24,40 +24,39 @@ public class BorgRadar {
 
     private static final Box EXCLUSION_ZONE = new Box(MIN_X, MIN_Y, MIN_Z, MAX_X, MAX_Y, MAX_Z);
 
+    public BorgRadar() {
+        // A released id can go to a different player, who shouldn't inherit the alert cooldown
+        PlayerRegistry.onRelease(id -> {
+            alertedPlayers.clear(id);
+            Cooldowns.reset("borgradar/" + id);
+        });
+    }
+
     public void onClientTick() {
         if (!WBUtilsClient.getConfigManager().getConfig().borgRadarEnabled) return;
         MinecraftClient client = MinecraftClient.getInstance();
         if (client.player == null || client.world == null) return;
 
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastClearTime > 5000) {
-            alertedPlayers.clear();
-            lastClearTime = currentTime;
-        }
-
-
         if (EXCLUSION_ZONE.contains(client.player.getPos())) {
             return;
         }
 
-        for (PlayerEntity player : client.world.getPlayers()) {
-            if (player == client.player) continue;
-
-            if (player.isInvisible()) {
-                if (EXCLUSION_ZONE.contains(player.getPos())) {
-                    continue;
-                }
+        PlayerSnapshot snapshot = PlayerSnapshot.current();
+        double x = client.player.getX(), y = client.player.getY(), z = client.player.getZ();
+        for (int i : snapshot.within(x, y, z, 25.0, snapshot::invisible)) {
+            if (EXCLUSION_ZONE.contains(snapshot.x(i), snapshot.y(i), snapshot.z(i))) {
+                continue;
+            }
 
-                double dist = client.player.distanceTo(player);
-                if (dist <= 25.0) {
-                    if (!alertedPlayers.contains(player.getUuid())) {
-                        alertedPlayers.add(player.getUuid());
-                        client.player.sendMessage(Text.literal("§9[WBUtils] §b" + player.getName().getString() + " §7is near you (§e" + String.format("%.1f", dist) + "m§7) while invis!"), false);
-                        
-                        if (WBUtilsClient.getConfigManager().getConfig().debugBorgRadar) {
-                            WBUtilsClient.LOGGER.info("BorgRadar alerted for " + player.getName().getString() + " at distance " + dist);
-                        }
-                    }
+            int id = snapshot.id(i);
+            if (!alertedPlayers.get(id)) {
+                alertedPlayers.set(id);
+                Cooldowns.schedule("borgradar/" + id, REALERT_MS, () -> alertedPlayers.clear(id));
+                double dist = snapshot.distance(i, x, y, z);
+                client.player.sendMessage(Text.literal("§9[WBUtils] §b" + snapshot.name(i) + " §7is near you (§e" + String.format("%.1f", dist) + "m§7) while invis!"), false);
+                
+                if (WBUtilsClient.getConfigManager().getConfig().debugBorgRadar) {
+                    WBUtilsClient.LOGGER.info("BorgRadar alerted for " + snapshot.name(i) + " at distance " + dist);
                 }
             }
         }
@@ -1,6 +1,10 @@
 package com.winss.wbutils.features;
 
+import com.winss.wbutils.Cooldowns;
+import com.winss.wbutils.FeatureProfiler;
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.EventClock;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
 import com.mojang.blaze3d.systems.RenderSystem;
@@ -19,7 +23,11 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import com.google.gson.JsonObject;
+import com.winss.wbutils.network.JsonCodec;
 import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.PushChannel;
+import com.winss.wbutils.network.UplinkQueue;
 
 /**
  * Door Spirit Feature
@@ -38,6 +46,7 @@ public class DoorSpirit {
     private static final BlockPos DOOR_2_MAX = new BlockPos(60, 26, 85);
     
     private static final double RENDER_DISTANCE = 30.0;
+    private static final FeatureProfiler.Span RENDER_SPAN = FeatureProfiler.span("render/DoorSpirit");
     
     private static final Pattern WRONG_DOOR_PATTERN = Pattern.compile("\\*\\s*RIP!\\s*That was the wrong door!", Pattern.CASE_INSENSITIVE);
     private static final Pattern CORRECT_DOOR_PATTERN = Pattern.compile("\\*\\s*YAY!\\s*You choose the correct door!", Pattern.CASE_INSENSITIVE);
@@ -51,8 +60,8 @@ public class DoorSpirit {
     private DoorState currentState = DoorState.UNKNOWN;
     private int correctDoor = 0;
     private long lastStateChangeTime = 0;
-    private long lastServerFetchTime = 0;
     private static final long SERVER_FETCH_COOLDOWN_MS = 5000;
+    private static final String SERVER_FETCH_COOLDOWN = "doorspirit/fetch";
     private boolean needsWorldJoinFetch = false;
     
     private final List<DoorHistoryEntry> localHistory = new ArrayList<>();
@@ -64,18 +73,18 @@ public class DoorSpirit {
     }
     
     public DoorSpirit() {
-        WorldRenderEvents.AFTER_TRANSLUCENT.register(this::onWorldRender);
+        WorldRenderEvents.AFTER_TRANSLUCENT.register(context -> {
+            long start = RENDER_SPAN.begin();
+            onWorldRender(context);
+            RENDER_SPAN.end(start);
+        });
+        PushChannel.subscribe(PushChannel.TOPIC_DOOR, this::onDoorPush);
         
         WBUtilsClient.LOGGER.info("[DoorSpirit] Initialized");
     }
 
-    public void handleChatMessage(Text message) {
-        if (message == null) return;
-        
-        String plain = message.getString();
-        if (plain == null) return;
-        
-        String stripped = plain.replaceAll("§[0-9a-fk-or]", "").trim();
+    public void handleChatMessage(ChatEvent event) {
+        String stripped = event.stripped();
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         
         if (config.debugDoorSpirit) {
@@ -179,7 +188,7 @@ public class DoorSpirit {
         
         currentState = DoorState.UNKNOWN;
         correctDoor = 0;
-        lastStateChangeTime = System.currentTimeMillis();
+        lastStateChangeTime = EventClock.now();
         
         sendDoorCycleReport();
         
@@ -194,7 +203,7 @@ public class DoorSpirit {
     private void updateDoorState(int correctDoorNumber) {
         this.correctDoor = correctDoorNumber;
         this.currentState = (correctDoorNumber == 1) ? DoorState.DOOR_1_CORRECT : DoorState.DOOR_2_CORRECT;
-        this.lastStateChangeTime = System.currentTimeMillis();
+        this.lastStateChangeTime = EventClock.now();
     }
 
     private int getPlayerNearestDoor(ClientPlayerEntity player) {
@@ -254,7 +263,7 @@ public class DoorSpirit {
         
         if (needsWorldJoinFetch) {
             needsWorldJoinFetch = false;
-            lastServerFetchTime = System.currentTimeMillis();
+            Cooldowns.start(SERVER_FETCH_COOLDOWN, SERVER_FETCH_COOLDOWN_MS);
             fetchDoorStateFromServer();
             if (config.debugDoorSpirit) {
                 MinecraftClient.getInstance().player.sendMessage(
@@ -265,10 +274,10 @@ public class DoorSpirit {
         }
         
         // Also fetch periodically when near doors (to get updates from other players)
-        long now = System.currentTimeMillis();
-        if (now - lastServerFetchTime > SERVER_FETCH_COOLDOWN_MS) {
+        // Not needed while the push channel is up - other players' results arrive as door events
+        if (!PushChannel.isConnected() && !Cooldowns.isActive(SERVER_FETCH_COOLDOWN)) {
             if (isPlayerNearDoors(client.player)) {
-                lastServerFetchTime = now;
+                Cooldowns.start(SERVER_FETCH_COOLDOWN, SERVER_FETCH_COOLDOWN_MS);
                 fetchDoorStateFromServer();
             }
         }
@@ -404,7 +413,6 @@ public class DoorSpirit {
             
             if (player == null) return;
             
-            String urlStr = config.authServerUrl + "/door/report";
             String json = String.format(
                 "{\"minecraft_uuid\":\"%s\",\"minecraft_name\":\"%s\",\"door_used\":%d,\"was_correct\":%s,\"correct_door\":%d,\"timestamp\":%d}",
                 escapeJson(player.getUuid().toString()),
@@ -412,10 +420,10 @@ public class DoorSpirit {
                 doorUsed,
                 wasCorrect ? "true" : "false",
                 correctDoorNumber,
-                System.currentTimeMillis()
+                EventClock.now()
             );
 
-            NetworkManager.post(urlStr, json, config.authToken)
+            UplinkQueue.submit(config.authServerUrl, "/door/report", json, config.authToken, UplinkQueue.Priority.NORMAL)
                 .thenAccept(response -> {
                     if (config.debugDoorSpirit) {
                         WBUtilsClient.LOGGER.info("[DoorSpirit] Door report sent, response: {}", response.statusCode());
@@ -423,7 +431,11 @@ public class DoorSpirit {
                 })
                 .exceptionally(e -> {
                     if (config.debugDoorSpirit) {
-                        WBUtilsClient.LOGGER.error("[DoorSpirit] Failed to send door report", e);
+                        if (UplinkQueue.isQueued(e)) {
+                            WBUtilsClient.LOGGER.info("[DoorSpirit] Server unreachable, door report queued for later");
+                        } else {
+                            WBUtilsClient.LOGGER.error("[DoorSpirit] Failed to send door report", e);
+                        }
                     }
                     return null;
                 });
@@ -440,15 +452,14 @@ public class DoorSpirit {
             
             if (player == null) return;
             
-            String urlStr = config.authServerUrl + "/door/cycle";
             String json = String.format(
                 "{\"minecraft_uuid\":\"%s\",\"minecraft_name\":\"%s\",\"timestamp\":%d}",
                 escapeJson(player.getUuid().toString()),
                 escapeJson(player.getGameProfile().getName()),
-                System.currentTimeMillis()
+                EventClock.now()
             );
 
-            NetworkManager.post(urlStr, json, config.authToken)
+            UplinkQueue.submit(config.authServerUrl, "/door/cycle", json, config.authToken, UplinkQueue.Priority.NORMAL)
                 .thenAccept(response -> {
                     if (config.debugDoorSpirit) {
                         WBUtilsClient.LOGGER.info("[DoorSpirit] Door cycle report sent, response: {}", response.statusCode());
@@ -456,7 +467,11 @@ public class DoorSpirit {
                 })
                 .exceptionally(e -> {
                     if (config.debugDoorSpirit) {
-                        WBUtilsClient.LOGGER.error("[DoorSpirit] Failed to send door cycle report", e);
+                        if (UplinkQueue.isQueued(e)) {
+                            WBUtilsClient.LOGGER.info("[DoorSpirit] Server unreachable, door cycle report queued for later");
+                        } else {
+                            WBUtilsClient.LOGGER.error("[DoorSpirit] Failed to send door cycle report", e);
+                        }
                     }
                     return null;
                 });
@@ -471,12 +486,8 @@ public class DoorSpirit {
 
         NetworkManager.get(urlStr, false, config.authToken).thenAccept(response -> {
             if (response.statusCode() == 200) {
-                String responseStr = response.body();
-                Pattern doorPattern = Pattern.compile("\"correct_door\"\\s*:\\s*(\\d+)");
-                Matcher matcher = doorPattern.matcher(responseStr);
-                if (matcher.find()) {
-                    int serverCorrectDoor = Integer.parseInt(matcher.group(1));
-
+                int serverCorrectDoor = JsonCodec.findInt(response.body(), "correct_door", -1);
+                if (serverCorrectDoor >= 0) {
                     // Only update if no local knowledge or server is more recent
                     if (correctDoor == 0 && serverCorrectDoor > 0) {
                         MinecraftClient.getInstance().execute(() -> {
@@ -496,6 +507,24 @@ public class DoorSpirit {
         });
     }
     
+    // Door result pushed by the server: {"topic":"door","correct_door":N}
+    private void onDoorPush(JsonObject frame) {
+        int serverCorrectDoor = JsonCodec.findInt(frame, "correct_door", -1);
+        if (serverCorrectDoor <= 0) return;
+
+        ModConfig config = WBUtilsClient.getConfigManager().getConfig();
+        if (!config.doorSpiritEnabled) return;
+
+        // A pushed event is always the latest result, so it overrides local knowledge
+        MinecraftClient.getInstance().execute(() -> {
+            if (correctDoor == serverCorrectDoor) return;
+            updateDoorState(serverCorrectDoor);
+            if (config.debugDoorSpirit) {
+                WBUtilsClient.LOGGER.info("[DoorSpirit] Got pushed door state: door {}", serverCorrectDoor);
+            }
+        });
+    }
+    
     // ==================== Local History Storage ====================
 
     private void addToHistory(int doorNumber, long timestamp) {
@@ -1,6 +1,9 @@
 package com.winss.wbutils.features;
 
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.ColorCodes;
+import com.winss.wbutils.chat.EventClock;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.mixin.PlayerListHudAccessor;
 import net.minecraft.client.MinecraftClient;
@@ -30,9 +33,6 @@ public class HousingDetector {
 
     
 
-    private static final Pattern COLOR_CODE_PATTERN = Pattern.compile("§[0-9a-fk-or]");
-    
-
     private static final Pattern SENDING_TO_PATTERN = Pattern.compile(
         "Sending to (?:DON'?T\\s*PRESS\\s*THE\\s*BUTTON|DPTB)", Pattern.CASE_INSENSITIVE
     );
@@ -72,19 +72,9 @@ public class HousingDetector {
     private static final long TAB_RETRY_DELAY_MS = 1500L;
     
 
-    private static String stripColorCodes(String text) {
-        if (text == null || text.isEmpty()) return "";
-        return COLOR_CODE_PATTERN.matcher(text).replaceAll("");
-    }
-    
-    public boolean handleChatMessage(Text message) {
-        if (message == null) return false;
-        
-        String plain = message.getString();
-        if (plain == null || plain.isEmpty()) return false;
-        
-
-        String stripped = stripColorCodes(plain).trim();
+    public boolean handleChatMessage(ChatEvent event) {
+        String stripped = event.stripped();
+        if (stripped.isEmpty()) return false;
         
 
         if (SENDING_TO_PATTERN.matcher(stripped).find()) {
@@ -100,7 +90,7 @@ public class HousingDetector {
     
     private void triggerPendingDetection() {
         pendingDetection.set(true);
-        worldJoinTime = System.currentTimeMillis();
+        worldJoinTime = EventClock.now();
         tabCheckRetryCount = 0;
         WBUtilsClient.LOGGER.info("[HousingDetector] Pending detection triggered, waiting for world to load...");
     }
@@ -140,7 +130,7 @@ public class HousingDetector {
         }
         lastDimension = currentDimension;
         
-        long now = System.currentTimeMillis();
+        long now = EventClock.now();
         
 
         if (pendingDetection.get()) {
@@ -252,11 +242,11 @@ public class HousingDetector {
         StringBuilder tabContentBuilder = new StringBuilder();
         
         if (header != null) {
-            tabContentBuilder.append(stripColorCodes(header.getString())).append(" ");
+            ColorCodes.strip(header, tabContentBuilder).append(" ");
         }
         
         if (footer != null) {
-            tabContentBuilder.append(stripColorCodes(footer.getString()));
+            ColorCodes.strip(footer, tabContentBuilder);
         }
         
         String content = tabContentBuilder.toString();
@@ -507,7 +497,7 @@ public class HousingDetector {
         
 
         if (header != null && !header.getString().isEmpty()) {
-            String headerStr = stripColorCodes(header.getString());
+            String headerStr = ColorCodes.strip(header);
             client.player.sendMessage(Text.literal(Messages.get("housing.debug.tab_header")), false);
             String displayHeader = headerStr.length() > 80 ? headerStr.substring(0, 80) + "..." : headerStr;
             client.player.sendMessage(Text.literal(Messages.getColorText() + displayHeader), false);
@@ -517,7 +507,7 @@ public class HousingDetector {
         
 
         if (footer != null && !footer.getString().isEmpty()) {
-            String footerStr = stripColorCodes(footer.getString());
+            String footerStr = ColorCodes.strip(footer);
             client.player.sendMessage(Text.literal(Messages.get("housing.debug.tab_footer")), false);
             String displayFooter = footerStr.length() > 80 ? footerStr.substring(0, 80) + "..." : footerStr;
             client.player.sendMessage(Text.literal(Messages.getColorText() + displayFooter), false);
@@ -527,8 +517,8 @@ public class HousingDetector {
         
 
         StringBuilder tabContent = new StringBuilder();
-        if (header != null) tabContent.append(stripColorCodes(header.getString())).append(" ");
-        if (footer != null) tabContent.append(stripColorCodes(footer.getString()));
+        if (header != null) ColorCodes.strip(header, tabContent).append(" ");
+        if (footer != null) ColorCodes.strip(footer, tabContent);
         String content = tabContent.toString();
         
 
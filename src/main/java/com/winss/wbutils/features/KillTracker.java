@@ -1,27 +1,42 @@
 package com.winss.wbutils.features;
 
+import com.winss.wbutils.TickScheduler;
+import com.winss.wbutils.TimerWheel;
 import com.winss.wbutils.WBUtilsClient;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
+import com.winss.wbutils.chat.EventClock;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.network.AbstractClientPlayerEntity;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Util;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.function.Consumer;
-import java.util.Set;
-import java.util.regex.Pattern;
+import com.winss.wbutils.network.JsonCodec;
 import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.PushChannel;
+import com.winss.wbutils.network.UplinkQueue;
 
 /**
  * KOTH Tracker KTrack - Tracks players who repeatedly kill/damage others at KOTH.
@@ -29,21 +44,33 @@ import com.winss.wbutils.network.NetworkManager;
 public class KillTracker {
     private static final int TIMEOUT_MS = 10000;
     private static final long SYNC_INTERVAL_MS = 30_000L; // Hotlist sync interval
-    private static final long PROXIMITY_CHECK_INTERVAL_MS = 1000L;
+    // Players already in range stay counted as nearby until they're this much further out, so someone standing
+    // right at the edge doesn't enter and leave every other tick
+    private static final double PROXIMITY_LEAVE_MARGIN = 2.0;
     
 
-    private final Map<String, Float> damageAmountPerPlayer = new ConcurrentHashMap<>();
-    private final Map<String, Long> damageTimePerPlayer = new ConcurrentHashMap<>();
     private static final long DAMAGE_TRACKING_WINDOW_MS = 60_000L;
+    private static final long NEVER = Long.MIN_VALUE;
     
-
-    private final Map<String, Long> proximityAlertCooldowns = new ConcurrentHashMap<>();
+    // Per-player state (recent hits, accumulated damage, proximity alert cooldown), keyed by PlayerRegistry id.
+    // Each record is dropped by its attackerExpiry timeout once all of its windows have passed.
+    private final Int2ObjectOpenHashMap<AttackerRecord> attackers = new Int2ObjectOpenHashMap<>();
+    // Keyed by each record's boxed id; re-arming an expiry moves the record's pending timeout, so hits don't allocate.
+    // Client thread only, advanced from onClientTick
+    private final TimerWheel<Integer> attackerExpiry = new TimerWheel<>(50, Util.getMeasuringTimeMs());
     
 
+    // Keyed by lowercase name. Updated one entry at a time under hotListLock, so an update costs the number of
+    // changed entries; readers don't lock and can see an update part way through
     private final Map<String, KillerInfo> hotList = new ConcurrentHashMap<>();
+    // Same entries as hotList, most total events first, kept in step entry by entry
+    private final ConcurrentSkipListSet<KillerInfo> hotListRanking = new ConcurrentSkipListSet<>(KillerInfo.BY_TOTAL_EVENTS);
+    // Server version of hotList and the query it was fetched for; guarded by hotListLock
+    private final Object hotListLock = new Object();
+    private long hotListVersion = 0L;
+    private String hotListQuery = null;
     
 
-    private final Map<String, Long> recentAttackers = new ConcurrentHashMap<>();
     private String primaryAttacker = null;
     private long primaryAttackerTime = 0L;
     private static final long ATTACKER_MEMORY_MS = 30_000L;
@@ -51,8 +78,9 @@ public class KillTracker {
 
     private float lastKnownHealth = 20f;
     private boolean deathReportedThisCycle = false;
-    private long lastDeathReportTime = 0L;
     private static final long DEATH_REPORT_COOLDOWN_MS = 5000L;
+    // EventClock time: onPlayerDiedInKoth is reached from the bounty chat handler, which EventReplay drives
+    private long lastDeathReportTime = 0L;
     
 
     private long lastStatusLogTime = 0L;
@@ -61,18 +89,49 @@ public class KillTracker {
     
 
     private long lastSyncTime = 0L;
-    private long lastProximityCheckTime = 0L;
+    // Set by pushed hotlist events; the tick fetches the change with the user's own window and threshold
+    private volatile boolean hotListChanged = false;
+    // Query the last full sync was started for; a different one means the settings changed
+    private String requestedHotListQuery = null;
+    // Hotlisted players in range as of the last proximity check (PlayerRegistry ids), and the tick it ran on
+    private BitSet nearbyHotListed = new BitSet();
+    private BitSet nearbyScratch = new BitSet();
+    private long lastProximityTick = -1;
     private boolean authWarningShown = false;
     
-    // Performance Optimization: Cache whitelist names in a HashSet for O(1) lookups
-    private final Set<String> whitelistCache = ConcurrentHashMap.newKeySet();
+    // Whether the config whitelist has been pushed into the PlayerRegistry whitelisted flags yet
     private boolean whitelistLoaded = false;
     
+    public KillTracker() {
+        // The push subscription isn't filtered by time window or threshold, so a pushed hotlist event only
+        // says something changed; the next tick polls for it with our own query
+        PushChannel.subscribe(PushChannel.TOPIC_HOTLIST, new PushChannel.Listener() {
+            @Override
+            public void onEvent(JsonObject frame) {
+                hotListChanged = true;
+            }
+
+            @Override
+            public void onResync() {
+                hotListChanged = true;
+            }
+        });
+        PlayerRegistry.onRelease(this::forgetPlayer);
+    }
+    
     
     /**
      * Information about a killer from the hot list
      */
     public static class KillerInfo {
+        // Ties broken by name so two killers with the same count are still distinct entries
+        static final Comparator<KillerInfo> BY_TOTAL_EVENTS = Comparator
+            .comparingInt(KillerInfo::getTotalEvents).reversed()
+            .thenComparing(info -> info.playerName, String.CASE_INSENSITIVE_ORDER);
+
+        // Sorts ahead of every real entry, so the ranking's first entry is the one just above it
+        static final KillerInfo RANKING_HEAD = new KillerInfo("", Integer.MAX_VALUE, 0, 0);
+
         public final String playerName;
         public final int totalKills;
         public final int totalDamageEvents;
@@ -115,7 +174,7 @@ public class KillTracker {
         
 
         String attacker = findNearestPlayer(player, 10.0);
-        if (attacker == null || attacker.isEmpty()) {
+        if (attacker == null || attacker.isBlank()) {
             return;
         }
         
@@ -129,7 +188,9 @@ public class KillTracker {
         long now = Util.getMeasuringTimeMs();
         
 
-        recentAttackers.put(attacker.toLowerCase(), now);
+        AttackerRecord record = attacker(attacker);
+        record.lastAttackTime = now;
+        scheduleExpiry(record, now);
         primaryAttacker = attacker;
         primaryAttackerTime = now;
         
@@ -142,7 +203,7 @@ public class KillTracker {
         }
 
         if (config.ktrackDebugLogs) {
-            WBUtilsClient.LOGGER.info("[KillTracker] Tracked attacker from damage: {} (total tracked: {})", attacker, recentAttackers.size());
+            WBUtilsClient.LOGGER.info("[KillTracker] Tracked attacker from damage: {} (total tracked: {})", attacker, countRecentAttackers());
         }
     }
     
@@ -178,7 +239,7 @@ public class KillTracker {
             killer = findNearestPlayer(player, 10.0);
         }
         
-        if (killer == null || killer.isEmpty()) {
+        if (killer == null || killer.isBlank()) {
             sendDebugAlways(player, Messages.get("ktrack.debug.no_attacker"));
             return;
         }
@@ -196,25 +257,19 @@ public class KillTracker {
         long now = Util.getMeasuringTimeMs();
         
 
-        recentAttackers.put(killer.toLowerCase(), now);
         primaryAttacker = killer;
         primaryAttackerTime = now;
         
 
-        recentAttackers.entrySet().removeIf(e -> (now - e.getValue()) > ATTACKER_MEMORY_MS);
-        
-
-        // Use plain username to avoid color code issues
-        String plainKiller = killer.replaceAll("§[0-9a-fk-or]", "").toLowerCase();
-
-        Long lastTime = damageTimePerPlayer.get(plainKiller);
-        if (lastTime == null || (now - lastTime) > DAMAGE_TRACKING_WINDOW_MS) {
-            damageAmountPerPlayer.put(plainKiller, 0f);
+        AttackerRecord record = attacker(killer);
+        record.lastAttackTime = now;
+        if (!within(record.lastDamageTime, now, DAMAGE_TRACKING_WINDOW_MS)) {
+            record.damage = 0f;
         }
-        
-        float currentAccumulated = damageAmountPerPlayer.getOrDefault(plainKiller, 0f) + amount;
-        damageAmountPerPlayer.put(plainKiller, currentAccumulated);
-        damageTimePerPlayer.put(plainKiller, now);
+        record.damage += amount;
+        record.lastDamageTime = now;
+        scheduleExpiry(record, now);
+        float currentAccumulated = record.damage;
         
         sendDebugAlways(player, Messages.format("ktrack.debug.dmg_event", 
             "player", killer, 
@@ -225,7 +280,7 @@ public class KillTracker {
         if (currentAccumulated >= config.ktrackDamageThreshold) {
             sendDebugAlways(player, Messages.format("ktrack.debug.threshold_reached", "threshold", String.valueOf(config.ktrackDamageThreshold)));
             reportKTrackEvent(killer, player.getGameProfile().getName(), "damage");
-            damageAmountPerPlayer.put(plainKiller, 0f);
+            record.damage = 0f;
         }
     }
     
@@ -260,7 +315,7 @@ public class KillTracker {
         }
         
         float currentHealth = player.getHealth();
-        long now = Util.getMeasuringTimeMs();
+        long now = EventClock.monotonicMs();
         
 
         ticksSinceHealthLog++;
@@ -323,18 +378,17 @@ public class KillTracker {
         
         StringBuilder sb = new StringBuilder();
         List<String> attackerList = new ArrayList<>();
-        for (Map.Entry<String, Long> entry : recentAttackers.entrySet()) {
-            long age = (now - entry.getValue()) / 1000;
-            attackerList.add(entry.getKey() + "(" + age + "s ago)");
+        for (AttackerRecord record : attackers.values()) {
+            if (record.lastAttackTime == NEVER) continue;
+            long age = (now - record.lastAttackTime) / 1000;
+            attackerList.add(record.name + "(" + age + "s ago)");
         }
 
         List<String> nearby = new ArrayList<>();
-        for (AbstractClientPlayerEntity otherPlayer : client.world.getPlayers()) {
-            if (otherPlayer == player) continue;
-            double dist = player.distanceTo(otherPlayer);
-            if (dist <= 20.0) {
-                nearby.add(otherPlayer.getName().getString() + "(" + String.format("%.1f", dist) + "m)");
-            }
+        PlayerSnapshot snapshot = PlayerSnapshot.current();
+        for (int i : snapshot.within(player.getX(), player.getY(), player.getZ(), 20.0)) {
+            double dist = snapshot.distance(i, player.getX(), player.getY(), player.getZ());
+            nearby.add(snapshot.name(i) + "(" + String.format("%.1f", dist) + "m)");
         }
 
         String status = Messages.format("ktrack.debug.status", 
@@ -351,12 +405,13 @@ public class KillTracker {
         sendDebugAlways(player, Messages.get("ktrack.debug.attribution_start"));
         
 
-        sendDebugAlways(player, Messages.format("ktrack.debug.tracked_attackers", "count", String.valueOf(recentAttackers.size())));
-        for (Map.Entry<String, Long> entry : recentAttackers.entrySet()) {
-            long ageMs = now - entry.getValue();
+        sendDebugAlways(player, Messages.format("ktrack.debug.tracked_attackers", "count", String.valueOf(countRecentAttackers())));
+        for (AttackerRecord record : attackers.values()) {
+            if (record.lastAttackTime == NEVER) continue;
+            long ageMs = now - record.lastAttackTime;
             boolean valid = ageMs <= ATTACKER_MEMORY_MS;
             sendDebugAlways(player, Messages.format("ktrack.debug.attacker_entry", 
-                "player", entry.getKey(), 
+                "player", record.name, 
                 "age", String.valueOf(ageMs/1000), 
                 "status", valid ? Messages.get("status.ok") : Messages.get("status.off")));
         }
@@ -373,19 +428,16 @@ public class KillTracker {
         sendDebugAlways(player, Messages.get("ktrack.debug.nearby_players"));
         if (client.world != null) {
             List<PlayerCandidate> candidates = new ArrayList<>();
-            for (AbstractClientPlayerEntity otherPlayer : client.world.getPlayers()) {
-                if (otherPlayer == player) continue;
-                double dist = player.distanceTo(otherPlayer);
-                if (dist <= 30.0) {
-                    String name = otherPlayer.getName().getString();
-                    boolean wasAttacker = recentAttackers.containsKey(name.toLowerCase());
-                    boolean isModUser = WBUtilsClient.getModUserManager() != null && 
-                        WBUtilsClient.getModUserManager().isModUser(name);
-                    candidates.add(new PlayerCandidate(name, dist, wasAttacker, isModUser));
-                }
+            PlayerSnapshot snapshot = PlayerSnapshot.current();
+            // Already nearest first
+            for (int i : snapshot.within(player.getX(), player.getY(), player.getZ(), 30.0)) {
+                String name = snapshot.name(i);
+                AttackerRecord record = attackers.get(snapshot.id(i));
+                boolean wasAttacker = record != null && record.lastAttackTime != NEVER;
+                boolean isModUser = snapshot.identity(i).isModUser();
+                candidates.add(new PlayerCandidate(name, snapshot.distance(i, player.getX(), player.getY(), player.getZ()), wasAttacker, isModUser));
             }
 
-            candidates.sort((a, b) -> Double.compare(a.distance, b.distance));
             for (PlayerCandidate c : candidates) {
                 String color = c.wasAttacker ? "§c" : (c.isModUser ? "§9" : "§7");
                 String tags = "";
@@ -411,10 +463,10 @@ public class KillTracker {
         if (killer == null) {
             String mostRecent = null;
             long mostRecentTime = 0;
-            for (Map.Entry<String, Long> entry : recentAttackers.entrySet()) {
-                if (entry.getValue() > mostRecentTime && (now - entry.getValue()) <= ATTACKER_MEMORY_MS) {
-                    mostRecent = entry.getKey();
-                    mostRecentTime = entry.getValue();
+            for (AttackerRecord record : attackers.values()) {
+                if (within(record.lastAttackTime, now, ATTACKER_MEMORY_MS) && (mostRecent == null || record.lastAttackTime > mostRecentTime)) {
+                    mostRecent = record.name;
+                    mostRecentTime = record.lastAttackTime;
                 }
             }
             if (mostRecent != null) {
@@ -431,7 +483,7 @@ public class KillTracker {
         if (killer == null) {
 
             sendDebugAlways(player, Messages.get("ktrack.debug.no_killer_found"));
-            sendDebugAlways(player, Messages.format("ktrack.debug.tracked_attackers_label", "count", String.valueOf(recentAttackers.size())));
+            sendDebugAlways(player, Messages.format("ktrack.debug.tracked_attackers_label", "count", String.valueOf(countRecentAttackers())));
             sendDebugAlways(player, Messages.format("ktrack.debug.primary_attacker_label", "player", (primaryAttacker != null ? primaryAttacker : Messages.get("status.off"))));
             sendDebugAlways(player, Messages.get("ktrack.debug.no_killer_hint"));
             return;
@@ -450,9 +502,95 @@ public class KillTracker {
         reportKTrackEvent(killer, player.getGameProfile().getName(), "kill");
         
 
-        recentAttackers.clear();
+        clearRecentAttackers(now);
         primaryAttacker = null;
     }
+    
+    private static final class AttackerRecord {
+        final int id;
+        // Boxed once so the expiry wheel can be keyed on it without boxing per hit
+        final Integer key;
+        final String name;
+        final Runnable expire;
+        float damage = 0f;
+        long lastDamageTime = NEVER;
+        long lastAttackTime = NEVER;
+        long lastAlertTime = NEVER;
+        // Alert cooldown in force when lastAlertTime was set, so the expiry doesn't depend on the config changing
+        long alertCooldownMs = 0L;
+
+        AttackerRecord(PlayerRegistry.Identity identity, Runnable expire) {
+            this.id = identity.id();
+            this.key = id;
+            this.name = identity.key();
+            this.expire = expire;
+        }
+    }
+
+    private static boolean within(long time, long now, long windowMs) {
+        return time != NEVER && now - time <= windowMs;
+    }
+
+    /**
+     * @param name Not blank
+     */
+    private AttackerRecord attacker(String name) {
+        return attacker(PlayerRegistry.intern(name));
+    }
+
+    private AttackerRecord attacker(PlayerRegistry.Identity identity) {
+        int id = identity.id();
+        AttackerRecord record = attackers.get(id);
+        if (record == null) {
+            record = new AttackerRecord(identity, () -> attackers.remove(id));
+            attackers.put(id, record);
+        }
+        return record;
+    }
+
+    /**
+     * (Re)arms the record's expiry for when its last window closes.
+     */
+    private void scheduleExpiry(AttackerRecord record, long now) {
+        long expiresAt = now;
+        if (record.lastAttackTime != NEVER) expiresAt = Math.max(expiresAt, record.lastAttackTime + ATTACKER_MEMORY_MS);
+        if (record.lastDamageTime != NEVER) expiresAt = Math.max(expiresAt, record.lastDamageTime + DAMAGE_TRACKING_WINDOW_MS);
+        if (record.lastAlertTime != NEVER) expiresAt = Math.max(expiresAt, record.lastAlertTime + record.alertCooldownMs);
+        if (expiresAt <= now) {
+            attackerExpiry.cancel(record.key);
+            attackers.remove(record.id);
+            return;
+        }
+        if (!attackerExpiry.reschedule(record.key, expiresAt - now)) {
+            attackerExpiry.schedule(record.key, expiresAt - now, record.expire);
+        }
+    }
+
+    /**
+     * The registry released this id and may give it to someone else.
+     */
+    private void forgetPlayer(int id) {
+        AttackerRecord record = attackers.remove(id);
+        if (record != null) attackerExpiry.cancel(record.key);
+        nearbyHotListed.clear(id);
+        nearbyScratch.clear(id);
+    }
+
+    private int countRecentAttackers() {
+        int count = 0;
+        for (AttackerRecord record : attackers.values()) {
+            if (record.lastAttackTime != NEVER) count++;
+        }
+        return count;
+    }
+
+    private void clearRecentAttackers(long now) {
+        for (AttackerRecord record : new ArrayList<>(attackers.values())) {
+            if (record.lastAttackTime == NEVER) continue;
+            record.lastAttackTime = NEVER;
+            scheduleExpiry(record, now);
+        }
+    }
 
     private static class PlayerCandidate {
         final String name;
@@ -504,8 +642,8 @@ public class KillTracker {
             return;
         }
 
+        long now = EventClock.monotonicMs();
         if (!kothProtector.isInKoth()) {
-            long now = Util.getMeasuringTimeMs();
             if ((now - kothProtector.getLastKothTitleTime()) > 3000L) {
                 if (player != null) sendDebugAlways(player, Messages.format("ktrack.debug.not_in_koth", 
                     "age", String.valueOf((now - kothProtector.getLastKothTitleTime())/1000)));
@@ -513,7 +651,6 @@ public class KillTracker {
             }
         }
         
-        long now = Util.getMeasuringTimeMs();
         if ((now - lastDeathReportTime) < DEATH_REPORT_COOLDOWN_MS) {
             sendDebugAlways(player, Messages.format("ktrack.debug.cooldown", "age", String.valueOf(now - lastDeathReportTime)));
             return;
@@ -525,90 +662,10 @@ public class KillTracker {
         reportDeathWithAttacker(player);
     }
     
-    private static final Pattern VALID_PLAYER_NAME = Pattern.compile("^[a-zA-Z0-9_]{3,16}$");
-
-    private boolean isRealPlayer(AbstractClientPlayerEntity otherPlayer) {
-        if (otherPlayer == null) return false;
-        
-        String name = otherPlayer.getName().getString();
-        if (name == null || name.isEmpty()) return false;
-        
-
-        String cleanName = name.replaceAll("§[0-9a-fk-or]", "");
-        if (!VALID_PLAYER_NAME.matcher(cleanName).matches()) {
-            return false;
-        }
-        
-
-
-        MinecraftClient client = MinecraftClient.getInstance();
-        if (client.getNetworkHandler() != null) {
-            if (client.getNetworkHandler().getPlayerListEntry(otherPlayer.getUuid()) == null) {
-                return false;
-            }
-        }
-        
-
-        if (cleanName.length() >= 8 && cleanName.equals(cleanName.toLowerCase()) && !cleanName.contains("_")) {
-
-            int vowels = 0;
-            for (char c : cleanName.toCharArray()) {
-                if ("aeiou".indexOf(c) >= 0) vowels++;
-            }
-            double vowelRatio = (double) vowels / cleanName.length();
-            if (vowelRatio < 0.1 || vowelRatio > 0.6) {
-                return false; 
-            }
-        }
-        
-        return true;
-    }
-    
     private String findNearestPlayer(ClientPlayerEntity player, double maxDistance) {
-        MinecraftClient client = MinecraftClient.getInstance();
-        if (client.world == null) return null;
-        
-        String nearest = null;
-        double nearestDist = maxDistance;
-        
-        for (AbstractClientPlayerEntity otherPlayer : client.world.getPlayers()) {
-            if (otherPlayer == player) continue;
-            
-
-            if (!isRealPlayer(otherPlayer)) {
-                continue;
-            }
-            
-            double dist = player.distanceTo(otherPlayer);
-            if (dist <= nearestDist) {
-                nearestDist = dist;
-                nearest = otherPlayer.getName().getString();
-            }
-        }
-        
-        return nearest;
-    }
-
-    private List<String> getNearbyPlayers(ClientPlayerEntity player, double maxDistance) {
-        List<String> nearby = new ArrayList<>();
-        MinecraftClient client = MinecraftClient.getInstance();
-        if (client.world == null) return nearby;
-        
-        for (AbstractClientPlayerEntity otherPlayer : client.world.getPlayers()) {
-            if (otherPlayer == player) continue;
-            
-
-            if (!isRealPlayer(otherPlayer)) {
-                continue;
-            }
-            
-            double dist = player.distanceTo(otherPlayer);
-            if (dist <= maxDistance) {
-                nearby.add(otherPlayer.getName().getString());
-            }
-        }
-        
-        return nearby;
+        PlayerSnapshot snapshot = PlayerSnapshot.current();
+        int nearest = snapshot.nearest(player.getX(), player.getY(), player.getZ(), maxDistance, snapshot::looksReal);
+        return nearest >= 0 ? snapshot.name(nearest) : null;
     }
 
     private void reportKTrackEvent(String killer, String victim, String eventType) {
@@ -668,7 +725,9 @@ public class KillTracker {
                 postHttpDebug("Payload: " + (json.length() > 80 ? json.substring(0, 80) + "..." : json));
             }
 
-            NetworkManager.post(urlStr, json, config.authToken)
+            // Kills are death alerts and go out immediately; damage events can ride along in a batch
+            UplinkQueue.Priority priority = "kill".equals(eventType) ? UplinkQueue.Priority.IMMEDIATE : UplinkQueue.Priority.NORMAL;
+            UplinkQueue.submit(config.authServerUrl, "/ktrack/report", json, config.authToken, priority)
                 .thenAccept(response -> {
                     if (config.debugHttp) {
                         WBUtilsClient.LOGGER.info("[KillTracker] Server response code: {}", response.statusCode());
@@ -683,6 +742,10 @@ public class KillTracker {
                     }
                 })
                 .exceptionally(e -> {
+                    if (UplinkQueue.isQueued(e)) {
+                        postDebugAlways(Messages.format("ktrack.debug.report_queued", "type", eventType, "player", killer));
+                        return null;
+                    }
                     postDebugAlways(Messages.format("ktrack.error.send_failed", "error", e.getMessage()));
                     WBUtilsClient.LOGGER.error("Failed to report KTrack event", e);
                     return null;
@@ -691,6 +754,7 @@ public class KillTracker {
     }
 
     public void onClientTick() {
+        attackerExpiry.advance(Util.getMeasuringTimeMs());
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         if (!config.ktrackEnabled) return;
         
@@ -708,18 +772,28 @@ public class KillTracker {
         long now = Util.getMeasuringTimeMs();
         
 
-        if ((now - lastSyncTime) >= SYNC_INTERVAL_MS) {
+        String query = hotListQuery(config);
+        if (!query.equals(requestedHotListQuery)) {
+            // First sync, or the window/threshold changed: what we hold was fetched for other settings
+            requestedHotListQuery = query;
+            hotListChanged = false;
+            lastSyncTime = now;
+            syncHotList(true);
+        } else if (hotListChanged || (!PushChannel.isConnected() && (now - lastSyncTime) >= SYNC_INTERVAL_MS)) {
+            // Poll on a timer only while the push channel is down
+            hotListChanged = false;
             lastSyncTime = now;
-            syncHotList();
+            syncHotList(false);
         }
 
-        if ((now - lastProximityCheckTime) >= PROXIMITY_CHECK_INTERVAL_MS) {
-            lastProximityCheckTime = now;
-            checkProximity();
-        }
+        checkProximity();
     }
 
-    private void syncHotList() {
+    /**
+     * Fetches hotlist changes since the version we hold, or a full snapshot when fullSnapshot is set
+     * or we hold nothing for the current query yet.
+     */
+    private void syncHotList(boolean fullSnapshot) {
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         if (config.authServerUrl == null || config.authServerUrl.isBlank()) {
             return;
@@ -732,11 +806,15 @@ public class KillTracker {
         }
         
         CompletableFuture.runAsync(() -> {
-            String urlStr = config.authServerUrl + "/ktrack/hotlist?time_window_hours=" + config.ktrackTimeWindowHours + "&threshold=" + config.ktrackEventThreshold;
+            String query = hotListQuery(config);
+            long since = fullSnapshot ? 0L : hotListSince(query);
+            String urlStr = config.authServerUrl + "/ktrack/hotlist?" + query + (since > 0 ? "&since=" + since : "");
             NetworkManager.get(urlStr, false, config.authToken)
                 .thenAccept(response -> {
-                    if (response.isSuccess()) {
-                        parseHotListResponse(response.body());
+                    if (response.isSuccess() && !parseHotListResponse(response.body(), query) && since > 0) {
+                        // Our version is unknown to the server or was skipped; start over
+                        postDebug(Messages.get("ktrack.debug.hotlist_resync"));
+                        syncHotList(true);
                     }
                 })
                 .exceptionally(err -> {
@@ -747,129 +825,210 @@ public class KillTracker {
     }
     
 
-    private void parseHotListResponse(String json) {
-        try {
-            hotList.clear();
-            
-            if (!json.contains("\"hotlist\"")) return;
-            
-            int start = json.indexOf("[");
-            int end = json.lastIndexOf("]");
-            if (start < 0 || end < 0 || start >= end) return;
-            
-            String arrayStr = json.substring(start + 1, end);
-            if (arrayStr.isBlank()) return;
-            
-            int depth = 0;
-            int objStart = -1;
-            for (int i = 0; i < arrayStr.length(); i++) {
-                char c = arrayStr.charAt(i);
-                if (c == '{') {
-                    if (depth == 0) objStart = i;
-                    depth++;
-                } else if (c == '}') {
-                    depth--;
-                    if (depth == 0 && objStart >= 0) {
-                        String obj = arrayStr.substring(objStart, i + 1);
-                        parsekillerObject(obj);
-                        objStart = -1;
-                    }
-                }
-            }
-            
-            postDebug(Messages.format("ktrack.debug.hotlist_parsed", "count", String.valueOf(hotList.size())));
-        } catch (Exception e) {
-            WBUtilsClient.LOGGER.debug("Failed to parse hot list", e);
+    private static String hotListQuery(ModConfig config) {
+        return "time_window_hours=" + config.ktrackTimeWindowHours + "&threshold=" + config.ktrackEventThreshold;
+    }
+    
+    // Version to send as ?since=, or 0 if what we hold was fetched for different settings
+    private long hotListSince(String query) {
+        synchronized (hotListLock) {
+            return query.equals(hotListQuery) ? hotListVersion : 0L;
         }
     }
     
-    private void parsekillerObject(String obj) {
-        try {
-            String name = extractJsonString(obj, "name");
-            int kills = extractJsonInt(obj, "kills");
-            int damageEvents = extractJsonInt(obj, "damage_events");
-            long lastEvent = extractJsonLong(obj, "last_event");
-            
-            if (name != null && !name.isEmpty()) {
-                hotList.put(name.toLowerCase(), new KillerInfo(name, kills, damageEvents, lastEvent));
+    /**
+     * Applies a polled hotlist response: either a full snapshot or a delta against a base version.
+     *
+     * @return false if it was a delta against a version we don't hold, so a full snapshot is needed
+     */
+    private boolean parseHotListResponse(String json, String query) {
+        HotListUpdate update = JsonCodec.decode(json, HOTLIST_ADAPTER);
+        if (update == null) {
+            WBUtilsClient.LOGGER.debug("Failed to parse hot list");
+            return true;
+        }
+        
+        int size;
+        synchronized (hotListLock) {
+            boolean sameQuery = query.equals(hotListQuery);
+            if (update.delta()) {
+                if (!sameQuery || update.baseVersion() != hotListVersion) {
+                    return false;
+                }
+                for (String removed : update.removed()) {
+                    removeHotListEntry(removed.toLowerCase());
+                }
+            } else {
+                // A slow snapshot overtaken by newer data
+                if (sameQuery && update.version() > 0 && update.version() < hotListVersion) {
+                    return true;
+                }
+                // Drop whoever the snapshot no longer lists; everyone it does list is upserted below
+                Set<String> listed = new HashSet<>(update.killers().size() * 2);
+                for (KillerInfo info : update.killers()) {
+                    listed.add(info.playerName.toLowerCase());
+                }
+                for (String key : hotList.keySet()) {
+                    if (!listed.contains(key)) removeHotListEntry(key);
+                }
             }
-        } catch (Exception e) {
+            for (KillerInfo info : update.killers()) {
+                putHotListEntry(info);
+            }
+            hotListVersion = update.version();
+            hotListQuery = query;
+            size = hotList.size();
         }
+        
+        postDebug(Messages.format("ktrack.debug.hotlist_parsed", "count", String.valueOf(size)));
+        return true;
     }
     
-    private String extractJsonString(String json, String key) {
-        String search = "\"" + key + "\":\"";
-        int start = json.indexOf(search);
-        if (start < 0) return null;
-        start += search.length();
-        int end = json.indexOf("\"", start);
-        if (end < 0) return null;
-        return json.substring(start, end);
+    // Callers hold hotListLock
+    private void putHotListEntry(KillerInfo info) {
+        KillerInfo old = hotList.put(info.playerName.toLowerCase(), info);
+        if (old != null) hotListRanking.remove(old);
+        hotListRanking.add(info);
+        if (old == null) PlayerRegistry.setHotListed(info.playerName, true);
     }
     
-    private int extractJsonInt(String json, String key) {
-        String search = "\"" + key + "\":";
-        int start = json.indexOf(search);
-        if (start < 0) return 0;
-        start += search.length();
-        int end = start;
-        while (end < json.length() && (Character.isDigit(json.charAt(end)) || json.charAt(end) == '-')) {
-            end++;
-        }
-        if (end == start) return 0;
-        return Integer.parseInt(json.substring(start, end));
+    // Callers hold hotListLock
+    private void removeHotListEntry(String key) {
+        KillerInfo old = hotList.remove(key);
+        if (old != null) {
+            hotListRanking.remove(old);
+            PlayerRegistry.setHotListed(key, false);
+        }
     }
     
-    private long extractJsonLong(String json, String key) {
-        String search = "\"" + key + "\":";
-        int start = json.indexOf(search);
-        if (start < 0) return 0;
-        start += search.length();
-        int end = start;
-        while (end < json.length() && (Character.isDigit(json.charAt(end)) || json.charAt(end) == '-')) {
-            end++;
-        }
-        if (end == start) return 0;
-        return Long.parseLong(json.substring(start, end));
+    /**
+     * One hotlist response. Servers without versioning send neither "version" nor "delta",
+     * which reads as a full snapshot at version 0 (and we never send ?since=).
+     */
+    private record HotListUpdate(long version, long baseVersion, boolean delta, List<KillerInfo> killers, List<String> removed) {}
+    
+    // Snapshot: {"version":N,"hotlist":[{"name":..,"kills":..,"damage_events":..,"last_event":..}, ...]}
+    // Delta:    {"version":N,"base_version":M,"delta":true,"upserts":[...],"removed":["name", ...]}
+    private static final TypeAdapter<HotListUpdate> HOTLIST_ADAPTER = new JsonCodec.ReadOnlyAdapter<>() {
+        @Override
+        public HotListUpdate read(JsonReader in) throws IOException {
+            long[] versions = { 0L, 0L };
+            boolean[] delta = { false };
+            List<KillerInfo> killers = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            JsonCodec.walk(in, (name, reader) -> {
+                switch (name) {
+                    case "version" -> versions[0] = JsonCodec.nextLong(reader, 0L);
+                    case "base_version" -> versions[1] = JsonCodec.nextLong(reader, 0L);
+                    case "delta" -> delta[0] = JsonCodec.nextBoolean(reader);
+                    case "removed" -> removed.addAll(JsonCodec.nextStringList(reader));
+                    case "hotlist", "upserts" -> {
+                        if (reader.peek() != JsonToken.BEGIN_ARRAY) return false;
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            KillerInfo info = readKiller(reader);
+                            if (info != null) killers.add(info);
+                        }
+                        reader.endArray();
+                    }
+                    default -> {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            return new HotListUpdate(versions[0], versions[1], delta[0], killers, removed);
+        }
+    };
+    
+    private static KillerInfo readKiller(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+        
+        String name = null;
+        int kills = 0;
+        int damageEvents = 0;
+        long lastEvent = 0;
+        
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name" -> name = JsonCodec.nextString(in);
+                case "kills" -> kills = JsonCodec.nextInt(in, 0);
+                case "damage_events" -> damageEvents = JsonCodec.nextInt(in, 0);
+                case "last_event" -> lastEvent = JsonCodec.nextLong(in, 0);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        
+        return name != null && !name.isEmpty() ? new KillerInfo(name, kills, damageEvents, lastEvent) : null;
     }
 
+    /**
+     * Runs every tick. Keeps the set of hotlisted players in range and alerts only for the ones that
+     * just came into range (still subject to the per-player alert cooldown).
+     */
     private void checkProximity() {
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         MinecraftClient client = MinecraftClient.getInstance();
         ClientPlayerEntity player = client.player;
         if (player == null || client.world == null) return;
         
+        // Skipped ticks (left KOTH, feature off) mean the old set is stale; everyone in range counts as new
+        long tick = TickScheduler.getTickCount();
+        if (lastProximityTick != tick - 1) {
+            nearbyHotListed.clear();
+        }
+        lastProximityTick = tick;
+        
+        BitSet nearby = nearbyScratch;
+        nearby.clear();
         double alertDistance = config.ktrackProximityDistance;
+        double alertDistanceSq = alertDistance * alertDistance;
+        double x = player.getX(), y = player.getY(), z = player.getZ();
+        
+        PlayerSnapshot snapshot = PlayerSnapshot.current();
+        for (int i : snapshot.within(x, y, z, alertDistance + PROXIMITY_LEAVE_MARGIN,
+                n -> snapshot.identity(n).isHotListed() && snapshot.looksReal(n))) {
+            int id = snapshot.id(i);
+            if (nearbyHotListed.get(id)) {
+                nearby.set(id);
+            } else if (snapshot.distanceSq(i, x, y, z) <= alertDistanceSq) {
+                nearby.set(id);
+                onHotListedPlayerNearby(snapshot.identity(i), snapshot.name(i), player, config);
+            }
+        }
+        
+        nearbyScratch = nearbyHotListed;
+        nearbyHotListed = nearby;
+    }
+    
+    private void onHotListedPlayerNearby(PlayerRegistry.Identity identity, String name, ClientPlayerEntity player, ModConfig config) {
+        KillerInfo info = hotList.get(identity.key());
+        if (info == null) return;
+        
         long cooldownMs = config.ktrackAlertCooldownMinutes * 60 * 1000L;
         long now = Util.getMeasuringTimeMs();
+        AttackerRecord record = attacker(identity);
+        if (record.lastAlertTime != NEVER && (now - record.lastAlertTime) < cooldownMs) {
+            return;
+        }
+        record.lastAlertTime = now;
+        record.alertCooldownMs = cooldownMs;
+        scheduleExpiry(record, now);
         
-        List<String> nearbyPlayers = getNearbyPlayers(player, alertDistance);
-        
-        for (String nearbyPlayer : nearbyPlayers) {
-            String key = nearbyPlayer.toLowerCase();
-            KillerInfo info = hotList.get(key);
-            
-            if (info != null) {
-
-                Long lastAlert = proximityAlertCooldowns.get(key);
-                if (lastAlert != null && (now - lastAlert) < cooldownMs) {
-                    continue;
-                }
-                
-
-                proximityAlertCooldowns.put(key, now);
-                
 
-                if (!isWhitelisted(nearbyPlayer)) {
-                    showProximityAlert(info);
-                } else if (config.ktrackDebugLogs) {
-                    WBUtilsClient.LOGGER.info("[KillTracker] Suppressing local proximity alert for whitelisted player: {}", nearbyPlayer);
-                }
-                
-
-                sendProximityAlert(info, player.getGameProfile().getName());
-            }
+        if (!isWhitelisted(name)) {
+            showProximityAlert(info);
+        } else if (config.ktrackDebugLogs) {
+            WBUtilsClient.LOGGER.info("[KillTracker] Suppressing local proximity alert for whitelisted player: {}", name);
         }
+        
+
+        sendProximityAlert(info, player.getGameProfile().getName());
     }
     
     /**
@@ -937,10 +1096,22 @@ public class KillTracker {
         return new HashMap<>(hotList);
     }
 
-    public List<KillerInfo> getTopKillers(int limit) {
-        List<KillerInfo> list = new ArrayList<>(hotList.values());
-        list.sort((a, b) -> Integer.compare(b.getTotalEvents(), a.getTotalEvents()));
-        return list.subList(0, Math.min(limit, list.size()));
+    /**
+     * Hands the first limit entries of the ranking to action, best first. No sorting and no allocation:
+     * each step is a skip list lookup from the previous entry rather than an iterator, so it's fine to call
+     * every frame. An update applied at the same moment can briefly leave out a killer whose count just changed.
+     *
+     * @return How many entries action was given
+     */
+    public int forEachTop(int limit, Consumer<KillerInfo> action) {
+        int count = 0;
+        KillerInfo info = hotListRanking.higher(KillerInfo.RANKING_HEAD);
+        while (info != null && count < limit) {
+            action.accept(info);
+            count++;
+            info = hotListRanking.higher(info);
+        }
+        return count;
     }
 
     public void fetchHotList(Consumer<Boolean> callback) {
@@ -954,7 +1125,9 @@ public class KillTracker {
         postDebugAlways(Messages.get("ktrack.debug.fetching_hotlist"));
         
         CompletableFuture.runAsync(() -> {
-            String urlStr = config.authServerUrl + "/ktrack/hotlist?time_window_hours=" + config.ktrackTimeWindowHours + "&threshold=" + config.ktrackEventThreshold;
+            // Manual fetch always asks for a full snapshot
+            String query = hotListQuery(config);
+            String urlStr = config.authServerUrl + "/ktrack/hotlist?" + query;
             WBUtilsClient.LOGGER.debug("[KillTracker] Fetching: {}", urlStr);
             
             NetworkManager.get(urlStr, false, config.authToken)
@@ -966,7 +1139,7 @@ public class KillTracker {
                         WBUtilsClient.LOGGER.debug("[KillTracker] Server response: {}", responseStr);
                         postDebugAlways(Messages.format("ktrack.debug.server_response", "response", (responseStr.length() > 100 ? responseStr.substring(0, 100) + "..." : responseStr)));
                         
-                        parseHotListResponse(responseStr);
+                        parseHotListResponse(responseStr, query);
                         postDebugAlways(Messages.format("ktrack.debug.hotlist_parsed", "count", String.valueOf(hotList.size())));
                         runOnMainThread(() -> callback.accept(true));
                     } else {
@@ -1048,21 +1221,22 @@ public class KillTracker {
             .replace("\t", "\\t");
     }
     /**
-     * Refreshes the local whitelist cache from the mod configuration.
+     * Pushes the whitelist from the mod configuration into the PlayerRegistry flags.
      * This is an O(N) operation that enables O(1) lookups later.
      */
     public void refreshWhitelistCache() {
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
-        whitelistCache.clear();
+        List<String> names = new ArrayList<>();
         if (config.ktrackWhitelist != null) {
             for (String name : config.ktrackWhitelist) {
                 if (name != null && !name.isBlank()) {
-                    whitelistCache.add(name.toLowerCase().trim());
+                    names.add(name);
                 }
             }
         }
+        PlayerRegistry.setWhitelist(names);
         whitelistLoaded = true;
-        WBUtilsClient.LOGGER.debug("[KillTracker] Whitelist cache refreshed ({} entries)", whitelistCache.size());
+        WBUtilsClient.LOGGER.debug("[KillTracker] Whitelist cache refreshed ({} entries)", names.size());
     }
 
     public boolean isWhitelisted(String playerName) {
@@ -1073,6 +1247,7 @@ public class KillTracker {
             refreshWhitelistCache();
         }
         
-        return whitelistCache.contains(playerName.toLowerCase().trim());
+        PlayerRegistry.Identity identity = PlayerRegistry.find(playerName);
+        return identity != null && identity.isWhitelisted();
     }
 }
@@ -1,16 +1,17 @@
 package com.winss.wbutils.features;
 
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.ColorCodes;
+import com.winss.wbutils.chat.EventClock;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.network.AbstractClientPlayerEntity;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.item.Items;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
-import net.minecraft.util.Util;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
@@ -27,6 +28,7 @@ public class KothProtector {
     private static final long DAMAGE_ALERT_COOLDOWN_MS = 10_000L;
 
     private long lastKothTitleTime = 0L;
+    // EventClock time rather than a Cooldowns key, since EventReplay drives this handler on the replay clock
     private long lastDamageAlertTime = 0L;
     private long kothEntryTime = 0L;
     private boolean entryNotified = false;
@@ -42,7 +44,7 @@ public class KothProtector {
      * Check if player is currently in KOTH area
      */
     public boolean isInKoth() {
-        long now = Util.getMeasuringTimeMs();
+        long now = EventClock.monotonicMs();
         return (now - lastKothTitleTime) <= KOTH_PERSISTENCE_MS;
     }
 
@@ -51,11 +53,11 @@ public class KothProtector {
     }
 
     public void onPlayerInput() {
-        lastInputTime = Util.getMeasuringTimeMs();
+        lastInputTime = EventClock.monotonicMs();
     }
 
     public void onPlayerDamaged(float amount, String attackerName, String damageType) {
-        long now = Util.getMeasuringTimeMs();
+        long now = EventClock.monotonicMs();
         
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         if (!config.kothProtectorEnabled || !config.kothNotifyOnDamage) {
@@ -95,20 +97,15 @@ public class KothProtector {
         
 
         java.util.List<String> nearbyPlayers = new java.util.ArrayList<>();
-        ModUserManager modUserManager = WBUtilsClient.getModUserManager();
-        if (client.world != null) {
-            for (AbstractClientPlayerEntity otherPlayer : client.world.getPlayers()) {
-                if (otherPlayer == player) continue;
-                // skip mod users since they are friendly, hopefully...
-                String otherName = otherPlayer.getName().getString();
-                if (modUserManager != null && modUserManager.isModUser(otherName)) {
-                    continue;
-                }
-                double dist = player.distanceTo(otherPlayer);
-                if (dist <= 5.0) {
-                    nearbyPlayers.add(otherName + " (" + String.format("%.1f", dist) + "m)");
-                }
+        PlayerSnapshot snapshot = PlayerSnapshot.current();
+        for (int i : snapshot.within(player.getX(), player.getY(), player.getZ(), 5.0)) {
+            // skip mod users since they are friendly, hopefully...
+            String otherName = snapshot.name(i);
+            if (snapshot.identity(i).isModUser()) {
+                continue;
             }
+            double dist = snapshot.distance(i, player.getX(), player.getY(), player.getZ());
+            nearbyPlayers.add(otherName + " (" + String.format("%.1f", dist) + "m)");
         }
         
         int goldBlocks = getCachedGoldCount(player, now);
@@ -156,7 +153,7 @@ public class KothProtector {
         }
         missingConfigWarned = false;
 
-        long now = Util.getMeasuringTimeMs();
+        long now = EventClock.monotonicMs();
         
         boolean inKothArea = (now - lastKothTitleTime) <= KOTH_PERSISTENCE_MS;
 
@@ -235,7 +232,7 @@ public class KothProtector {
 
         if (config.kothDebugLogs) {
             if (client.player != null) {
-                String cleaned = plain.replaceAll("§[0-9a-fk-or]", "");
+                String cleaned = ColorCodes.strip(plain);
                 if (!cleaned.trim().isEmpty()) {
                     sendDebug(client.player, Messages.format("koth.debug.title_received", "title", truncate(cleaned, 70)));
                 }
@@ -243,9 +240,9 @@ public class KothProtector {
         }
 
         if (isKothIndicator(plain)) {
-            lastKothTitleTime = Util.getMeasuringTimeMs();
+            lastKothTitleTime = EventClock.monotonicMs();
             if (config.kothDebugLogs && client.player != null) {
-                String cleaned = plain.replaceAll("§[0-9a-fk-or]", "");
+                String cleaned = ColorCodes.strip(plain);
                 sendDebug(client.player, Messages.getColorAccent() + Messages.format("koth.debug.indicator", "title", truncate(cleaned, 40)));
             }
         }
@@ -257,7 +254,7 @@ public class KothProtector {
         }
 
 
-        String stripped = text.replaceAll("§[0-9a-fk-or]", "").trim();
+        String stripped = ColorCodes.strip(text).trim();
         
 
         if (stripped.contains("Timer:") || stripped.contains("⛏") || stripped.contains("combat")) {
@@ -268,24 +265,19 @@ public class KothProtector {
         return KOTH_TITLE_PATTERN.matcher(stripped).find();
     }
 
-    public void handleChatMessage(Text message) {
-        if (message == null) {
-            return;
-        }
-
+    public void handleChatMessage(ChatEvent event) {
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         if (!config.kothProtectorEnabled || !config.kothNotifyOnDeath) {
             return;
         }
 
-        String plain = message.getString();
-        if (plain == null || plain.isEmpty()) {
+        if (event.plain().isEmpty()) {
             return;
         }
 
-        String stripped = plain.replaceAll("§[0-9a-fk-or]", "").trim();
+        String stripped = event.stripped();
         
-        if (config.debugBounty && stripped.toLowerCase().contains("earned") && stripped.toLowerCase().contains("bounty")) {
+        if (config.debugBounty && event.lower().contains("earned") && event.lower().contains("bounty")) {
             MinecraftClient client = MinecraftClient.getInstance();
             WBUtilsClient.LOGGER.info("[KothProtector] ========== BOUNTY KEYWORD FOUND ==========");
             WBUtilsClient.LOGGER.info("[KothProtector] Stripped message: {}", stripped);
@@ -305,7 +297,7 @@ public class KothProtector {
 
         boolean bountyMatch = DEATH_BOUNTY_PATTERN_ALT.matcher(stripped).find();
         if (bountyMatch && !deathNotificationSent) {
-            long now = Util.getMeasuringTimeMs();
+            long now = EventClock.monotonicMs();
             boolean recentlyInKoth = (now - lastKothTitleTime) <= 3000L;
             
             MinecraftClient client = MinecraftClient.getInstance();
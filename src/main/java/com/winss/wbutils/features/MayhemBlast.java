@@ -2,8 +2,10 @@ package com.winss.wbutils.features;
 
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.EventClock;
 import com.winss.wbutils.config.ModConfig;
-import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.UplinkQueue;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.Text;
@@ -69,22 +71,17 @@ public class MayhemBlast {
         boolean currentlyFocused = client.isWindowFocused();
 
         if (wasFocused && !currentlyFocused) {
-            lastFocusLostTime = System.currentTimeMillis();
+            lastFocusLostTime = EventClock.now();
         }
 
         wasFocused = currentlyFocused;
     }
 
-    public void handleChatMessage(Text message) {
-        if (message == null) return;
-
+    public void handleChatMessage(ChatEvent event) {
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         if (!config.mayhemBlastEnabled) return;
 
-        String plain = message.getString();
-        if (plain == null) return;
-
-        String stripped = plain.replaceAll("§[0-9a-fk-or]", "").trim();
+        String stripped = event.stripped();
 
         if (config.debugMayhemBlast) {
             WBUtilsClient.LOGGER.info("[MayhemBlast] Checking message: {}", stripped);
@@ -94,7 +91,7 @@ public class MayhemBlast {
             return;
         }
 
-        if (!isAuthenticMayhemMessage(message, plain, stripped)) {
+        if (!isAuthenticMayhemMessage(event.text(), event.plain(), stripped)) {
             if (config.debugMayhemBlast) {
                 WBUtilsClient.LOGGER.info("[MayhemBlast] Message failed authenticity check, ignoring");
             }
@@ -105,7 +102,7 @@ public class MayhemBlast {
             WBUtilsClient.LOGGER.info("[MayhemBlast] Authentic mayhem message detected!");
         }
 
-        long now = System.currentTimeMillis();
+        long now = EventClock.now();
         if ((now - lastAlertTime) < ALERT_COOLDOWN_MS) {
             if (config.debugMayhemBlast) {
                 WBUtilsClient.LOGGER.info("[MayhemBlast] Alert on cooldown, skipping");
@@ -358,7 +355,7 @@ public class MayhemBlast {
 
             boolean responded = client.isWindowFocused();
 
-            long ts = System.currentTimeMillis();
+            long ts = EventClock.now();
 
             String json = String.format(
                 "{\"type\":\"mayhem\",\"reporter_uuid\":\"%s\",\"reporter_name\":\"%s\",\"focused_at_detection\":%b,\"responded\":%b,\"ignored\":%b,\"inactive_duration_ms\":%d,\"timestamp\":%d}",
@@ -371,11 +368,15 @@ public class MayhemBlast {
                 WBUtilsClient.LOGGER.info("[MayhemBlast] Payload: {}", json);
             }
 
-            NetworkManager.post(urlStr, json, config.authToken)
+            UplinkQueue.submit(config.authServerUrl, "/mayhem/report", json, config.authToken, UplinkQueue.Priority.IMMEDIATE)
                 .thenAccept(response -> {
                     if (config.debugHttp) WBUtilsClient.LOGGER.info("[MayhemBlast] Server response: {}", response.statusCode());
                 })
                 .exceptionally(e -> {
+                    if (UplinkQueue.isQueued(e)) {
+                        WBUtilsClient.LOGGER.info("[MayhemBlast] Server unreachable, mayhem report queued for later");
+                        return null;
+                    }
                     WBUtilsClient.LOGGER.error("[MayhemBlast] Failed to send mayhem report", e);
                     return null;
                 });
@@ -3,38 +3,58 @@ package com.winss.wbutils.features;
 import com.winss.wbutils.WBUtilsClient;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
+import com.winss.wbutils.network.JsonCodec;
 import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.PushChannel;
+import com.winss.wbutils.network.UplinkQueue;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.Text;
 
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 
 public class ModUserManager {
     private static final long SYNC_INTERVAL_MS = 60_000L;
-    private final Set<String> onlineModUsers = ConcurrentHashMap.newKeySet();
-    private final Map<String, String> originalCaseNames = new ConcurrentHashMap<>();
+    // The flag lookups go through PlayerRegistry; this is only kept for listing them
+    private volatile List<PlayerRegistry.Identity> onlineModUsers = List.of();
     private long lastSyncTime = 0L;
     private boolean hasNotifiedOnline = false;
     
+    public ModUserManager() {
+        // Pushed events carry the full online list, same shape as GET /modusers/online
+        PushChannel.subscribe(PushChannel.TOPIC_MODUSERS, new PushChannel.Listener() {
+            @Override
+            public void onEvent(JsonObject frame) {
+                applyOnlineModUsers(JsonCodec.decode(frame, USERS_ADAPTER));
+            }
+
+            @Override
+            public void onResync() {
+                syncOnlineModUsers(null);
+            }
+        });
+    }
+    
 
     public boolean isModUser(String playerName) {
-        if (playerName == null) return false;
-        return onlineModUsers.contains(playerName.toLowerCase());
+        PlayerRegistry.Identity identity = PlayerRegistry.find(playerName);
+        return identity != null && identity.isModUser();
     }
     
 
     public List<String> getOnlineModUsers() {
         List<String> result = new ArrayList<>();
-        for (String lower : onlineModUsers) {
-            result.add(originalCaseNames.getOrDefault(lower, lower));
+        for (PlayerRegistry.Identity identity : onlineModUsers) {
+            result.add(identity.name());
         }
         return result;
     }
@@ -61,7 +81,6 @@ public class ModUserManager {
         postDebug(Messages.get("modusers.debug.notifying_online"));
         
         CompletableFuture.runAsync(() -> {
-            String urlStr = config.authServerUrl + "/modusers/online";
             String json = String.format(
                 "{\"username\":\"%s\",\"minecraft_uuid\":\"%s\",\"action\":\"join\",\"version\":\"%s\"}",
                 escapeJson(playerName),
@@ -69,7 +88,8 @@ public class ModUserManager {
                 escapeJson(WBUtilsClient.getVersion())
             );
             
-            NetworkManager.post(urlStr, json, config.authToken)
+            // Presence is only meaningful right now, so it is never replayed from the outbox
+            UplinkQueue.submit(config.authServerUrl, "/modusers/online", json, config.authToken, UplinkQueue.Priority.NORMAL, false)
                 .thenAccept(response -> {
                     if (response.isSuccess()) {
                         hasNotifiedOnline = true;
@@ -102,6 +122,9 @@ public class ModUserManager {
         
         postDebug(Messages.get("modusers.debug.notifying_offline"));
         
+        // Push out anything still batched before we announce leaving
+        UplinkQueue.flush();
+        
         CompletableFuture.runAsync(() -> {
             String urlStr = config.authServerUrl + "/modusers/online";
             String json = String.format(
@@ -110,7 +133,7 @@ public class ModUserManager {
                 escapeJson(playerUuid)
             );
             
-            NetworkManager.post(urlStr, json, config.authToken)
+            NetworkManager.post(urlStr, json, config.authToken, true)
                 .thenAccept(response -> {
                     if (response.isSuccess()) {
                         postDebug(Messages.get("modusers.debug.offline_success"));
@@ -137,7 +160,7 @@ public class ModUserManager {
             NetworkManager.get(urlStr, false, config.authToken)
                 .thenAccept(response -> {
                     if (response.isSuccess()) {
-                        parseOnlineModUsersResponse(response.body());
+                        applyOnlineModUsers(JsonCodec.decode(response.body(), USERS_ADAPTER));
                         postDebug(Messages.format("modusers.debug.synced", "count", String.valueOf(onlineModUsers.size())));
                         if (callback != null) {
                             MinecraftClient.getInstance().execute(() -> callback.accept(true));
@@ -158,39 +181,45 @@ public class ModUserManager {
         });
     }
 
-    private void parseOnlineModUsersResponse(String json) {
-        try {
-            onlineModUsers.clear();
-            originalCaseNames.clear();
-            
-            if (!json.contains("\"users\"")) return;
-            
-            int start = json.indexOf("[");
-            int end = json.lastIndexOf("]");
-            if (start < 0 || end < 0 || start >= end) return;
-            
-            String arrayStr = json.substring(start + 1, end);
-            if (arrayStr.isBlank()) return;
-            
-            String[] parts = arrayStr.split(",");
-            for (String part : parts) {
-                String name = part.trim().replace("\"", "");
-                if (!name.isEmpty()) {
-                    String lower = name.toLowerCase();
-                    onlineModUsers.add(lower);
-                    originalCaseNames.put(lower, name);
-                }
+    private void applyOnlineModUsers(List<String> users) {
+        if (users == null) {
+            onlineModUsers = List.of();
+            PlayerRegistry.setModUsers(List.of());
+            WBUtilsClient.LOGGER.debug("[ModUserManager] Failed to parse online mod users");
+            return;
+        }
+        
+        // Flag first so a prune in between can't drop the identities collected below
+        PlayerRegistry.setModUsers(users);
+        List<PlayerRegistry.Identity> online = new ArrayList<>(users.size());
+        for (String name : users) {
+            PlayerRegistry.Identity identity = PlayerRegistry.intern(name);
+            if (identity != null && !online.contains(identity)) {
+                online.add(identity);
             }
-        } catch (Exception e) {
-            WBUtilsClient.LOGGER.debug("[ModUserManager] Failed to parse online mod users", e);
         }
+        onlineModUsers = online;
     }
+    
+    // {"users":["name", ...]}
+    private static final TypeAdapter<List<String>> USERS_ADAPTER = new JsonCodec.ReadOnlyAdapter<>() {
+        @Override
+        public List<String> read(JsonReader in) throws IOException {
+            List<String> users = new ArrayList<>();
+            JsonCodec.walk(in, (name, reader) -> {
+                if (!name.equals("users")) return false;
+                users.addAll(JsonCodec.nextStringList(reader));
+                return true;
+            });
+            return users;
+        }
+    };
 
     public void onClientTick() {
         ModConfig config = WBUtilsClient.getConfigManager().getConfig();
         
         long now = System.currentTimeMillis();
-        if ((now - lastSyncTime) >= SYNC_INTERVAL_MS) {
+        if (!PushChannel.isConnected() && (now - lastSyncTime) >= SYNC_INTERVAL_MS) {
             lastSyncTime = now;
             
             if (WBUtilsClient.getHousingDetector().isInDptb2Housing()) {
@@ -201,8 +230,8 @@ public class ModUserManager {
     
     public void reset() {
         notifyOffline();
-        onlineModUsers.clear();
-        originalCaseNames.clear();
+        onlineModUsers = List.of();
+        PlayerRegistry.setModUsers(List.of());
         hasNotifiedOnline = false;
     }
     
@@ -0,0 +1,315 @@
+package com.winss.wbutils.features;
+
+import com.winss.wbutils.chat.ColorCodes;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * One {@link Identity} per player name, so features stop re-normalizing and re-validating names.
+ * Each name is interned once (colour codes stripped, trimmed, lowercased) and given a dense int id that
+ * features can key primitive collections and BitSets on. The identity carries the player's UUID,
+ * the real-player verdict, whether they're in the tab list, and the mod user, KTrack whitelist and hotlist flags.
+ *
+ * Tab list membership comes from the player list add/remove packets; the mod user, whitelist and hotlist flags are
+ * set by ModUserManager and KillTracker when their lists change. On every world or server change {@link #prune()}
+ * drops the identities that are neither listed nor flagged and recycles their ids, so the registry stays the size
+ * of the lobby plus those lists; anything keyed on ids forgets them through {@link #onRelease}.
+ * Lookups are safe from any thread; flags are volatile and changes are synchronized.
+ */
+public final class PlayerRegistry {
+    private static final Pattern VALID_PLAYER_NAME = Pattern.compile("^[a-zA-Z0-9_]{3,16}$");
+
+    private static final Map<String, Identity> byKey = new ConcurrentHashMap<>();
+    // Tab list UUIDs only
+    private static final Map<UUID, Identity> byUuid = new ConcurrentHashMap<>();
+    // Any player entity seen in the world (NPCs and disguises included), so each is only normalized once
+    private static final Map<UUID, Identity> byEntity = new ConcurrentHashMap<>();
+    private static volatile Identity[] byId = new Identity[256];
+    private static int nextId = 0;
+    // Ids released by prune, handed out again before nextId grows
+    private static int[] freeIds = new int[64];
+    private static int freeCount = 0;
+    private static final CopyOnWriteArrayList<IntConsumer> releaseListeners = new CopyOnWriteArrayList<>();
+
+    private PlayerRegistry() {}
+
+    public static final class Identity {
+        private final int id;
+        private final String key;
+        private volatile String name;
+        private volatile UUID uuid;
+        private volatile boolean realName;
+        private volatile boolean listed;
+        private volatile boolean modUser;
+        private volatile boolean whitelisted;
+        private volatile boolean hotListed;
+
+        private Identity(int id, String key, String name) {
+            this.id = id;
+            this.key = key;
+            setName(name);
+        }
+
+        private void setName(String name) {
+            this.name = name;
+            this.realName = looksLikeRealName(name);
+        }
+
+        public int id() {
+            return id;
+        }
+
+        /**
+         * Normalized name: no colour codes, trimmed, lowercase.
+         */
+        public String key() {
+            return key;
+        }
+
+        /**
+         * Name as last seen in the tab list (or wherever it was first interned), original case.
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return The tab list UUID, or null if the player has never been in the tab list
+         */
+        public UUID uuid() {
+            return uuid;
+        }
+
+        /**
+         * Someone with this name is in the tab list; not necessarily the entity you're looking at,
+         * see {@link #isListedAs(UUID)}.
+         */
+        public boolean isListed() {
+            return listed;
+        }
+
+        /**
+         * The entity with this UUID is the one in the tab list under this name. An NPC or disguise sharing
+         * a listed player's name has a different UUID and fails this.
+         */
+        public boolean isListedAs(UUID entityUuid) {
+            return listed && entityUuid != null && entityUuid.equals(uuid);
+        }
+
+        /**
+         * {@link #isListedAs(UUID)} with a plausible Minecraft name - filters out NPCs and the random-looking names
+         * Hypixel gives its fake players.
+         */
+        public boolean looksReal(UUID entityUuid) {
+            return realName && isListedAs(entityUuid);
+        }
+
+        public boolean isModUser() {
+            return modUser;
+        }
+
+        public boolean isWhitelisted() {
+            return whitelisted;
+        }
+
+        /**
+         * On the KTrack hotlist.
+         */
+        public boolean isHotListed() {
+            return hotListed;
+        }
+    }
+
+    public static String normalize(String name) {
+        return ColorCodes.strip(name).trim().toLowerCase();
+    }
+
+    /**
+     * The identity for a name, creating it the first time the name is seen.
+     *
+     * @return null for a null or blank name
+     */
+    public static Identity intern(String name) {
+        if (name == null) return null;
+        String key = normalize(name);
+        if (key.isEmpty()) return null;
+        Identity identity = byKey.get(key);
+        return identity != null ? identity : create(key, ColorCodes.strip(name).trim());
+    }
+
+    /**
+     * Like {@link #intern} but never creates one; for checks against names that may never have been seen.
+     */
+    public static Identity find(String name) {
+        if (name == null) return null;
+        return byKey.get(normalize(name));
+    }
+
+    public static Identity byUuid(UUID uuid) {
+        return uuid == null ? null : byUuid.get(uuid);
+    }
+
+    public static Identity byId(int id) {
+        Identity[] ids = byId;
+        return id >= 0 && id < ids.length ? ids[id] : null;
+    }
+
+    /**
+     * Identity for a player entity in the world, by name. Cached on the entity UUID after the first call so the
+     * name is only normalized once. This never marks anything listed: whether the entity is the tab list player
+     * is {@link Identity#isListedAs(UUID)}.
+     */
+    public static Identity forEntity(UUID uuid, String name) {
+        Identity identity = byEntity.get(uuid);
+        if (identity != null) return identity;
+        identity = intern(name);
+        if (identity != null) byEntity.put(uuid, identity);
+        return identity;
+    }
+
+    public static int size() {
+        return byKey.size();
+    }
+
+    public static synchronized void onPlayerListAdd(UUID uuid, String name) {
+        Identity identity = intern(name);
+        if (identity == null) return;
+        String plain = ColorCodes.strip(name).trim();
+        if (!plain.equals(identity.name)) identity.setName(plain);
+        identity.uuid = uuid;
+        identity.listed = true;
+        byUuid.put(uuid, identity);
+    }
+
+    public static synchronized void onPlayerListRemove(UUID uuid) {
+        Identity identity = byUuid.remove(uuid);
+        // Only unlist if this UUID is the one the name is listed under; a nick or NPC copy leaving doesn't count
+        if (identity != null && uuid.equals(identity.uuid)) {
+            identity.listed = false;
+        }
+    }
+
+    /**
+     * Joining a server (or leaving one): the tab list starts empty, so nobody is listed any more, then everything
+     * unflagged is pruned. Client thread.
+     */
+    public static void onNewConnection() {
+        synchronized (PlayerRegistry.class) {
+            for (Identity identity : byKey.values()) {
+                identity.listed = false;
+            }
+            byUuid.clear();
+        }
+        prune();
+    }
+
+    /**
+     * Called with each id {@link #prune()} releases, on the client thread once the prune is done.
+     * Anything keyed on registry ids must forget the id here: the next new name can be given it.
+     */
+    public static void onRelease(IntConsumer listener) {
+        releaseListeners.add(listener);
+    }
+
+    /**
+     * World or server change: drops the entity cache and every identity that isn't in the tab list
+     * or flagged as a mod user, whitelisted or hotlisted, and recycles their ids. Client thread.
+     */
+    public static void prune() {
+        int[] released;
+        int count = 0;
+        synchronized (PlayerRegistry.class) {
+            byEntity.clear();
+            released = new int[byKey.size()];
+            Identity[] ids = byId;
+            for (Iterator<Identity> it = byKey.values().iterator(); it.hasNext(); ) {
+                Identity identity = it.next();
+                if (identity.listed || identity.modUser || identity.whitelisted || identity.hotListed) continue;
+                it.remove();
+                ids[identity.id] = null;
+                if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+                freeIds[freeCount++] = identity.id;
+                released[count++] = identity.id;
+            }
+        }
+        for (IntConsumer listener : releaseListeners) {
+            for (int i = 0; i < count; i++) {
+                listener.accept(released[i]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the set of players flagged as mod users.
+     */
+    public static synchronized void setModUsers(Collection<String> names) {
+        for (Identity identity : byKey.values()) {
+            identity.modUser = false;
+        }
+        for (String name : names) {
+            Identity identity = intern(name);
+            if (identity != null) identity.modUser = true;
+        }
+    }
+
+    /**
+     * Replaces the set of players flagged as whitelisted (KTrack whitelist).
+     */
+    public static synchronized void setWhitelist(Collection<String> names) {
+        for (Identity identity : byKey.values()) {
+            identity.whitelisted = false;
+        }
+        for (String name : names) {
+            Identity identity = intern(name);
+            if (identity != null) identity.whitelisted = true;
+        }
+    }
+
+    /**
+     * Flags or unflags one player as on the KTrack hotlist; unflagging a name that was never seen does nothing.
+     */
+    public static synchronized void setHotListed(String name, boolean hotListed) {
+        Identity identity = hotListed ? intern(name) : find(name);
+        if (identity != null) identity.hotListed = hotListed;
+    }
+
+    private static synchronized Identity create(String key, String name) {
+        Identity identity = byKey.get(key);
+        if (identity != null) return identity;
+        identity = new Identity(freeCount > 0 ? freeIds[--freeCount] : nextId++, key, name);
+        Identity[] ids = byId;
+        if (identity.id >= ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[identity.id] = identity;
+        byId = ids;
+        byKey.put(key, identity);
+        return identity;
+    }
+
+    private static boolean looksLikeRealName(String name) {
+        if (name == null || name.isEmpty()) return false;
+        if (!VALID_PLAYER_NAME.matcher(name).matches()) {
+            return false;
+        }
+        if (name.length() >= 8 && name.equals(name.toLowerCase()) && !name.contains("_")) {
+            int vowels = 0;
+            for (char c : name.toCharArray()) {
+                if ("aeiou".indexOf(c) >= 0) vowels++;
+            }
+            double vowelRatio = (double) vowels / name.length();
+            if (vowelRatio < 0.1 || vowelRatio > 0.6) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
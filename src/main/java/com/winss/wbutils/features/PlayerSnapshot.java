@@ -0,0 +1,274 @@
+package com.winss.wbutils.features;
+
+import com.winss.wbutils.TickScheduler;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.AbstractClientPlayerEntity;
+import net.minecraft.client.world.ClientWorld;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+/**
+ * The other players in the world, captured at most once per client tick and shared by every feature that
+ * looks for players nearby (KillTracker, KothProtector, AutoRPS, BorgRadar, TrapAvoider).
+ * Built lazily by the first {@link #current()} call of a tick, so nothing is captured while no feature asks.
+ *
+ * Players are bucketed in a uniform x/z grid of {@value #CELL_SIZE}-block cells. Cells are kept sorted by key,
+ * so a radius query binary-searches only the cells overlapping its square and compares squared distances.
+ * Each player carries its {@link PlayerRegistry.Identity}, which is where the normalized name, tab list and
+ * real-player checks come from. The local player is never included. Client thread only.
+ */
+public final class PlayerSnapshot {
+    private static final int CELL_SIZE = 8;
+    private static final PlayerSnapshot EMPTY = new PlayerSnapshot(new AbstractClientPlayerEntity[0]);
+
+    private static PlayerSnapshot current = EMPTY;
+    private static long builtAtTick = -1;
+    private static ClientWorld builtForWorld;
+
+    private final int size;
+    private final AbstractClientPlayerEntity[] entities;
+    private final PlayerRegistry.Identity[] identities;
+    private final String[] names;
+    private final UUID[] uuids;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final boolean[] invisible;
+    private final boolean[] inTabList;
+    private final boolean[] looksReal;
+
+    // Grid: players sorted by cell, cellKeys[c] is the c-th occupied cell, its players are order[cellStart[c]..cellStart[c + 1])
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] order;
+
+    private PlayerSnapshot(AbstractClientPlayerEntity[] entities) {
+        this.size = entities.length;
+        this.entities = entities;
+        this.identities = new PlayerRegistry.Identity[size];
+        this.names = new String[size];
+        this.uuids = new UUID[size];
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.zs = new double[size];
+        this.invisible = new boolean[size];
+        this.inTabList = new boolean[size];
+        this.looksReal = new boolean[size];
+
+        long[] keyed = new long[size];
+        for (int i = 0; i < size; i++) {
+            AbstractClientPlayerEntity entity = entities[i];
+            names[i] = entity.getName().getString();
+            uuids[i] = entity.getUuid();
+            identities[i] = PlayerRegistry.forEntity(uuids[i], names[i]);
+            xs[i] = entity.getX();
+            ys[i] = entity.getY();
+            zs[i] = entity.getZ();
+            invisible[i] = entity.isInvisible();
+            inTabList[i] = identities[i].isListedAs(uuids[i]);
+            looksReal[i] = identities[i].looksReal(uuids[i]);
+            // Cell key in the high bits, index in the low 32, so one sort groups players by cell
+            keyed[i] = (cellKey(cell(xs[i]), cell(zs[i])) << 32) | i;
+        }
+        Arrays.sort(keyed);
+
+        this.order = new int[size];
+        long[] keys = new long[size];
+        int[] starts = new int[size + 1];
+        int cells = 0;
+        for (int n = 0; n < size; n++) {
+            long key = keyed[n] >>> 32;
+            order[n] = (int) keyed[n];
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = n;
+                cells++;
+            }
+        }
+        starts[cells] = size;
+        this.cellKeys = Arrays.copyOf(keys, cells);
+        this.cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    /**
+     * This tick's snapshot, capturing it if nothing has asked yet this tick.
+     */
+    public static PlayerSnapshot current() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        ClientWorld world = client.world;
+        if (world == null) {
+            builtForWorld = null;
+            current = EMPTY;
+            return EMPTY;
+        }
+        long tick = TickScheduler.getTickCount();
+        if (tick != builtAtTick || world != builtForWorld) {
+            List<AbstractClientPlayerEntity> players = world.getPlayers();
+            AbstractClientPlayerEntity[] others = new AbstractClientPlayerEntity[players.size()];
+            int count = 0;
+            for (AbstractClientPlayerEntity player : players) {
+                // A blank name has nothing to intern; no real player has one
+                if (player != client.player && !player.getName().getString().isBlank()) others[count++] = player;
+            }
+            current = new PlayerSnapshot(Arrays.copyOf(others, count));
+            builtAtTick = tick;
+            builtForWorld = world;
+        }
+        return current;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public AbstractClientPlayerEntity entity(int i) {
+        return entities[i];
+    }
+
+    public PlayerRegistry.Identity identity(int i) {
+        return identities[i];
+    }
+
+    /**
+     * Dense registry id, see {@link PlayerRegistry}.
+     */
+    public int id(int i) {
+        return identities[i].id();
+    }
+
+    public String name(int i) {
+        return names[i];
+    }
+
+    public String lowerName(int i) {
+        return identities[i].key();
+    }
+
+    public UUID uuid(int i) {
+        return uuids[i];
+    }
+
+    public double x(int i) {
+        return xs[i];
+    }
+
+    public double y(int i) {
+        return ys[i];
+    }
+
+    public double z(int i) {
+        return zs[i];
+    }
+
+    public boolean invisible(int i) {
+        return invisible[i];
+    }
+
+    public boolean inTabList(int i) {
+        return inTabList[i];
+    }
+
+    /**
+     * See {@link PlayerRegistry.Identity#looksReal(UUID)}.
+     */
+    public boolean looksReal(int i) {
+        return looksReal[i];
+    }
+
+    public double distanceSq(int i, double x, double y, double z) {
+        double dx = xs[i] - x;
+        double dy = ys[i] - y;
+        double dz = zs[i] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Only for display; compare {@link #distanceSq} in queries.
+     */
+    public double distance(int i, double x, double y, double z) {
+        return Math.sqrt(distanceSq(i, x, y, z));
+    }
+
+    /**
+     * @return Indices of players within radius of the point, nearest first
+     */
+    public int[] within(double x, double y, double z, double radius) {
+        return nearest(x, y, z, Integer.MAX_VALUE, radius, null);
+    }
+
+    /**
+     * @return Indices of players within radius of the point that pass the filter, nearest first
+     */
+    public int[] within(double x, double y, double z, double radius, IntPredicate filter) {
+        return nearest(x, y, z, Integer.MAX_VALUE, radius, filter);
+    }
+
+    /**
+     * @return The nearest player within radius that passes the filter, or -1
+     */
+    public int nearest(double x, double y, double z, double radius, IntPredicate filter) {
+        int[] found = nearest(x, y, z, 1, radius, filter);
+        return found.length > 0 ? found[0] : -1;
+    }
+
+    /**
+     * Up to k players within radius, nearest first.
+     *
+     * @param filter Null for everyone
+     */
+    public int[] nearest(double x, double y, double z, int k, double radius, IntPredicate filter) {
+        if (size == 0 || k <= 0) return new int[0];
+        double radiusSq = radius * radius;
+        int minCellX = cell(x - radius), maxCellX = cell(x + radius);
+        int minCellZ = cell(z - radius), maxCellZ = cell(z + radius);
+
+        // Same trick as the grid: squared distance in the high bits (float bits sort like the floats when
+        // non-negative), index in the low 32
+        long[] hits = new long[Math.min(size, 16)];
+        int count = 0;
+        // A big radius over a sparse grid: probing every cell in the square costs more than checking everyone
+        boolean scanAll = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) > cellKeys.length;
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                int from, to;
+                if (scanAll) {
+                    from = 0;
+                    to = size;
+                } else {
+                    int c = Arrays.binarySearch(cellKeys, cellKey(cx, cz));
+                    if (c < 0) continue;
+                    from = cellStart[c];
+                    to = cellStart[c + 1];
+                }
+                for (int n = from; n < to; n++) {
+                    int i = order[n];
+                    double distanceSq = distanceSq(i, x, y, z);
+                    if (distanceSq > radiusSq || (filter != null && !filter.test(i))) continue;
+                    if (count == hits.length) hits = Arrays.copyOf(hits, Math.min(size, count * 2));
+                    hits[count++] = ((long) Float.floatToIntBits((float) distanceSq) << 32) | i;
+                }
+                if (scanAll) break;
+            }
+            if (scanAll) break;
+        }
+        Arrays.sort(hits, 0, count);
+        int[] result = new int[Math.min(k, count)];
+        for (int n = 0; n < result.length; n++) {
+            result[n] = (int) hits[n];
+        }
+        return result;
+    }
+
+    private static int cell(double coordinate) {
+        return Math.floorDiv((int) Math.floor(coordinate), CELL_SIZE);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        // 15 bits per axis keeps the shifted key positive, so sorted keys stay sorted; cells repeat every ~260k blocks,
+        // which only adds candidates the distance check throws away
+        return ((long) (cellX & 0x7FFF) << 15) | (cellZ & 0x7FFF);
+    }
+}
@@ -1,18 +1,25 @@
 package com.winss.wbutils.features;
 
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.EventClock;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.Text;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import com.winss.wbutils.network.JsonCodec;
 import com.winss.wbutils.network.NetworkManager;
+import com.winss.wbutils.network.UplinkQueue;
 
 /**
  * 
@@ -114,17 +121,11 @@ public class RPSTracker {
         return false;
     }
 
-    public void handleChatMessage(Text message) {
-        if (message == null) return;
-        
-        String plain = message.getString();
-        if (plain == null) return;
-        
-        String stripped = plain.replaceAll("§[0-9a-fk-or]", "").trim();
-        
-        if (!stripped.startsWith("*")) {
-            return;
-        }
+    /**
+     * Only sees system messages starting with "*" (filtered on the chat bus).
+     */
+    public void handleChatMessage(ChatEvent event) {
+        String stripped = event.stripped();
 
         if (!isRPSRelatedMessage(stripped)) {
             return;
@@ -182,7 +183,7 @@ public class RPSTracker {
         currentPhase = GamePhase.INITIATED;
         playerChoice = null;
         npcChoice = null;
-        gameStartTime = System.currentTimeMillis();
+        gameStartTime = EventClock.now();
         
         if (config.debugRPS) {
             WBUtilsClient.LOGGER.info("[RPSTracker] Game initiated!");
@@ -238,7 +239,7 @@ public class RPSTracker {
         }
         
         synchronized (gameLock) {
-            long now = System.currentTimeMillis();
+            long now = EventClock.now();
             if (now - lastResultTime < RESULT_COOLDOWN_MS) {
                 if (config.debugRPS) {
                     WBUtilsClient.LOGGER.info("[RPSTracker] Ignoring duplicate result - cooldown active ({} ms since last)", 
@@ -319,7 +320,6 @@ public class RPSTracker {
             String uuid = player.getUuid().toString();
             String name = player.getGameProfile().getName();
             
-            String urlStr = config.authServerUrl + "/rps/record";
             String json = String.format(
                 "{\"minecraft_uuid\":\"%s\",\"minecraft_name\":\"%s\",\"session_id\":\"%s\"," +
                 "\"player_choice\":\"%s\",\"npc_choice\":\"%s\",\"result\":\"%s\"," +
@@ -331,14 +331,14 @@ public class RPSTracker {
                 escapeJson(nChoice != null ? nChoice : "UNKNOWN"),
                 result.name(),
                 sessionGameCount,
-                System.currentTimeMillis()
+                EventClock.now()
             );
             
             if (config.debugRPS || config.debugHttp) {
                 WBUtilsClient.LOGGER.info("[RPSTracker] Sending game data: {}", json);
             }
 
-            NetworkManager.post(urlStr, json, config.authToken)
+            UplinkQueue.submit(config.authServerUrl, "/rps/record", json, config.authToken, UplinkQueue.Priority.LOW)
                 .thenAccept(response -> {
                     if (config.debugRPS || config.debugHttp) {
                         WBUtilsClient.LOGGER.info("[RPSTracker] Server response: {}", response.statusCode());
@@ -348,6 +348,10 @@ public class RPSTracker {
                     }
                 })
                 .exceptionally(e -> {
+                    if (UplinkQueue.isQueued(e)) {
+                        WBUtilsClient.LOGGER.info("[RPSTracker] Server unreachable, game data queued for later");
+                        return null;
+                    }
                     WBUtilsClient.LOGGER.error("[RPSTracker] Failed to send game data", e);
                     return null;
                 });
@@ -356,7 +360,7 @@ public class RPSTracker {
     
 
     public void fetchStats(Consumer<RPSStats> callback) {
-        if (cachedStats != null && (System.currentTimeMillis() - lastStatsFetchTime) < STATS_CACHE_DURATION_MS) {
+        if (cachedStats != null && (EventClock.now() - lastStatsFetchTime) < STATS_CACHE_DURATION_MS) {
             callback.accept(cachedStats);
             return;
         }
@@ -395,7 +399,7 @@ public class RPSTracker {
                     }
                     RPSStats stats = parseStatsJson(response.body());
                     cachedStats = stats;
-                    lastStatsFetchTime = System.currentTimeMillis();
+                    lastStatsFetchTime = EventClock.now();
                     
                     runOnMainThread(() -> callback.accept(stats));
                 })
@@ -409,73 +413,69 @@ public class RPSTracker {
     
 
     private RPSStats parseStatsJson(String json) {
-        RPSStats stats = new RPSStats();
-        
-        try {
-            stats.totalGames = extractInt(json, "total_games");
-            stats.wins = extractInt(json, "wins");
-            stats.losses = extractInt(json, "losses");
-            stats.ties = extractInt(json, "ties");
-            stats.globalTotalGames = extractInt(json, "global_total_games");
-            stats.globalWins = extractInt(json, "global_wins");
-            stats.globalLosses = extractInt(json, "global_losses");
-            stats.globalTies = extractInt(json, "global_ties");
-            stats.gamesUntilAnalytics = extractInt(json, "games_until_analytics");
-            stats.analyticsAvailable = json.contains("\"analytics_available\":true");
-            
-            if (stats.analyticsAvailable) {
-                stats.rockWinRate = extractDouble(json, "rock_win_rate");
-                stats.paperWinRate = extractDouble(json, "paper_win_rate");
-                stats.scissorsWinRate = extractDouble(json, "scissors_win_rate");
-                stats.recommendedMove = extractString(json, "recommended_move");
-                stats.npcRockRate = extractDouble(json, "npc_rock_rate");
-                stats.npcPaperRate = extractDouble(json, "npc_paper_rate");
-                stats.npcScissorsRate = extractDouble(json, "npc_scissors_rate");
-                
-                stats.situationalRecommendation = extractString(json, "situational_recommendation");
-                stats.situationalConfidence = extractDouble(json, "situational_confidence");
-                stats.situationalReasoning = extractString(json, "situational_reasoning");
-                stats.predictedNpcMove = extractString(json, "predicted_npc_move");
-            }
-        } catch (Exception e) {
-            WBUtilsClient.LOGGER.error("[RPSTracker] Failed to parse stats JSON", e);
+        RPSStats stats = JsonCodec.decode(json, STATS_ADAPTER);
+        if (stats == null) {
+            WBUtilsClient.LOGGER.error("[RPSTracker] Failed to parse stats JSON");
+            return new RPSStats();
         }
-        
         return stats;
     }
     
-    private int extractInt(String json, String key) {
-        try {
-            String pattern = "\"" + key + "\":\\s*(\\d+)";
-            java.util.regex.Matcher m = java.util.regex.Pattern.compile(pattern).matcher(json);
-            if (m.find()) {
-                return Integer.parseInt(m.group(1));
-            }
-        } catch (Exception ignored) {}
-        return 0;
-    }
-    
-    private double extractDouble(String json, String key) {
-        try {
-            String pattern = "\"" + key + "\":\\s*([\\d.]+)";
-            java.util.regex.Matcher m = java.util.regex.Pattern.compile(pattern).matcher(json);
-            if (m.find()) {
-                return Double.parseDouble(m.group(1));
-            }
-        } catch (Exception ignored) {}
-        return 0.0;
-    }
-    
-    private String extractString(String json, String key) {
-        try {
-            String pattern = "\"" + key + "\":\\s*\"([^\"]+)\"";
-            java.util.regex.Matcher m = java.util.regex.Pattern.compile(pattern).matcher(json);
-            if (m.find()) {
-                return m.group(1);
+    // Single pass over the stats response; fields may sit at any depth (e.g. under an analytics object)
+    private static final TypeAdapter<RPSStats> STATS_ADAPTER = new JsonCodec.ReadOnlyAdapter<>() {
+        @Override
+        public RPSStats read(JsonReader in) throws IOException {
+            RPSStats stats = new RPSStats();
+            RPSStats analytics = new RPSStats();
+            stats.gamesUntilAnalytics = 0;
+            
+            JsonCodec.walk(in, (name, reader) -> {
+                switch (name) {
+                    case "total_games" -> stats.totalGames = JsonCodec.nextInt(reader, 0);
+                    case "wins" -> stats.wins = JsonCodec.nextInt(reader, 0);
+                    case "losses" -> stats.losses = JsonCodec.nextInt(reader, 0);
+                    case "ties" -> stats.ties = JsonCodec.nextInt(reader, 0);
+                    case "global_total_games" -> stats.globalTotalGames = JsonCodec.nextInt(reader, 0);
+                    case "global_wins" -> stats.globalWins = JsonCodec.nextInt(reader, 0);
+                    case "global_losses" -> stats.globalLosses = JsonCodec.nextInt(reader, 0);
+                    case "global_ties" -> stats.globalTies = JsonCodec.nextInt(reader, 0);
+                    case "games_until_analytics" -> stats.gamesUntilAnalytics = JsonCodec.nextInt(reader, 0);
+                    case "analytics_available" -> stats.analyticsAvailable = JsonCodec.nextBoolean(reader);
+                    case "rock_win_rate" -> analytics.rockWinRate = JsonCodec.nextDouble(reader, 0.0);
+                    case "paper_win_rate" -> analytics.paperWinRate = JsonCodec.nextDouble(reader, 0.0);
+                    case "scissors_win_rate" -> analytics.scissorsWinRate = JsonCodec.nextDouble(reader, 0.0);
+                    case "recommended_move" -> analytics.recommendedMove = JsonCodec.nextString(reader);
+                    case "npc_rock_rate" -> analytics.npcRockRate = JsonCodec.nextDouble(reader, 0.0);
+                    case "npc_paper_rate" -> analytics.npcPaperRate = JsonCodec.nextDouble(reader, 0.0);
+                    case "npc_scissors_rate" -> analytics.npcScissorsRate = JsonCodec.nextDouble(reader, 0.0);
+                    case "situational_recommendation" -> analytics.situationalRecommendation = JsonCodec.nextString(reader);
+                    case "situational_confidence" -> analytics.situationalConfidence = JsonCodec.nextDouble(reader, 0.0);
+                    case "situational_reasoning" -> analytics.situationalReasoning = JsonCodec.nextString(reader);
+                    case "predicted_npc_move" -> analytics.predictedNpcMove = JsonCodec.nextString(reader);
+                    default -> {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            
+            // Analytics fields only count once the server says they're available
+            if (stats.analyticsAvailable) {
+                stats.rockWinRate = analytics.rockWinRate;
+                stats.paperWinRate = analytics.paperWinRate;
+                stats.scissorsWinRate = analytics.scissorsWinRate;
+                stats.recommendedMove = analytics.recommendedMove;
+                stats.npcRockRate = analytics.npcRockRate;
+                stats.npcPaperRate = analytics.npcPaperRate;
+                stats.npcScissorsRate = analytics.npcScissorsRate;
+                stats.situationalRecommendation = analytics.situationalRecommendation;
+                stats.situationalConfidence = analytics.situationalConfidence;
+                stats.situationalReasoning = analytics.situationalReasoning;
+                stats.predictedNpcMove = analytics.predictedNpcMove;
             }
-        } catch (Exception ignored) {}
-        return null;
-    }
+            return stats;
+        }
+    };
     
     private static String escapeJson(String input) {
         if (input == null) return "";
@@ -4,6 +4,8 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ColorCodes;
+import com.winss.wbutils.chat.EventClock;
 import com.winss.wbutils.Messages;
 import com.winss.wbutils.config.ModConfig;
 import net.fabricmc.loader.api.FabricLoader;
@@ -31,15 +33,13 @@ public class StatSpy {
         "^(?:\\[([^\\]]+)\\]\\s+)?(.+?)\\s+is checking your Stats!$",
         Pattern.CASE_INSENSITIVE
     );
-    
-    private static final Pattern COLOR_CODE_PATTERN = Pattern.compile("§.");
 
     private boolean statsCheckTitleDetected = false;
     private long lastTitleTime = 0;
     private static final long TITLE_EXPIRY_MS = 1000; 
     
     private static final long AFK_TIMEOUT_MS = 60_000; 
-    private long lastActivityTime = System.currentTimeMillis();
+    private long lastActivityTime = EventClock.now();
     private boolean wasInactive = false;
     private List<StatCheckEntry> pendingNotifications = new ArrayList<>();
     
@@ -72,12 +72,12 @@ public class StatSpy {
         }
         
         
-        long now = System.currentTimeMillis();
+        long now = EventClock.now();
         return (now - lastActivityTime) > AFK_TIMEOUT_MS;
     }
 
     public void onPlayerActivity() {
-        lastActivityTime = System.currentTimeMillis();
+        lastActivityTime = EventClock.now();
     }
 
     private void showPendingNotifications() {
@@ -129,7 +129,7 @@ public class StatSpy {
         
         if (stripped.toUpperCase().contains("STATS CHECK")) {
             statsCheckTitleDetected = true;
-            lastTitleTime = System.currentTimeMillis();
+            lastTitleTime = EventClock.now();
             
             if (config.debugStatSpy) {
                 WBUtilsClient.LOGGER.info("[StatSpy] Detected STATS CHECK title!");
@@ -153,7 +153,7 @@ public class StatSpy {
         
         if (!statsCheckTitleDetected) return;
         
-        long now = System.currentTimeMillis();
+        long now = EventClock.now();
         if (now - lastTitleTime > TITLE_EXPIRY_MS) {
             statsCheckTitleDetected = false;
             if (config.debugStatSpy) {
@@ -165,7 +165,7 @@ public class StatSpy {
         statsCheckTitleDetected = false;
         
         // Strip color codes before matching
-        String cleanSubtitle = COLOR_CODE_PATTERN.matcher(stripped).replaceAll("").trim();
+        String cleanSubtitle = ColorCodes.stripAll(stripped).trim();
         if (config.debugStatSpy) {
             WBUtilsClient.LOGGER.info("[StatSpy] Clean subtitle: '{}'", cleanSubtitle);
         }
@@ -181,7 +181,7 @@ public class StatSpy {
             }
             
             
-            StatCheckEntry entry = new StatCheckEntry(playerName, rank, Instant.now().toEpochMilli());
+            StatCheckEntry entry = new StatCheckEntry(playerName, rank, EventClock.now());
             addEntry(entry);
             
             
@@ -284,7 +284,7 @@ public class StatSpy {
         }
 
         public String getFormattedTime() {
-            long now = System.currentTimeMillis();
+            long now = EventClock.now();
             long diff = now - timestamp;
             
             
@@ -5,7 +5,10 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.mojang.blaze3d.systems.RenderSystem;
+import com.winss.wbutils.FeatureProfiler;
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.ColorCodes;
 import com.winss.wbutils.config.ModConfig;
 import com.winss.wbutils.network.NetworkManager;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
@@ -33,12 +36,12 @@ public class TrapAvoider {
 
     private static final float[] COLOR_HIGHLIGHT = {1.0f, 0.0f, 0.0f, 0.10f};
     private static final double PROXIMITY_DISTANCE = 30.0;
-    private static final Pattern VALID_PLAYER_NAME = Pattern.compile("^[a-zA-Z0-9_]{3,16}$");
+    private static final FeatureProfiler.Span RENDER_SPAN = FeatureProfiler.span("render/TrapAvoider");
     private static final Pattern DEATH_BOUNTY_PATTERN = Pattern.compile("You earned [\\d,]+.? from your bounty", Pattern.CASE_INSENSITIVE);
     
     
-    private final List<TrapRegion> trappers = new ArrayList<>();
-    private final List<TrapRegion> victims = new ArrayList<>();
+    // Rebuilt off-thread on each fetch and swapped in whole
+    private volatile TrapRegionIndex regions = TrapRegionIndex.EMPTY;
 
     
     private final Set<String> alertedTrappers = new HashSet<>();
@@ -48,7 +51,11 @@ public class TrapAvoider {
     private boolean fetchInProgress = false;
 
     public TrapAvoider() {
-        WorldRenderEvents.AFTER_TRANSLUCENT.register(this::onWorldRender);
+        WorldRenderEvents.AFTER_TRANSLUCENT.register(context -> {
+            long start = RENDER_SPAN.begin();
+            onWorldRender(context);
+            RENDER_SPAN.end(start);
+        });
         WBUtilsClient.LOGGER.info("[TrapAvoider] Initialized");
     }
 
@@ -75,7 +82,7 @@ public class TrapAvoider {
 
         String urlStr = config.authServerUrl + "/trap-avoider/regions";
         
-        NetworkManager.get(urlStr, false, config.authToken).thenAccept(response -> {
+        NetworkManager.get(urlStr, true, config.authToken).thenAccept(response -> {
             if (response.statusCode() == 200) {
                 try {
                     String json = response.body();
@@ -120,16 +127,14 @@ public class TrapAvoider {
                         }
                     }
                     
+                    TrapRegionIndex index = new TrapRegionIndex(newTrappers, newVictims);
                     MinecraftClient.getInstance().execute(() -> {
-                        trappers.clear();
-                        trappers.addAll(newTrappers);
-                        victims.clear();
-                        victims.addAll(newVictims);
+                        regions = index;
                         lastFetchTime = Instant.now();
                         fetchInProgress = false;
                         
                         if (config.debugTrapAvoider) {
-                            WBUtilsClient.LOGGER.info("[TrapAvoider] Loaded {} trappers and {} victims.", trappers.size(), victims.size());
+                            WBUtilsClient.LOGGER.info("[TrapAvoider] Loaded {} trappers and {} victims.", index.trapperCount(), index.victimCount());
                             if (MinecraftClient.getInstance().player != null) {
                                 MinecraftClient.getInstance().player.sendMessage(Text.literal("§9[WBUtils] §aLoaded trap regions from server."), false);
                             }
@@ -162,9 +167,8 @@ public class TrapAvoider {
         });
     }
 
-    public void handleChatMessage(Text message) {
-        String plain = message.getString();
-        String stripped = plain != null ? plain.replaceAll("§[0-9a-fk-or]", "").trim() : "";
+    public void handleChatMessage(ChatEvent event) {
+        String stripped = event.stripped();
         
         if (DEATH_BOUNTY_PATTERN.matcher(stripped).find()) {
             if (!currentTrappersInPlace.isEmpty()) {
@@ -196,17 +200,8 @@ public class TrapAvoider {
         MatrixStack matrices = context.matrixStack();
         
         // Find which victim regions we are currently close to
-        List<TrapRegion> nearbyVictims = new ArrayList<>();
-        for (TrapRegion victim : victims) {
-            Vec3d center = new Vec3d(
-                (victim.min.getX() + victim.max.getX()) / 2.0,
-                (victim.min.getY() + victim.max.getY()) / 2.0,
-                (victim.min.getZ() + victim.max.getZ()) / 2.0
-            );
-            if (player.getPos().distanceTo(center) <= PROXIMITY_DISTANCE) {
-                nearbyVictims.add(victim);
-            }
-        }
+        TrapRegionIndex index = regions;
+        List<TrapRegion> nearbyVictims = index.victimsWithin(player.getX(), player.getY(), player.getZ(), PROXIMITY_DISTANCE);
         
         if (nearbyVictims.isEmpty()) {
             currentTrappersInPlace.clear();
@@ -216,29 +211,28 @@ public class TrapAvoider {
         List<String> activeTrapperIds = new ArrayList<>();
         List<String> trappersFound = new ArrayList<>();
         
-        for (AbstractClientPlayerEntity otherPlayer : client.world.getPlayers()) {
-            if (otherPlayer == player) continue;
-            
-            if (!isRealPlayer(otherPlayer)) continue;
+        PlayerSnapshot snapshot = PlayerSnapshot.current();
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (!snapshot.looksReal(i)) continue;
             
-            String playerName = otherPlayer.getName().getString();
+            AbstractClientPlayerEntity otherPlayer = snapshot.entity(i);
+            String playerName = snapshot.name(i);
             
             
-            ModUserManager modUserManager = WBUtilsClient.getModUserManager();
-            if (modUserManager != null && modUserManager.isModUser(playerName)) {
+            if (snapshot.identity(i).isModUser()) {
                 continue;
             }
             
             if (config.trapAvoiderWhitelistEnabled) {
                 
-                if (config.trapAvoiderWhitelist.contains(playerName.toLowerCase())) {
+                if (config.trapAvoiderWhitelist.contains(snapshot.lowerName(i))) {
                     continue;
                 }
 
                 
                 if (config.trapAvoiderWhitelist.contains("elite")) {
                     String displayName = otherPlayer.getDisplayName().getString();
-                    String cleanDisplayName = displayName.replaceAll("§[0-9a-fk-or]", "");
+                    String cleanDisplayName = ColorCodes.strip(displayName);
                     if (cleanDisplayName.contains("[VI]") || cleanDisplayName.contains("[VII]") || 
                         cleanDisplayName.contains("[VIII]") || cleanDisplayName.contains("[IX]") || 
                         cleanDisplayName.contains("[X]") || cleanDisplayName.contains("[STAFF]") || 
@@ -250,21 +244,12 @@ public class TrapAvoider {
             
             Box playerBox = otherPlayer.getBoundingBox();
             
-            for (TrapRegion trapper : trappers) {
+            for (TrapRegion trapper : index.trappersIntersecting(playerBox)) {
                 if (activeTrapperIds.contains(trapper.id)) continue;
                 
-                
-                
-                Box trapperBox = new Box(
-                    trapper.min.getX(), trapper.min.getY() - 1.0, trapper.min.getZ(),
-                    trapper.max.getX() + 1, trapper.max.getY() + 2.5, trapper.max.getZ() + 1
-                );
-                
-                if (playerBox.intersects(trapperBox)) {
-                    activeTrapperIds.add(trapper.id);
-                    if (!trappersFound.contains(playerName)) {
-                        trappersFound.add(playerName);
-                    }
+                activeTrapperIds.add(trapper.id);
+                if (!trappersFound.contains(playerName)) {
+                    trappersFound.add(playerName);
                 }
             }
         }
@@ -386,44 +371,17 @@ public class TrapAvoider {
         RenderSystem.disableBlend();
     }
     
-    private boolean isRealPlayer(AbstractClientPlayerEntity otherPlayer) {
-        if (otherPlayer == null) return false;
-        
-        String name = otherPlayer.getName().getString();
-        if (name == null || name.isEmpty()) return false;
-        
-        String cleanName = name.replaceAll("§[0-9a-fk-or]", "");
-        if (!VALID_PLAYER_NAME.matcher(cleanName).matches()) {
-            return false;
-        }
-
-        MinecraftClient client = MinecraftClient.getInstance();
-        if (client.getNetworkHandler() != null) {
-            if (client.getNetworkHandler().getPlayerListEntry(otherPlayer.getUuid()) == null) {
-                return false;
-            }
-        }
-
-        if (cleanName.length() >= 8 && cleanName.equals(cleanName.toLowerCase()) && !cleanName.contains("_")) {
-            int vowels = 0;
-            for (char c : cleanName.toCharArray()) {
-                if ("aeiou".indexOf(c) >= 0) vowels++;
-            }
-            double vowelRatio = (double) vowels / cleanName.length();
-            if (vowelRatio < 0.1 || vowelRatio > 0.6) {
-                return false; 
-            }
-        }
-        
-        return true;
-    }
-    
-    private static class TrapRegion {
+    static class TrapRegion {
         final String id;
         final String name;
         final String map;
         final BlockPos min;
         final BlockPos max;
+        // Standing anywhere in this box counts as being in the trapper spot (a block below, head room above)
+        final Box trapBox;
+        final double centerX;
+        final double centerY;
+        final double centerZ;
         
         public TrapRegion(String id, String name, String map, BlockPos min, BlockPos max) {
             this.id = id;
@@ -431,6 +389,13 @@ public class TrapAvoider {
             this.map = map;
             this.min = min;
             this.max = max;
+            this.trapBox = new Box(
+                min.getX(), min.getY() - 1.0, min.getZ(),
+                max.getX() + 1, max.getY() + 2.5, max.getZ() + 1
+            );
+            this.centerX = (min.getX() + max.getX()) / 2.0;
+            this.centerY = (min.getY() + max.getY()) / 2.0;
+            this.centerZ = (min.getZ() + max.getZ()) / 2.0;
         }
     }
 }
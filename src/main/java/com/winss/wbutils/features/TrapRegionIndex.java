@@ -0,0 +1,133 @@
+package com.winss.wbutils.features;
+
+import net.minecraft.util.math.Box;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable 3D grid over the trap regions, built once per fetch and swapped in whole.
+ * Trapper regions are filed under every {@value #CELL_SIZE}-block cell their hit box overlaps, victim regions
+ * under the cell holding their centre, so the per-frame lookups only touch the cells around the player
+ * instead of every region on the server. All maps share one grid: the client can't tell which map
+ * it's on, so a query has to see every map's regions anyway.
+ */
+final class TrapRegionIndex {
+    static final TrapRegionIndex EMPTY = new TrapRegionIndex(List.of(), List.of());
+
+    private static final int CELL_SIZE = 16;
+    // Regions spanning more cells than this are checked on every query instead of filling the grid
+    private static final int MAX_CELLS_PER_REGION = 512;
+
+    private final Grid trapperGrid = new Grid();
+    private final Grid victimGrid = new Grid();
+    private final int trapperCount;
+    private final int victimCount;
+
+    TrapRegionIndex(Collection<TrapAvoider.TrapRegion> trappers, Collection<TrapAvoider.TrapRegion> victims) {
+        for (TrapAvoider.TrapRegion trapper : trappers) {
+            Box box = trapper.trapBox;
+            trapperGrid.add(trapper, cell(box.minX), cell(box.minY), cell(box.minZ), cell(box.maxX), cell(box.maxY), cell(box.maxZ));
+        }
+        for (TrapAvoider.TrapRegion victim : victims) {
+            int cx = cell(victim.centerX), cy = cell(victim.centerY), cz = cell(victim.centerZ);
+            victimGrid.add(victim, cx, cy, cz, cx, cy, cz);
+        }
+
+        this.trapperCount = trappers.size();
+        this.victimCount = victims.size();
+    }
+
+    int trapperCount() {
+        return trapperCount;
+    }
+
+    int victimCount() {
+        return victimCount;
+    }
+
+    boolean isEmpty() {
+        return trapperCount == 0 && victimCount == 0;
+    }
+
+    /**
+     * Trapper regions whose hit box intersects the given box (a player's bounding box).
+     */
+    List<TrapAvoider.TrapRegion> trappersIntersecting(Box box) {
+        List<TrapAvoider.TrapRegion> found = new ArrayList<>(2);
+        int minX = cell(box.minX), minY = cell(box.minY), minZ = cell(box.minZ);
+        int maxX = cell(box.maxX), maxY = cell(box.maxY), maxZ = cell(box.maxZ);
+        for (TrapAvoider.TrapRegion trapper : trapperGrid.oversized) {
+            if (trapper.trapBox.intersects(box)) found.add(trapper);
+        }
+        if (trapperGrid.cells.isEmpty()) return found;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    List<TrapAvoider.TrapRegion> cell = trapperGrid.cells.get(cellKey(x, y, z));
+                    if (cell == null) continue;
+                    for (TrapAvoider.TrapRegion trapper : cell) {
+                        // A region spanning several cells shows up once per cell
+                        if (trapper.trapBox.intersects(box) && !found.contains(trapper)) found.add(trapper);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Victim regions whose centre is within radius of the point.
+     */
+    List<TrapAvoider.TrapRegion> victimsWithin(double x, double y, double z, double radius) {
+        List<TrapAvoider.TrapRegion> found = new ArrayList<>();
+        double radiusSq = radius * radius;
+        int minX = cell(x - radius), minY = cell(y - radius), minZ = cell(z - radius);
+        int maxX = cell(x + radius), maxY = cell(y + radius), maxZ = cell(z + radius);
+        if (victimGrid.cells.isEmpty()) return found;
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                for (int cz = minZ; cz <= maxZ; cz++) {
+                    List<TrapAvoider.TrapRegion> cell = victimGrid.cells.get(cellKey(cx, cy, cz));
+                    if (cell == null) continue;
+                    for (TrapAvoider.TrapRegion victim : cell) {
+                        double dx = victim.centerX - x, dy = victim.centerY - y, dz = victim.centerZ - z;
+                        if (dx * dx + dy * dy + dz * dz <= radiusSq) found.add(victim);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int cell(double coordinate) {
+        return Math.floorDiv((int) Math.floor(coordinate), CELL_SIZE);
+    }
+
+    private static long cellKey(int x, int y, int z) {
+        return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+    }
+
+    private static final class Grid {
+        final Map<Long, List<TrapAvoider.TrapRegion>> cells = new HashMap<>();
+        final List<TrapAvoider.TrapRegion> oversized = new ArrayList<>();
+
+        void add(TrapAvoider.TrapRegion region, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            long cellCount = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+            if (cellCount > MAX_CELLS_PER_REGION) {
+                oversized.add(region);
+                return;
+            }
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        cells.computeIfAbsent(cellKey(x, y, z), k -> new ArrayList<>(2)).add(region);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,41 +1,43 @@
 package com.winss.wbutils.mixin;
 
+import com.winss.wbutils.FeatureProfiler;
 import com.winss.wbutils.WBUtilsClient;
-import com.winss.wbutils.Messages;
-import com.winss.wbutils.config.ModConfig;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.ChatEventBus;
+import com.winss.wbutils.features.PlayerRegistry;
+import com.mojang.authlib.GameProfile;
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.network.packet.s2c.play.GameJoinS2CPacket;
 import net.minecraft.network.packet.s2c.play.GameMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerListS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerRemoveS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerRespawnS2CPacket;
 import net.minecraft.text.Text;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.regex.Pattern;
+import java.util.UUID;
 
 @Mixin(ClientPlayNetworkHandler.class)
 public class ClientPlayNetworkHandlerMixin {
     
-    private static final Pattern PLAYER_CHAT_PATTERN = Pattern.compile(
-        "^(?:\\[[^\\]]+\\]\\s*)*[A-Za-z0-9_]{1,16}:\\s"
-    );
+    @Unique
+    private static final FeatureProfiler.Span wbutils$gameMessageSpan = FeatureProfiler.span("mixin/onGameMessage");
 
-    private boolean isPlayerChatMessage(String stripped) {
-        if (stripped == null) return false;
-        
-        if (stripped.startsWith("* You earned") || stripped.startsWith("*You earned")) {
-            return false;
-        }
-        
-        return PLAYER_CHAT_PATTERN.matcher(stripped).find();
-    }
+    @Unique
+    private ClientWorld wbutils$worldBeforeRespawn;
     
-
     @Inject(method = "onGameJoin", at = @At("RETURN"))
     private void wbutils$onGameJoin(GameJoinS2CPacket packet, CallbackInfo ci) {
         WBUtilsClient.LOGGER.info("[WBUtils] Player joined world, triggering world join handlers");
         
+        PlayerRegistry.onNewConnection();
+        
         if (WBUtilsClient.getAutoRejoin() != null && WBUtilsClient.getHousingDetector() != null) {
             if (WBUtilsClient.getHousingDetector().isInDptb2Housing()) {
                 WBUtilsClient.getAutoRejoin().captureHousingState(true);
@@ -52,71 +54,50 @@ public class ClientPlayNetworkHandlerMixin {
         }
     }
     
+    @Inject(method = "onPlayerRespawn", at = @At("HEAD"))
+    private void wbutils$beforePlayerRespawn(PlayerRespawnS2CPacket packet, CallbackInfo ci) {
+        if (MinecraftClient.getInstance().isOnThread()) {
+            wbutils$worldBeforeRespawn = MinecraftClient.getInstance().world;
+        }
+    }
+    
+    // A respawn into another dimension swaps the world; dying and respawning in the same one doesn't
+    @Inject(method = "onPlayerRespawn", at = @At("RETURN"))
+    private void wbutils$onPlayerRespawn(PlayerRespawnS2CPacket packet, CallbackInfo ci) {
+        if (MinecraftClient.getInstance().world != wbutils$worldBeforeRespawn) {
+            PlayerRegistry.prune();
+        }
+        wbutils$worldBeforeRespawn = null;
+    }
+    
     @Inject(method = "onGameMessage", at = @At("HEAD"))
     private void wbutils$onGameMessage(GameMessageS2CPacket packet, CallbackInfo ci) {
+        // HEAD runs before forceMainThread, so this fires once on the netty thread and again once the
+        // packet is re-run on the client thread - only post the second pass
+        if (!MinecraftClient.getInstance().isOnThread()) return;
         Text message = packet.content();
         if (message != null) {
-            String plain = message.getString();
-            
-            String stripped = plain != null ? plain.replaceAll("§[0-9a-fk-or]", "").trim() : "";
-            
-            ModConfig config = WBUtilsClient.getConfigManager().getConfig();
-            if (WBUtilsClient.getAutoRejoin() != null && config.autoRejoinEnabled) {
-                WBUtilsClient.getAutoRejoin().handleChatMessage(message);
-            }
-            
-            if (config.debugBounty && plain != null && plain.toLowerCase().contains("your bounty")) {
-                boolean isPlayerChat = isPlayerChatMessage(stripped);
-                WBUtilsClient.LOGGER.info("[ChatMixin] BOUNTY KEYWORD FOUND!");
-                WBUtilsClient.LOGGER.info("[ChatMixin] Raw: {}", plain);
-                WBUtilsClient.LOGGER.info("[ChatMixin] Is player chat (ignored): {}", isPlayerChat);
-                
-                net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
-                if (client.player != null) {
-                    client.player.sendMessage(Text.literal(Messages.format("mixin.bounty.debug.msg", "msg", plain)), false);
-                    client.player.sendMessage(Text.literal(Messages.format("mixin.bounty.debug.chat", "status", String.valueOf(isPlayerChat))), false);
-                }
-            }
-            
-            if (WBUtilsClient.getHousingDetector() != null) {
-                WBUtilsClient.getHousingDetector().handleChatMessage(message);
-            }
-            
-            boolean featuresActive = !config.requireHousing || 
-                (WBUtilsClient.getHousingDetector() != null && WBUtilsClient.getHousingDetector().isInDptb2Housing());
-            
-            if (featuresActive) {
-                if (WBUtilsClient.getKothProtector() != null) {
-                    if (!isPlayerChatMessage(stripped)) {
-                        WBUtilsClient.getKothProtector().handleChatMessage(message);
-                    } else if (config.debugBounty && stripped.toLowerCase().contains("bounty")) {
-                        WBUtilsClient.LOGGER.info("[ChatMixin] Ignoring player chat with bounty keyword");
-                    }
-                }
-                
-                if (WBUtilsClient.getDoorSpirit() != null && config.doorSpiritEnabled) {
-                    if (!isPlayerChatMessage(stripped)) {
-                        WBUtilsClient.getDoorSpirit().handleChatMessage(message);
-                    }
-                }
-                
-                if (WBUtilsClient.getRPSTracker() != null && config.rpsTrackerEnabled) {
-                    if (!isPlayerChatMessage(stripped)) {
-                        WBUtilsClient.getRPSTracker().handleChatMessage(message);
-                    }
-                }
-                
-                if (WBUtilsClient.getMayhemBlast() != null && config.mayhemBlastEnabled) {
-                    if (!isPlayerChatMessage(stripped)) {
-                        WBUtilsClient.getMayhemBlast().handleChatMessage(message);
-                    }
-                }
-
-                if (WBUtilsClient.getTrapAvoider() != null && config.trapAvoiderEnabled) {
-                    WBUtilsClient.getTrapAvoider().handleChatMessage(message);
-                }
-
+            long start = wbutils$gameMessageSpan.begin();
+            ChatEventBus.post(new ChatEvent(message));
+            wbutils$gameMessageSpan.end(start);
+        }
+    }
+    
+    // RETURN is only reached on the client thread: the netty pass bails out of forceMainThread by throwing
+    @Inject(method = "onPlayerList", at = @At("RETURN"))
+    private void wbutils$onPlayerList(PlayerListS2CPacket packet, CallbackInfo ci) {
+        for (PlayerListS2CPacket.Entry entry : packet.getPlayerAdditionEntries()) {
+            GameProfile profile = entry.profile();
+            if (profile != null) {
+                PlayerRegistry.onPlayerListAdd(entry.profileId(), profile.getName());
             }
         }
     }
+    
+    @Inject(method = "onPlayerRemove", at = @At("RETURN"))
+    private void wbutils$onPlayerRemove(PlayerRemoveS2CPacket packet, CallbackInfo ci) {
+        for (UUID uuid : packet.profileIds()) {
+            PlayerRegistry.onPlayerListRemove(uuid);
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.winss.wbutils.mixin;
 
+import com.winss.wbutils.FeatureProfiler;
 import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.chat.EventRecorder;
 import com.winss.wbutils.config.ModConfig;
 import net.minecraft.client.network.ClientPlayerEntity;
 import org.spongepowered.asm.mixin.Mixin;
@@ -12,6 +14,9 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(ClientPlayerEntity.class)
 public class ClientPlayerEntityMixin {
     
+    @Unique
+    private static final FeatureProfiler.Span wbutils$healthSpan = FeatureProfiler.span("mixin/playerTick");
+    
     @Unique
     private float wbutils$lastHealth = -1f;
     
@@ -48,6 +53,11 @@ public class ClientPlayerEntityMixin {
             return;
         }
         
+        long start = wbutils$healthSpan.begin();
+        if (currentHealth != wbutils$lastHealth) {
+            EventRecorder.recordHealth(wbutils$lastHealth, currentHealth);
+        }
+        
         if (currentHealth < wbutils$lastHealth) {
             float damage = wbutils$lastHealth - currentHealth;
             
@@ -82,5 +92,6 @@ public class ClientPlayerEntityMixin {
         }
         
         wbutils$lastHealth = currentHealth;
+        wbutils$healthSpan.end(start);
     }
 }
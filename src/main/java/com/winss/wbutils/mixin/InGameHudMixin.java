@@ -1,34 +1,37 @@
 package com.winss.wbutils.mixin;
 
-import com.winss.wbutils.WBUtilsClient;
+import com.winss.wbutils.FeatureProfiler;
+import com.winss.wbutils.chat.ChatEvent;
+import com.winss.wbutils.chat.ChatEventBus;
 import net.minecraft.client.gui.hud.InGameHud;
 import net.minecraft.text.Text;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(InGameHud.class)
 public class InGameHudMixin {
+    @Unique
+    private static final FeatureProfiler.Span wbutils$titleSpan = FeatureProfiler.span("mixin/setTitle");
+
     @Inject(method = "setTitle", at = @At("HEAD"))
     private void wbutils$handleTitle(Text title, CallbackInfo ci) {
-        if (WBUtilsClient.getKothProtector() != null) {
-            WBUtilsClient.getKothProtector().handleTitle(title);
-        }
-        if (WBUtilsClient.getStatSpy() != null) {
-            WBUtilsClient.getStatSpy().handleTitle(title);
+        if (title != null) {
+            long start = wbutils$titleSpan.begin();
+            ChatEventBus.post(new ChatEvent(title, ChatEvent.Kind.TITLE));
+            wbutils$titleSpan.end(start);
         }
     }
 
     @Inject(method = "setSubtitle", at = @At("HEAD"))
     private void wbutils$handleSubtitle(Text subtitle, CallbackInfo ci) {
-        if (WBUtilsClient.getKothProtector() != null) {
-            WBUtilsClient.getKothProtector().handleTitle(subtitle);
-        }
-        if (WBUtilsClient.getStatSpy() != null) {
-            WBUtilsClient.getStatSpy().handleSubtitle(subtitle);
+        if (subtitle != null) {
+            long start = wbutils$titleSpan.begin();
+            ChatEventBus.post(new ChatEvent(subtitle, ChatEvent.Kind.SUBTITLE));
+            wbutils$titleSpan.end(start);
         }
     }
 
 }
-
@@ -1,11 +1,13 @@
 package com.winss.wbutils.mixin;
 
+import com.winss.wbutils.FeatureProfiler;
 import com.winss.wbutils.WBUtilsClient;
 import net.minecraft.client.input.KeyboardInput;
 import net.minecraft.client.option.GameOptions;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -16,18 +18,23 @@ public class KeyboardInputMixin {
     @Shadow @Final
     private GameOptions settings;
     
+    @Unique
+    private static final FeatureProfiler.Span wbutils$inputSpan = FeatureProfiler.span("mixin/keyboardInput");
+    
     @Inject(method = "tick", at = @At("HEAD"))
     private void wbutils$onTick(CallbackInfo ci) {
         if (settings.forwardKey.isPressed() || settings.backKey.isPressed() || 
             settings.leftKey.isPressed() || settings.rightKey.isPressed() || 
             settings.jumpKey.isPressed() || settings.sneakKey.isPressed() ||
             settings.attackKey.isPressed() || settings.useKey.isPressed()) {
+            long start = wbutils$inputSpan.begin();
             if (WBUtilsClient.getKothProtector() != null) {
                 WBUtilsClient.getKothProtector().onPlayerInput();
             }
             if (WBUtilsClient.getStatSpy() != null) {
                 WBUtilsClient.getStatSpy().onPlayerActivity();
             }
+            wbutils$inputSpan.end(start);
         }
     }
 }
@@ -0,0 +1,72 @@
+package com.winss.wbutils.network;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-endpoint circuit breaker.
+ * CLOSED: requests flow, consecutive failures are counted.
+ * OPEN: requests fail fast until the cool-down has passed.
+ * HALF_OPEN: a single probe request is let through; its outcome closes or re-opens the circuit.
+ */
+final class CircuitBreaker {
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * @return true if a request may be sent now
+     */
+    boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+        if (current == State.HALF_OPEN) return false;
+
+        // OPEN: after the cool-down exactly one caller wins the probe slot
+        if (System.currentTimeMillis() - openedAt.get() < openDurationMs) return false;
+        return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    void recordFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The request never reached the endpoint (e.g. dropped by our own rate limiter).
+     * Frees the half-open probe slot without counting for or against the endpoint.
+     */
+    void recordIgnored() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    State getState() {
+        return state.get();
+    }
+
+    private void open() {
+        openedAt.set(System.currentTimeMillis());
+        state.set(State.OPEN);
+    }
+}
@@ -0,0 +1,254 @@
+package com.winss.wbutils.network;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.winss.wbutils.WBUtilsClient;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared streaming JSON decoding for server responses.
+ * Responses are read once with a Gson {@link JsonReader}; feature code supplies a small
+ * {@link TypeAdapter} (usually a {@link ReadOnlyAdapter}) that picks out the fields it cares about
+ * and skips the rest, so there are no intermediate substrings or per-field regex scans.
+ */
+public final class JsonCodec {
+    private JsonCodec() {}
+
+    /**
+     * Visits each field of every object in a document. Return true once the value has been consumed;
+     * returning false lets the walker descend into it (objects/arrays) or skip it (primitives).
+     */
+    @FunctionalInterface
+    public interface FieldVisitor {
+        boolean visit(String name, JsonReader in) throws IOException;
+    }
+
+    /**
+     * Adapter for response types that are only ever read.
+     */
+    public abstract static class ReadOnlyAdapter<T> extends TypeAdapter<T> {
+        @Override
+        public final void write(JsonWriter out, T value) {
+            throw new UnsupportedOperationException("Response types are read-only");
+        }
+    }
+
+    /**
+     * Decodes a response body.
+     *
+     * @return The decoded value, or null if the body is empty or malformed
+     */
+    public static <T> T decode(String body, TypeAdapter<T> adapter) {
+        if (body == null || body.isBlank()) return null;
+        try (JsonReader reader = new JsonReader(new StringReader(body))) {
+            return adapter.read(reader);
+        } catch (IOException | RuntimeException e) {
+            WBUtilsClient.LOGGER.debug("[JsonCodec] Failed to decode response: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Decodes an already parsed tree with the same adapters used for response bodies.
+     *
+     * @return The decoded value, or null if the tree is null or doesn't fit the adapter
+     */
+    public static <T> T decode(JsonElement tree, TypeAdapter<T> adapter) {
+        if (tree == null || tree.isJsonNull()) return null;
+        try {
+            return adapter.fromJsonTree(tree);
+        } catch (RuntimeException e) {
+            WBUtilsClient.LOGGER.debug("[JsonCodec] Failed to decode tree: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Parses a document into a tree, for messages that are looked at more than once (push frames).
+     *
+     * @return The tree, or null if the text is empty or malformed
+     */
+    public static JsonElement parse(String body) {
+        if (body == null || body.isBlank()) return null;
+        try {
+            return JsonParser.parseString(body);
+        } catch (RuntimeException e) {
+            WBUtilsClient.LOGGER.debug("[JsonCodec] Failed to parse: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Depth-first walk over every object field in the current value.
+     */
+    public static void walk(JsonReader in, FieldVisitor visitor) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.BEGIN_OBJECT) {
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (!visitor.visit(name, in)) {
+                    walk(in, visitor);
+                }
+            }
+            in.endObject();
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            in.beginArray();
+            while (in.hasNext()) {
+                walk(in, visitor);
+            }
+            in.endArray();
+        } else {
+            in.skipValue();
+        }
+    }
+
+    /**
+     * Finds the first boolean field with the given name anywhere in the body.
+     */
+    public static boolean findBoolean(String body, String field) {
+        Boolean value = decode(body, new ReadOnlyAdapter<Boolean>() {
+            @Override
+            public Boolean read(JsonReader in) throws IOException {
+                boolean[] result = { false };
+                boolean[] found = { false };
+                walk(in, (name, reader) -> {
+                    if (found[0] || !name.equals(field)) return false;
+                    found[0] = true;
+                    result[0] = nextBoolean(reader);
+                    return true;
+                });
+                return result[0];
+            }
+        });
+        return value != null && value;
+    }
+
+    /**
+     * Finds the first numeric field with the given name anywhere in the body.
+     */
+    public static int findInt(String body, String field, int fallback) {
+        Integer value = decode(body, intFinder(field, fallback));
+        return value != null ? value : fallback;
+    }
+
+    public static int findInt(JsonElement tree, String field, int fallback) {
+        Integer value = decode(tree, intFinder(field, fallback));
+        return value != null ? value : fallback;
+    }
+
+    private static TypeAdapter<Integer> intFinder(String field, int fallback) {
+        return new ReadOnlyAdapter<Integer>() {
+            @Override
+            public Integer read(JsonReader in) throws IOException {
+                int[] result = { fallback };
+                boolean[] found = { false };
+                walk(in, (name, reader) -> {
+                    if (found[0] || !name.equals(field)) return false;
+                    found[0] = true;
+                    result[0] = nextInt(reader, fallback);
+                    return true;
+                });
+                return result[0];
+            }
+        };
+    }
+
+    /**
+     * Decodes a body that is a top-level array of strings.
+     *
+     * @return The strings, or null if the body isn't an array
+     */
+    public static List<String> decodeStringArray(String body) {
+        return decode(body, new ReadOnlyAdapter<List<String>>() {
+            @Override
+            public List<String> read(JsonReader in) throws IOException {
+                if (in.peek() != JsonToken.BEGIN_ARRAY) return null;
+                return nextStringList(in);
+            }
+        });
+    }
+
+    // ==================== Lenient value readers ====================
+
+    public static int nextInt(JsonReader in, int fallback) throws IOException {
+        return (int) nextDouble(in, fallback);
+    }
+
+    public static long nextLong(JsonReader in, long fallback) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            String raw = in.nextString();
+            try {
+                return Long.parseLong(raw);
+            } catch (NumberFormatException e) {
+                try {
+                    return (long) Double.parseDouble(raw);
+                } catch (NumberFormatException ignored) {
+                    return fallback;
+                }
+            }
+        }
+        in.skipValue();
+        return fallback;
+    }
+
+    public static double nextDouble(JsonReader in, double fallback) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            String raw = in.nextString();
+            try {
+                return Double.parseDouble(raw);
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+        in.skipValue();
+        return fallback;
+    }
+
+    public static boolean nextBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.BOOLEAN) return in.nextBoolean();
+        if (token == JsonToken.STRING) return "true".equalsIgnoreCase(in.nextString());
+        in.skipValue();
+        return false;
+    }
+
+    /**
+     * @return The string (numbers are returned as their literal text), or null for null / non-primitive values
+     */
+    public static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) return in.nextString();
+        if (token == JsonToken.BOOLEAN) return String.valueOf(in.nextBoolean());
+        in.skipValue();
+        return null;
+    }
+
+    /**
+     * Reads an array of strings, skipping anything that isn't a primitive.
+     */
+    public static List<String> nextStringList(JsonReader in) throws IOException {
+        List<String> values = new ArrayList<>();
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return values;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            String value = nextString(in);
+            if (value != null) values.add(value);
+        }
+        in.endArray();
+        return values;
+    }
+}
@@ -0,0 +1,113 @@
+package com.winss.wbutils.network;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with HdrHistogram-style log-linear buckets.
+ * Values are recorded in microseconds: 0-7us get a bucket each, and every power of two above that is
+ * split into {@value #SUB_BUCKETS} equal sub-buckets, so any reported percentile is within 12.5% of the truth.
+ * Recording is a couple of shifts and one atomic increment; snapshots read the counters without locking.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Anything slower than ~35 minutes lands in the last bucket
+    private static final int MAX_EXPONENT = 31;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public record Summary(long count, double meanMs, double p50Ms, double p90Ms, double p99Ms, double maxMs) {}
+
+    public void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(bucketIndex(micros));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    public Summary summarize() {
+        return summarize(this);
+    }
+
+    /**
+     * One summary over several histograms, as if every value had been recorded into one of them.
+     */
+    public static Summary summarize(LatencyHistogram... histograms) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        long totalCount = 0;
+        long totalMicros = 0;
+        long max = 0;
+        for (LatencyHistogram histogram : histograms) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long bucket = histogram.counts.get(i);
+                snapshot[i] += bucket;
+                count += bucket;
+            }
+            totalCount += histogram.totalCount.get();
+            totalMicros += histogram.totalMicros.get();
+            max = Math.max(max, histogram.maxMicros.get());
+        }
+        if (count == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0);
+        }
+
+        double mean = (double) totalMicros / Math.max(1, totalCount);
+        return new Summary(count, toMs(mean),
+                toMs(percentile(snapshot, count, 0.50, max)),
+                toMs(percentile(snapshot, count, 0.90, max)),
+                toMs(percentile(snapshot, count, 0.99, max)),
+                toMs(max));
+    }
+
+    private static long percentile(long[] snapshot, long count, double quantile, long max) {
+        long target = Math.max(1, (long) Math.ceil(count * quantile));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                // Highest value the bucket can hold, but never more than what was actually seen
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(micros));
+        if (exponent == MAX_EXPONENT && micros >= (2L << MAX_EXPONENT)) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    private static double toMs(double micros) {
+        return micros / 1000.0;
+    }
+}
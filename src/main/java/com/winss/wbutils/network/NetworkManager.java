@@ -1,16 +1,28 @@
 package com.winss.wbutils.network;
 
 import com.winss.wbutils.WBUtilsClient;
+import java.io.IOException;
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.net.ssl.SSLException;
 
 public class NetworkManager {
@@ -19,12 +31,61 @@ public class NetworkManager {
             .followRedirects(HttpClient.Redirect.NORMAL)
             .build();
 
-    private static final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+    private static final int CACHE_MAX_ENTRIES = 256;
+    private static final long CACHE_MAX_BYTES = 4L * 1024 * 1024;
+    private static final ResponseCache cache = new ResponseCache(CACHE_MAX_ENTRIES, CACHE_MAX_BYTES);
     
-    private static final Map<String, RateLimitTracker> rateLimits = new ConcurrentHashMap<>();
-
-    private static final long DEFAULT_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
-    private static final int MAX_REQUESTS_PER_SECOND = 10;
+    // Token buckets per host and per host+path; a request needs a token from both
+    private static final Map<String, TokenBucket> hostBuckets = new ConcurrentHashMap<>();
+    private static final Map<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private static volatile double endpointRatePerSecond = 5.0;
+    private static volatile int endpointBurst = 10;
+    private static volatile double hostRatePerSecond = 20.0;
+    private static volatile int hostBurst = 40;
+
+    // Requests over the limit wait in a bounded delay queue instead of failing
+    private static final int MAX_DELAYED_REQUESTS = 64;
+    private static final long MAX_RATE_LIMIT_WAIT_NS = TimeUnit.SECONDS.toNanos(10);
+    private static final long DEFAULT_RETRY_AFTER_MS = 1000;
+    private static final AtomicInteger delayedRequests = new AtomicInteger();
+    private static final AtomicInteger peakDelayedRequests = new AtomicInteger();
+    private static final AtomicLong totalDelayed = new AtomicLong();
+    private static final AtomicLong totalRejected = new AtomicLong();
+    private static final AtomicLong totalWaitMs = new AtomicLong();
+    private static final AtomicLong maxWaitMs = new AtomicLong();
+    private static final AtomicLong tooManyRequestsResponses = new AtomicLong();
+
+    // Retries with jittered exponential backoff, guarded by a circuit breaker per host+path
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_BASE_MS = 500;
+    private static final long BACKOFF_MAX_MS = 8000;
+    private static final int CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final long CIRCUIT_OPEN_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private static final AtomicLong retriedRequests = new AtomicLong();
+    private static final AtomicLong circuitRejections = new AtomicLong();
+
+    // In-flight GETs keyed by normalized URL + auth token, so concurrent callers share one request
+    private static final Map<String, CompletableFuture<NetworkResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
+    private static final AtomicLong coalescedRequests = new AtomicLong();
+    private static final AtomicLong staleHits = new AtomicLong();
+    private static final AtomicLong notModifiedResponses = new AtomicLong();
+
+    // While > 0 every request fails without being sent (event replay must not re-send recorded reports)
+    private static final AtomicInteger offlineHolds = new AtomicInteger();
+
+    private static final CachePolicy DEFAULT_CACHE_POLICY = new CachePolicy(TimeUnit.MINUTES.toMillis(5), TimeUnit.MINUTES.toMillis(5));
+
+    // Per-endpoint cache policies, matched against the URL path
+    private static final Map<String, CachePolicy> cachePolicies = new ConcurrentHashMap<>(Map.of(
+            "/rps/stats", new CachePolicy(TimeUnit.SECONDS.toMillis(5), TimeUnit.SECONDS.toMillis(30)),
+            "/autorejoin/disconnect-messages", new CachePolicy(TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(24)),
+            "/trap-avoider/regions", new CachePolicy(TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(24))
+    ));
 
     public record NetworkResponse(int statusCode, String body) {
         public boolean isSuccess() {
@@ -32,6 +93,32 @@ public class NetworkManager {
         }
     }
 
+    /**
+     * Snapshot of GET cache and deduplication counters.
+     * hits = served fresh from cache, staleHits = served stale while revalidating,
+     * misses = went to the network, coalesced = joined an in-flight request,
+     * notModified = revalidations answered with 304.
+     */
+    public record RequestStats(long hits, long staleHits, long misses, long coalesced, long notModified,
+                               int cacheEntries, long cacheBytes, long cacheEvictions) {}
+
+    /**
+     * How long a cached response is fresh, and how much longer it may be served stale
+     * while a background revalidation runs.
+     */
+    public record CachePolicy(long ttlMs, long staleMs) {}
+
+    /**
+     * Rate limiter metrics. queued = requests currently waiting for a token.
+     */
+    public record RateLimitStats(int queued, int peakQueued, long delayed, long rejected,
+                                 long totalWaitMs, long maxWaitMs, long tooManyRequests) {}
+
+    /**
+     * Retry / circuit breaker metrics. circuitStates maps each host+path to CLOSED, OPEN or HALF_OPEN.
+     */
+    public record RetryStats(long retries, long circuitRejections, Map<String, String> circuitStates) {}
+
     /**
      * Normalizes a URL string to ensure it has a proper scheme.
      * If no scheme is provided, defaults to https://
@@ -97,6 +184,10 @@ public class NetworkManager {
     }
 
     public static CompletableFuture<NetworkResponse> get(String url, boolean useCache, String authToken) {
+        if (isOffline()) {
+            return CompletableFuture.failedFuture(new IOException("Network is offline"));
+        }
+
         // Normalize the URL for cache key
         String normalizedUrl;
         try {
@@ -106,25 +197,58 @@ public class NetworkManager {
             return CompletableFuture.failedFuture(e);
         }
 
+        ResponseCache.Entry cached = null;
         if (useCache) {
-            CachedResponse cached = cache.get(normalizedUrl);
-            if (cached != null && !cached.isExpired()) {
+            cached = cache.get(normalizedUrl);
+            long now = System.currentTimeMillis();
+            if (cached != null && cached.isFresh(now)) {
+                cacheHits.incrementAndGet();
+                NetworkMetrics.forUrl(normalizedUrl).recordCacheHit();
+                return CompletableFuture.completedFuture(new NetworkResponse(200, cached.data));
+            }
+            if (cached != null && cached.isServeableStale(now)) {
+                // Serve the stale body now and revalidate in the background; failures are logged downstream
+                staleHits.incrementAndGet();
+                NetworkMetrics.forUrl(normalizedUrl).recordStaleHit();
+                fetchCoalesced(normalizedUrl, true, authToken, cached).exceptionally(e -> null);
                 return CompletableFuture.completedFuture(new NetworkResponse(200, cached.data));
             }
         }
 
-        if (isRateLimited(normalizedUrl)) {
-            WBUtilsClient.LOGGER.warn("[NetworkManager] Rate limited GET request to: {}", normalizedUrl);
-            return CompletableFuture.failedFuture(new RuntimeException("Rate limited - please slow down"));
+        return fetchCoalesced(normalizedUrl, useCache, authToken, cached);
+    }
+
+    /**
+     * Sends the GET unless an identical one is already in flight, in which case the caller joins it.
+     * When a cached entry is supplied its validators are sent so the server can answer 304.
+     */
+    private static CompletableFuture<NetworkResponse> fetchCoalesced(String normalizedUrl, boolean useCache, String authToken, ResponseCache.Entry cached) {
+        // Join an identical request that is already on the wire instead of sending another one
+        String flightKey = normalizedUrl + "|" + (authToken != null ? authToken : "");
+        CompletableFuture<NetworkResponse> pending = new CompletableFuture<>();
+        CompletableFuture<NetworkResponse> existing = inFlight.putIfAbsent(flightKey, pending);
+        if (existing != null) {
+            coalescedRequests.incrementAndGet();
+            NetworkMetrics.forUrl(normalizedUrl).recordCoalesced();
+            return existing;
         }
 
-        return executeGetRequest(normalizedUrl, useCache, authToken, false);
+        cacheMisses.incrementAndGet();
+        executeWithRetry(normalizedUrl, "GET", true, () -> executeGetRequest(normalizedUrl, useCache, authToken, cached, false)).whenComplete((response, error) -> {
+            inFlight.remove(flightKey, pending);
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(response);
+            }
+        });
+        return pending;
     }
 
     /**
      * Internal method to execute GET request with optional HTTP fallback for SSL errors.
      */
-    private static CompletableFuture<NetworkResponse> executeGetRequest(String normalizedUrl, boolean useCache, String authToken, boolean isRetry) {
+    private static CompletableFuture<NetworkResponse> executeGetRequest(String normalizedUrl, boolean useCache, String authToken, ResponseCache.Entry cached, boolean isRetry) {
         URI uri;
         try {
             uri = createUri(normalizedUrl);
@@ -135,6 +259,7 @@ public class NetworkManager {
 
         HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(uri)
+                .timeout(REQUEST_TIMEOUT)
                 .GET()
                 .header("User-Agent", "WBUtils-Mod/" + WBUtilsClient.getVersion());
 
@@ -142,24 +267,49 @@ public class NetworkManager {
             builder.header("Authorization", "Bearer " + authToken);
         }
 
+        // Conditional GET so an unchanged resource comes back as an empty 304
+        if (useCache && cached != null && cached.hasValidators()) {
+            if (cached.etag != null) {
+                builder.header("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                builder.header("If-Modified-Since", cached.lastModified);
+            }
+        }
+
         HttpRequest request = builder.build();
 
         return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
+                    handleRetryAfter(normalizedUrl, response);
+                    String etag = response.headers().firstValue("ETag").orElse(null);
+                    String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+
+                    if (response.statusCode() == 304 && cached != null) {
+                        notModifiedResponses.incrementAndGet();
+                        NetworkMetrics.forUrl(normalizedUrl).recordNotModified();
+                        cache.put(normalizedUrl, cached.refreshed(normalizedUrl, etag, lastModified));
+                        return new NetworkResponse(200, cached.data);
+                    }
+
                     String body = response.body();
                     if (response.statusCode() >= 200 && response.statusCode() < 300 && useCache) {
-                        cache.put(normalizedUrl, new CachedResponse(body));
+                        CachePolicy policy = getCachePolicy(normalizedUrl);
+                        cache.put(normalizedUrl, new ResponseCache.Entry(normalizedUrl, body, etag, lastModified, policy.ttlMs(), policy.staleMs()));
                     }
                     return new NetworkResponse(response.statusCode(), body);
                 })
-                .exceptionally(e -> {
+                .handle((response, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(response);
+                    }
                     Throwable cause = e.getCause() != null ? e.getCause() : e;
                     
                     // If SSL error and we haven't retried yet, try falling back to HTTP
                     if (cause instanceof SSLException && !isRetry && normalizedUrl.startsWith("https://")) {
                         String httpUrl = "http://" + normalizedUrl.substring(8); // Replace https:// with http://
                         WBUtilsClient.LOGGER.warn("[NetworkManager] SSL error with HTTPS, attempting HTTP fallback to: {}", httpUrl);
-                        return executeGetRequest(httpUrl, useCache, authToken, true).join();
+                        return executeGetRequest(httpUrl, useCache, authToken, cached, true);
                     }
                     
                     if (cause instanceof SSLException) {
@@ -170,8 +320,10 @@ public class NetworkManager {
                         WBUtilsClient.LOGGER.error("[NetworkManager] Request failed for {}: {}", 
                             normalizedUrl, cause.getMessage());
                     }
-                    throw new RuntimeException("Network request failed: " + cause.getMessage(), cause);
-                });
+                    return CompletableFuture.<NetworkResponse>failedFuture(
+                            new RuntimeException("Network request failed: " + cause.getMessage(), cause));
+                })
+                .thenCompose(Function.identity());
     }
 
     public static CompletableFuture<NetworkResponse> post(String url, String json) {
@@ -179,6 +331,20 @@ public class NetworkManager {
     }
 
     public static CompletableFuture<NetworkResponse> post(String url, String json, String authToken) {
+        return post(url, json, authToken, false);
+    }
+
+    /**
+     * Sends a POST request.
+     *
+     * @param idempotent Whether the request is safe to send twice. Non-idempotent requests are only
+     *                   retried when the connection was never established, so the server can't have seen them.
+     */
+    public static CompletableFuture<NetworkResponse> post(String url, String json, String authToken, boolean idempotent) {
+        if (isOffline()) {
+            return CompletableFuture.failedFuture(new IOException("Network is offline"));
+        }
+
         // Normalize the URL
         String normalizedUrl;
         try {
@@ -188,12 +354,7 @@ public class NetworkManager {
             return CompletableFuture.failedFuture(e);
         }
 
-        if (isRateLimited(normalizedUrl)) {
-            WBUtilsClient.LOGGER.warn("[NetworkManager] Rate limited POST request to: {}", normalizedUrl);
-            return CompletableFuture.failedFuture(new RuntimeException("Rate limited - please slow down"));
-        }
-
-        return executePostRequest(normalizedUrl, json, authToken, false);
+        return executeWithRetry(normalizedUrl, "POST", idempotent, () -> executePostRequest(normalizedUrl, json, authToken, false));
     }
 
     /**
@@ -210,6 +371,7 @@ public class NetworkManager {
 
         HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(uri)
+                .timeout(REQUEST_TIMEOUT)
                 .header("Content-Type", "application/json")
                 .header("User-Agent", "WBUtils-Mod/" + WBUtilsClient.getVersion())
                 .POST(HttpRequest.BodyPublishers.ofString(json));
@@ -221,15 +383,21 @@ public class NetworkManager {
         HttpRequest request = builder.build();
 
         return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> new NetworkResponse(response.statusCode(), response.body()))
-                .exceptionally(e -> {
+                .thenApply(response -> {
+                    handleRetryAfter(normalizedUrl, response);
+                    return new NetworkResponse(response.statusCode(), response.body());
+                })
+                .handle((response, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(response);
+                    }
                     Throwable cause = e.getCause() != null ? e.getCause() : e;
                     
                     // If SSL error and we haven't retried yet, try falling back to HTTP
                     if (cause instanceof SSLException && !isRetry && normalizedUrl.startsWith("https://")) {
                         String httpUrl = "http://" + normalizedUrl.substring(8); // Replace https:// with http://
                         WBUtilsClient.LOGGER.warn("[NetworkManager] SSL error with HTTPS, attempting HTTP fallback to: {}", httpUrl);
-                        return executePostRequest(httpUrl, json, authToken, true).join();
+                        return executePostRequest(httpUrl, json, authToken, true);
                     }
                     
                     if (cause instanceof SSLException) {
@@ -240,63 +408,337 @@ public class NetworkManager {
                         WBUtilsClient.LOGGER.error("[NetworkManager] Request failed for {}: {}", 
                             normalizedUrl, cause.getMessage());
                     }
-                    throw new RuntimeException("Network request failed: " + cause.getMessage(), cause);
-                });
+                    return CompletableFuture.<NetworkResponse>failedFuture(
+                            new RuntimeException("Network request failed: " + cause.getMessage(), cause));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends the request through the endpoint's circuit breaker and the rate limiter, retrying transient
+     * failures (connection errors, timeouts, 429, 502-504) with jittered exponential backoff.
+     * Everything is chained with CompletableFuture composition; no thread ever blocks waiting for a retry.
+     */
+    private static CompletableFuture<NetworkResponse> executeWithRetry(String normalizedUrl, String method, boolean idempotent,
+                                                                       Supplier<CompletableFuture<NetworkResponse>> request) {
+        String[] keys = rateLimitKeys(normalizedUrl);
+        CircuitBreaker breaker = circuitBreakers.computeIfAbsent(keys != null ? keys[1] : normalizedUrl,
+                k -> new CircuitBreaker(CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_MS));
+        NetworkMetrics.EndpointMetrics metrics = NetworkMetrics.forUrl(normalizedUrl);
+        long startNs = System.nanoTime();
+        return attempt(normalizedUrl, method, idempotent, breaker, metrics, request, 1)
+                .whenComplete((response, error) -> metrics.recordCall(System.nanoTime() - startNs, response, error));
+    }
+
+    private static CompletableFuture<NetworkResponse> attempt(String normalizedUrl, String method, boolean idempotent, CircuitBreaker breaker,
+                                                              NetworkMetrics.EndpointMetrics metrics,
+                                                              Supplier<CompletableFuture<NetworkResponse>> request, int attemptNumber) {
+        if (!breaker.tryAcquire()) {
+            circuitRejections.incrementAndGet();
+            metrics.recordCircuitRejected();
+            return CompletableFuture.failedFuture(new CircuitOpenException(normalizedUrl));
+        }
+
+        return withRateLimit(normalizedUrl, method, metrics, request)
+                .handle((response, error) -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof RateLimitedException) {
+                        // Never reached the server - says nothing about the endpoint's health
+                        breaker.recordIgnored();
+                        return CompletableFuture.<NetworkResponse>failedFuture(cause);
+                    }
+
+                    boolean endpointFailed = cause != null || isServerError(response.statusCode());
+                    if (endpointFailed) {
+                        breaker.recordFailure();
+                    } else {
+                        breaker.recordSuccess();
+                    }
+
+                    if (attemptNumber < MAX_ATTEMPTS && isRetryable(response, cause, idempotent)) {
+                        long delayMs = backoffMs(attemptNumber);
+                        retriedRequests.incrementAndGet();
+                        metrics.recordRetry();
+                        WBUtilsClient.LOGGER.debug("[NetworkManager] Retrying {} {} in {}ms (attempt {}/{})",
+                                method, normalizedUrl, delayMs, attemptNumber + 1, MAX_ATTEMPTS);
+                        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS))
+                                .thenCompose(ignored -> attempt(normalizedUrl, method, idempotent, breaker, metrics, request, attemptNumber + 1));
+                    }
+
+                    return cause != null
+                            ? CompletableFuture.<NetworkResponse>failedFuture(cause)
+                            : CompletableFuture.completedFuture(response);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private static boolean isServerError(int statusCode) {
+        return statusCode >= 500;
+    }
+
+    private static boolean isRetryable(NetworkResponse response, Throwable cause, boolean idempotent) {
+        if (cause == null) {
+            int code = response.statusCode();
+            return idempotent && (code == 429 || code == 502 || code == 503 || code == 504);
+        }
+        // A refused / timed-out connect never reached the server, so even a non-idempotent request is safe to resend
+        if (hasCause(cause, ConnectException.class) || hasCause(cause, HttpConnectTimeoutException.class)) {
+            return true;
+        }
+        return idempotent && hasCause(cause, IOException.class);
+    }
+
+    /**
+     * Equal jitter: somewhere between half and all of the capped exponential delay,
+     * so clients that failed together don't all come back on the same tick.
+     */
+    private static long backoffMs(int attemptNumber) {
+        long cap = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << (attemptNumber - 1));
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while (current instanceof CompletionException && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) return true;
+        }
+        return false;
     }
 
-    private static boolean isRateLimited(String url) {
+    public static RetryStats getRetryStats() {
+        Map<String, String> states = new TreeMap<>();
+        circuitBreakers.forEach((endpoint, breaker) -> states.put(endpoint, breaker.getState().name()));
+        return new RetryStats(retriedRequests.get(), circuitRejections.get(), states);
+    }
+
+    /**
+     * Runs the request once both the host and the endpoint bucket have a token.
+     * If a token isn't available yet the request waits in the delay queue; it only fails
+     * when the queue is full or the wait would exceed {@link #MAX_RATE_LIMIT_WAIT_NS}.
+     */
+    private static CompletableFuture<NetworkResponse> withRateLimit(String normalizedUrl, String method, NetworkMetrics.EndpointMetrics metrics,
+                                                                    Supplier<CompletableFuture<NetworkResponse>> request) {
+        String[] keys = rateLimitKeys(normalizedUrl);
+        long now = System.nanoTime();
+
+        long waitNs = 0;
+        TokenBucket hostBucket = null;
+        TokenBucket endpointBucket = null;
+        if (keys != null) {
+            hostBucket = hostBuckets.computeIfAbsent(keys[0], k -> new TokenBucket(hostRatePerSecond, hostBurst));
+            long hostWait = hostBucket.reserve(now, MAX_RATE_LIMIT_WAIT_NS);
+            if (hostWait < 0) {
+                waitNs = -1;
+            } else {
+                endpointBucket = endpointBuckets.computeIfAbsent(keys[1], k -> new TokenBucket(endpointRatePerSecond, endpointBurst));
+                long endpointWait = endpointBucket.reserve(now, MAX_RATE_LIMIT_WAIT_NS);
+                if (endpointWait < 0) {
+                    // Rejected by the endpoint, so the host token it took isn't spent
+                    hostBucket.refund();
+                    waitNs = -1;
+                } else {
+                    waitNs = Math.max(hostWait, endpointWait);
+                }
+            }
+        }
+
+        if (waitNs == 0) {
+            return timed(metrics, request);
+        }
+
+        if (waitNs < 0 || delayedRequests.incrementAndGet() > MAX_DELAYED_REQUESTS) {
+            if (waitNs > 0) {
+                // Delay queue full: hand back both tokens this request reserved
+                delayedRequests.decrementAndGet();
+                hostBucket.refund();
+                endpointBucket.refund();
+            }
+            totalRejected.incrementAndGet();
+            metrics.recordRateLimitRejected();
+            WBUtilsClient.LOGGER.warn("[NetworkManager] Rate limited {} request to: {}", method, normalizedUrl);
+            return CompletableFuture.failedFuture(new RateLimitedException());
+        }
+
+        peakDelayedRequests.accumulateAndGet(delayedRequests.get(), Math::max);
+        totalDelayed.incrementAndGet();
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNs);
+        totalWaitMs.addAndGet(waitMs);
+        maxWaitMs.accumulateAndGet(waitMs, Math::max);
+        metrics.recordRateLimitDelay(waitMs);
+
+        return CompletableFuture.runAsync(delayedRequests::decrementAndGet,
+                        CompletableFuture.delayedExecutor(waitNs, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> timed(metrics, request));
+    }
+
+    /**
+     * Sends the request and records how long the server took to answer (the "wire" latency).
+     */
+    private static CompletableFuture<NetworkResponse> timed(NetworkMetrics.EndpointMetrics metrics, Supplier<CompletableFuture<NetworkResponse>> request) {
+        long startNs = System.nanoTime();
+        return request.get().whenComplete((response, error) -> metrics.recordAttempt(System.nanoTime() - startNs, response, error));
+    }
+
+    /**
+     * Returns {host, host+path} for the limiter, or null if the URL can't be parsed.
+     */
+    private static String[] rateLimitKeys(String url) {
         try {
             // URL should already be normalized at this point
             URI uri = new URI(url);
             String host = uri.getHost();
             String path = uri.getPath();
             if (host == null) host = "unknown";
-            if (path == null) path = "/";
-            
-            String endpointKey = host + path;
-            
-            RateLimitTracker tracker = rateLimits.computeIfAbsent(endpointKey, k -> new RateLimitTracker());
-            return !tracker.allowRequest();
+            if (path == null || path.isEmpty()) path = "/";
+            return new String[] { host, host + path };
         } catch (Exception e) {
             WBUtilsClient.LOGGER.debug("[NetworkManager] Failed to parse URL for rate limiting: {}", url);
-            return false;
+            return null;
         }
     }
 
-    public static void clearCache() {
-        cache.clear();
-    }
+    /**
+     * On 429 (or 503 with Retry-After) holds back every request to that host until the server says we can retry.
+     */
+    private static void handleRetryAfter(String normalizedUrl, HttpResponse<?> response) {
+        int status = response.statusCode();
+        String retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+        if (status != 429 && !(status == 503 && retryAfter != null)) return;
+
+        if (status == 429) {
+            tooManyRequestsResponses.incrementAndGet();
+        }
 
-    private static class CachedResponse {
-        final String data;
-        final long timestamp;
+        long delayMs = parseRetryAfterMs(retryAfter);
+        String[] keys = rateLimitKeys(normalizedUrl);
+        if (keys == null) return;
+
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+        hostBuckets.computeIfAbsent(keys[0], k -> new TokenBucket(hostRatePerSecond, hostBurst)).blockUntil(until);
+        WBUtilsClient.LOGGER.warn("[NetworkManager] Server asked to back off for {}ms (HTTP {}): {}", delayMs, status, normalizedUrl);
+    }
 
-        CachedResponse(String data) {
-            this.data = data;
-            this.timestamp = System.currentTimeMillis();
+    private static long parseRetryAfterMs(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) return DEFAULT_RETRY_AFTER_MS;
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (Exception ignored) {
         }
+        return DEFAULT_RETRY_AFTER_MS;
+    }
 
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > DEFAULT_CACHE_TTL_MS;
+    /**
+     * Sets the token bucket rates. Existing buckets are updated in place.
+     *
+     * @param endpointRate Sustained requests per second for a single host+path
+     * @param endpointBurstSize Requests that may go back-to-back on a single host+path
+     * @param hostRate Sustained requests per second for a whole host
+     * @param hostBurstSize Requests that may go back-to-back on a whole host
+     */
+    public static void configureRateLimits(double endpointRate, int endpointBurstSize, double hostRate, int hostBurstSize) {
+        endpointRatePerSecond = endpointRate;
+        endpointBurst = endpointBurstSize;
+        hostRatePerSecond = hostRate;
+        hostBurst = hostBurstSize;
+        endpointBuckets.values().forEach(bucket -> bucket.configure(endpointRate, endpointBurstSize));
+        hostBuckets.values().forEach(bucket -> bucket.configure(hostRate, hostBurstSize));
+    }
+
+    /**
+     * Takes (true) or releases (false) an offline hold. Requests fail immediately while any hold is taken.
+     */
+    public static void setOffline(boolean offline) {
+        if (offline) {
+            offlineHolds.incrementAndGet();
+        } else {
+            offlineHolds.updateAndGet(holds -> Math.max(0, holds - 1));
         }
     }
 
-    private static class RateLimitTracker {
-        private int requestsInLastSecond = 0;
-        private long lastSecondStart = 0;
+    public static boolean isOffline() {
+        return offlineHolds.get() > 0;
+    }
 
-        synchronized boolean allowRequest() {
-            long now = System.currentTimeMillis();
-            if (now - lastSecondStart > 1000) {
-                lastSecondStart = now;
-                requestsInLastSecond = 0;
-            }
+    public static RateLimitStats getRateLimitStats() {
+        return new RateLimitStats(delayedRequests.get(), peakDelayedRequests.get(), totalDelayed.get(), totalRejected.get(),
+                totalWaitMs.get(), maxWaitMs.get(), tooManyRequestsResponses.get());
+    }
 
-            if (requestsInLastSecond < MAX_REQUESTS_PER_SECOND) {
-                requestsInLastSecond++;
-                return true;
+    private static CachePolicy getCachePolicy(String normalizedUrl) {
+        try {
+            String path = new URI(normalizedUrl).getPath();
+            if (path != null) {
+                for (Map.Entry<String, CachePolicy> entry : cachePolicies.entrySet()) {
+                    if (path.contains(entry.getKey())) {
+                        return entry.getValue();
+                    }
+                }
             }
-            return false;
+        } catch (URISyntaxException ignored) {
+        }
+        return DEFAULT_CACHE_POLICY;
+    }
+
+    /**
+     * Overrides the cache policy for every URL whose path contains the given endpoint.
+     *
+     * @param endpoint Path fragment such as "/rps/stats"
+     * @param ttlMs How long a response stays fresh
+     * @param staleMs How long after expiry a response may still be served while revalidating
+     */
+    public static void setCachePolicy(String endpoint, long ttlMs, long staleMs) {
+        cachePolicies.put(endpoint, new CachePolicy(ttlMs, staleMs));
+    }
+
+    /**
+     * The shared HttpClient, for transports that need more than request/response (e.g. the push WebSocket).
+     */
+    static HttpClient httpClient() {
+        return client;
+    }
+
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the cache hit / network miss / coalesced counters for GET requests.
+     */
+    public static RequestStats getRequestStats() {
+        return new RequestStats(cacheHits.get(), staleHits.get(), cacheMisses.get(), coalescedRequests.get(),
+                notModifiedResponses.get(), cache.size(), cache.bytes(), cache.evictions());
+    }
+
+    public static void resetRequestStats() {
+        cacheHits.set(0);
+        cacheMisses.set(0);
+        coalescedRequests.set(0);
+        staleHits.set(0);
+        notModifiedResponses.set(0);
+    }
+
+    private static class RateLimitedException extends RuntimeException {
+        RateLimitedException() {
+            super("Rate limited - please slow down");
+        }
+    }
+
+    private static class CircuitOpenException extends RuntimeException {
+        CircuitOpenException(String url) {
+            super("Endpoint temporarily unavailable (circuit open): " + url);
         }
     }
 }
@@ -0,0 +1,340 @@
+package com.winss.wbutils.network;
+
+import com.google.gson.stream.JsonWriter;
+import com.winss.wbutils.WBUtilsClient;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint request metrics for NetworkManager.
+ * Every endpoint (host + path, with id-like path segments folded to {id}) gets counters for calls, errors,
+ * cache and rate-limit outcomes, plus two latency histograms:
+ * "wire" is a single HTTP exchange with the server, "total" is what the caller waited, including
+ * rate-limit queueing and retries. A big gap between the two means the delay is on our side.
+ */
+public class NetworkMetrics {
+    private static final String DUMP_FILE_NAME = "wbutils_netstats.json";
+    private static final int MAX_ENDPOINTS = 128;
+    private static final String OVERFLOW_ENDPOINT = "(other)";
+
+    private static final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private static volatile long sinceMs = System.currentTimeMillis();
+
+    private static final ScheduledExecutorService dumpScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "WBUtils-NetStats");
+        t.setDaemon(true);
+        return t;
+    });
+    private static ScheduledFuture<?> dumpTask;
+
+    public record LatencyStats(long count, double meanMs, double p50Ms, double p90Ms, double p99Ms, double maxMs) {}
+
+    public record EndpointStats(String endpoint, long calls, long failedCalls, long attempts, long serverErrors,
+                                long clientErrors, long networkErrors, long cacheHits, long staleHits,
+                                long coalesced, long notModified, long rateLimitDelayed, long rateLimitWaitMs,
+                                long rateLimitRejected, long circuitRejected, long retries,
+                                LatencyStats wire, LatencyStats total) {}
+
+    /**
+     * Counters for one endpoint. Every method is a handful of atomic adds; safe from any thread.
+     */
+    static final class EndpointMetrics {
+        private final String endpoint;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failedCalls = new AtomicLong();
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong networkErrors = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+        private final AtomicLong staleHits = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+        private final AtomicLong rateLimitDelayed = new AtomicLong();
+        private final AtomicLong rateLimitWaitMs = new AtomicLong();
+        private final AtomicLong rateLimitRejected = new AtomicLong();
+        private final AtomicLong circuitRejected = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final LatencyHistogram wire = new LatencyHistogram();
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        private EndpointMetrics(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void recordCacheHit() { cacheHits.incrementAndGet(); }
+        void recordStaleHit() { staleHits.incrementAndGet(); }
+        void recordCoalesced() { coalesced.incrementAndGet(); }
+        void recordNotModified() { notModified.incrementAndGet(); }
+        void recordRateLimitRejected() { rateLimitRejected.incrementAndGet(); }
+        void recordCircuitRejected() { circuitRejected.incrementAndGet(); }
+        void recordRetry() { retries.incrementAndGet(); }
+
+        void recordRateLimitDelay(long waitMs) {
+            rateLimitDelayed.incrementAndGet();
+            rateLimitWaitMs.addAndGet(waitMs);
+        }
+
+        /**
+         * One HTTP exchange actually sent to the server.
+         */
+        void recordAttempt(long nanos, NetworkManager.NetworkResponse response, Throwable error) {
+            attempts.incrementAndGet();
+            wire.record(nanos);
+            if (error != null) {
+                networkErrors.incrementAndGet();
+            } else if (response.statusCode() >= 500) {
+                serverErrors.incrementAndGet();
+            } else if (response.statusCode() >= 400) {
+                clientErrors.incrementAndGet();
+            }
+        }
+
+        /**
+         * One call as the feature saw it, from NetworkManager.get/post to the final result.
+         */
+        void recordCall(long nanos, NetworkManager.NetworkResponse response, Throwable error) {
+            calls.incrementAndGet();
+            total.record(nanos);
+            if (error != null || response.statusCode() >= 500) {
+                failedCalls.incrementAndGet();
+            }
+        }
+
+        private void reset() {
+            for (AtomicLong counter : List.of(calls, failedCalls, attempts, serverErrors, clientErrors, networkErrors,
+                    cacheHits, staleHits, coalesced, notModified, rateLimitDelayed, rateLimitWaitMs,
+                    rateLimitRejected, circuitRejected, retries)) {
+                counter.set(0);
+            }
+            wire.reset();
+            total.reset();
+        }
+
+        private EndpointStats snapshot() {
+            return new EndpointStats(endpoint, calls.get(), failedCalls.get(), attempts.get(), serverErrors.get(),
+                    clientErrors.get(), networkErrors.get(), cacheHits.get(), staleHits.get(), coalesced.get(),
+                    notModified.get(), rateLimitDelayed.get(), rateLimitWaitMs.get(), rateLimitRejected.get(),
+                    circuitRejected.get(), retries.get(), toStats(wire.summarize()), toStats(total.summarize()));
+        }
+
+        private static LatencyStats toStats(LatencyHistogram.Summary summary) {
+            return new LatencyStats(summary.count(), summary.meanMs(), summary.p50Ms(), summary.p90Ms(), summary.p99Ms(), summary.maxMs());
+        }
+    }
+
+    static EndpointMetrics forUrl(String normalizedUrl) {
+        String key = endpointKey(normalizedUrl);
+        EndpointMetrics metrics = endpoints.get(key);
+        if (metrics != null) return metrics;
+        if (endpoints.size() >= MAX_ENDPOINTS) {
+            key = OVERFLOW_ENDPOINT;
+        }
+        return endpoints.computeIfAbsent(key, EndpointMetrics::new);
+    }
+
+    /**
+     * "https://host/rps/stats/0f3c...?x=1" -> "host/rps/stats/{id}"
+     */
+    static String endpointKey(String normalizedUrl) {
+        int start = normalizedUrl.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = normalizedUrl.indexOf('?', start);
+        if (end < 0) end = normalizedUrl.length();
+
+        StringBuilder key = new StringBuilder(end - start);
+        int segmentStart = start;
+        while (segmentStart <= end) {
+            int slash = normalizedUrl.indexOf('/', segmentStart);
+            int segmentEnd = slash < 0 || slash > end ? end : slash;
+            if (segmentStart > start) key.append('/');
+            if (segmentStart > start && isIdSegment(normalizedUrl, segmentStart, segmentEnd)) {
+                key.append("{id}");
+            } else {
+                key.append(normalizedUrl, segmentStart, segmentEnd);
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return key.toString();
+    }
+
+    // UUIDs, hashes and numeric ids; plain words like "online" or "disconnect-messages" are kept
+    private static boolean isIdSegment(String url, int from, int to) {
+        int length = to - from;
+        if (length == 0) return false;
+        boolean allDigits = true;
+        boolean allHex = true;
+        for (int i = from; i < to; i++) {
+            char c = url.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            boolean hex = digit || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '-';
+            allDigits &= digit;
+            allHex &= hex;
+        }
+        return allDigits || (allHex && length >= 16);
+    }
+
+    public static List<EndpointStats> getEndpointStats() {
+        List<EndpointStats> stats = new ArrayList<>(endpoints.size());
+        for (EndpointMetrics metrics : endpoints.values()) {
+            stats.add(metrics.snapshot());
+        }
+        stats.sort(Comparator.comparingLong(EndpointStats::calls).reversed());
+        return stats;
+    }
+
+    public static long getSinceMs() {
+        return sinceMs;
+    }
+
+    public static void reset() {
+        endpoints.values().forEach(EndpointMetrics::reset);
+        sinceMs = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes every endpoint's stats, plus the global cache / rate-limit / retry counters, to
+     * {@value #DUMP_FILE_NAME} in the config dir.
+     *
+     * @return The file written, or null if it couldn't be written
+     */
+    public static synchronized Path dump() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(DUMP_FILE_NAME);
+        Path tmp = path.resolveSibling(DUMP_FILE_NAME + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(writer)) {
+            json.setIndent("  ");
+            writeJson(json);
+        } catch (IOException e) {
+            WBUtilsClient.LOGGER.warn("[NetworkMetrics] Failed to write {}: {}", DUMP_FILE_NAME, e.getMessage());
+            return null;
+        }
+
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveError) {
+                WBUtilsClient.LOGGER.warn("[NetworkMetrics] Failed to write {}: {}", DUMP_FILE_NAME, moveError.getMessage());
+                return null;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Dumps the stats every intervalMinutes; 0 or less turns the periodic dump off.
+     */
+    public static synchronized void configureDump(int intervalMinutes) {
+        if (dumpTask != null) {
+            dumpTask.cancel(false);
+            dumpTask = null;
+        }
+        if (intervalMinutes <= 0) return;
+        dumpTask = dumpScheduler.scheduleAtFixedRate(() -> {
+            try {
+                dump();
+            } catch (Exception e) {
+                WBUtilsClient.LOGGER.warn("[NetworkMetrics] Periodic dump failed", e);
+            }
+        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private static void writeJson(JsonWriter json) throws IOException {
+        long now = System.currentTimeMillis();
+        json.beginObject();
+        json.name("timestamp").value(now);
+        json.name("since").value(sinceMs);
+
+        NetworkManager.RequestStats requests = NetworkManager.getRequestStats();
+        json.name("cache").beginObject()
+                .name("hits").value(requests.hits())
+                .name("stale_hits").value(requests.staleHits())
+                .name("misses").value(requests.misses())
+                .name("coalesced").value(requests.coalesced())
+                .name("not_modified").value(requests.notModified())
+                .name("entries").value(requests.cacheEntries())
+                .name("bytes").value(requests.cacheBytes())
+                .name("evictions").value(requests.cacheEvictions())
+                .endObject();
+
+        NetworkManager.RateLimitStats rateLimits = NetworkManager.getRateLimitStats();
+        json.name("rate_limit").beginObject()
+                .name("queued").value(rateLimits.queued())
+                .name("peak_queued").value(rateLimits.peakQueued())
+                .name("delayed").value(rateLimits.delayed())
+                .name("rejected").value(rateLimits.rejected())
+                .name("total_wait_ms").value(rateLimits.totalWaitMs())
+                .name("max_wait_ms").value(rateLimits.maxWaitMs())
+                .name("server_429").value(rateLimits.tooManyRequests())
+                .endObject();
+
+        NetworkManager.RetryStats retries = NetworkManager.getRetryStats();
+        json.name("retry").beginObject()
+                .name("retries").value(retries.retries())
+                .name("circuit_rejections").value(retries.circuitRejections());
+        json.name("circuits").beginObject();
+        for (Map.Entry<String, String> circuit : retries.circuitStates().entrySet()) {
+            json.name(circuit.getKey()).value(circuit.getValue());
+        }
+        json.endObject().endObject();
+
+        json.name("endpoints").beginArray();
+        for (EndpointStats stats : getEndpointStats()) {
+            json.beginObject()
+                    .name("endpoint").value(stats.endpoint())
+                    .name("calls").value(stats.calls())
+                    .name("failed_calls").value(stats.failedCalls())
+                    .name("attempts").value(stats.attempts())
+                    .name("server_errors").value(stats.serverErrors())
+                    .name("client_errors").value(stats.clientErrors())
+                    .name("network_errors").value(stats.networkErrors())
+                    .name("cache_hits").value(stats.cacheHits())
+                    .name("stale_hits").value(stats.staleHits())
+                    .name("coalesced").value(stats.coalesced())
+                    .name("not_modified").value(stats.notModified())
+                    .name("rate_limit_delayed").value(stats.rateLimitDelayed())
+                    .name("rate_limit_wait_ms").value(stats.rateLimitWaitMs())
+                    .name("rate_limit_rejected").value(stats.rateLimitRejected())
+                    .name("circuit_rejected").value(stats.circuitRejected())
+                    .name("retries").value(stats.retries());
+            writeLatency(json, "wire", stats.wire());
+            writeLatency(json, "total", stats.total());
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private static void writeLatency(JsonWriter json, String name, LatencyStats latency) throws IOException {
+        json.name(name).beginObject()
+                .name("count").value(latency.count())
+                .name("mean_ms").value(round(latency.meanMs()))
+                .name("p50_ms").value(round(latency.p50Ms()))
+                .name("p90_ms").value(round(latency.p90Ms()))
+                .name("p99_ms").value(round(latency.p99Ms()))
+                .name("max_ms").value(round(latency.maxMs()))
+                .endObject();
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 10.0) / 10.0;
+    }
+}
@@ -0,0 +1,252 @@
+package com.winss.wbutils.network;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.winss.wbutils.WBUtilsClient;
+
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.net.http.WebSocketHandshakeException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Server-push subscription over a WebSocket on the shared HttpClient.
+ * The server streams change events as JSON text frames: {"topic":"hotlist", ...payload...}.
+ * Each frame is parsed once; the topic's listeners get the parsed frame and decode it with the same adapters
+ * as the polling path through {@link JsonCodec#decode(JsonElement, com.google.gson.TypeAdapter)}.
+ *
+ * Features keep polling whenever {@link #isConnected()} is false, so a server without
+ * the /push endpoint (or a dropped connection) just falls back to the old behaviour.
+ */
+public class PushChannel {
+    public static final String TOPIC_HOTLIST = "hotlist";
+    public static final String TOPIC_MODUSERS = "modusers";
+    public static final String TOPIC_DOOR = "door";
+
+    private static final long MIN_RECONNECT_DELAY_MS = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_RECONNECT_DELAY_MS = TimeUnit.MINUTES.toMillis(5);
+    // Server answered the handshake with 404 - it doesn't do push, don't keep asking
+    private static final long UNSUPPORTED_RETRY_MS = TimeUnit.MINUTES.toMillis(30);
+
+    public interface Listener {
+        /**
+         * A change event for the subscribed topic. Called on the HTTP client's thread.
+         */
+        void onEvent(JsonObject frame);
+
+        /**
+         * The channel (re)connected; events may have been missed, so fetch a fresh snapshot once.
+         */
+        default void onResync() {}
+    }
+
+    private enum State { DISCONNECTED, CONNECTING, CONNECTED }
+
+    private static final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private static volatile State state = State.DISCONNECTED;
+    private static volatile WebSocket socket;
+    // Callbacks from any other listener belong to a connection we already abandoned
+    private static SocketListener activeListener;
+    private static String connectedServer;
+    private static String connectedToken;
+    private static long nextAttemptAt = 0;
+    private static long reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+    // Swapped out by tests to step through the reconnect backoff without waiting for it
+    static volatile LongSupplier clock = System::currentTimeMillis;
+
+    public static void subscribe(String topic, Listener listener) {
+        listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public static boolean isConnected() {
+        return state == State.CONNECTED;
+    }
+
+    /**
+     * Called once a second. Cheap when already connected or waiting for the next attempt.
+     */
+    public static synchronized void ensureConnected(String serverUrl, String authToken) {
+        if (serverUrl == null || serverUrl.isBlank()) return;
+
+        // Server or token changed - drop the old subscription
+        if (state != State.DISCONNECTED && (!serverUrl.equals(connectedServer) || !Objects.equals(authToken, connectedToken))) {
+            closeLocked();
+            nextAttemptAt = 0;
+        }
+
+        if (state != State.DISCONNECTED) return;
+        long now = clock.getAsLong();
+        if (now < nextAttemptAt) return;
+
+        connectLocked(serverUrl, authToken);
+    }
+
+    public static synchronized void disconnect() {
+        closeLocked();
+        nextAttemptAt = 0;
+        reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+    }
+
+    private static void connectLocked(String serverUrl, String authToken) {
+        URI uri;
+        try {
+            String base = NetworkManager.normalizeUrl(serverUrl);
+            String wsBase = base.startsWith("https://") ? "wss://" + base.substring(8) : "ws://" + base.substring(7);
+            uri = new URI(wsBase + "/push?topics=" + String.join(",", listeners.keySet()));
+        } catch (Exception e) {
+            WBUtilsClient.LOGGER.debug("[PushChannel] Invalid server URL for push: {}", serverUrl);
+            scheduleReconnectLocked(UNSUPPORTED_RETRY_MS);
+            return;
+        }
+
+        state = State.CONNECTING;
+        connectedServer = serverUrl;
+        connectedToken = authToken;
+
+        WebSocket.Builder builder = NetworkManager.httpClient().newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .header("User-Agent", "WBUtils-Mod/" + WBUtilsClient.getVersion());
+        if (authToken != null && !authToken.isBlank()) {
+            builder.header("Authorization", "Bearer " + authToken);
+        }
+
+        SocketListener listener = new SocketListener();
+        activeListener = listener;
+        builder.buildAsync(uri, listener)
+            .whenComplete((ws, error) -> {
+                if (error == null) return;
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                synchronized (PushChannel.class) {
+                    if (activeListener != listener) return;
+                    activeListener = null;
+                    state = State.DISCONNECTED;
+                    if (cause instanceof WebSocketHandshakeException handshake && handshake.getResponse().statusCode() == 404) {
+                        WBUtilsClient.LOGGER.info("[PushChannel] Server has no push endpoint, using polling");
+                        scheduleReconnectLocked(UNSUPPORTED_RETRY_MS);
+                    } else {
+                        WBUtilsClient.LOGGER.debug("[PushChannel] Connect failed: {}", cause.getMessage());
+                        scheduleBackoffLocked();
+                    }
+                }
+            });
+    }
+
+    private static void closeLocked() {
+        WebSocket ws = socket;
+        socket = null;
+        activeListener = null;
+        state = State.DISCONNECTED;
+        if (ws != null) {
+            ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye").exceptionally(e -> null);
+        }
+    }
+
+    private static void scheduleBackoffLocked() {
+        scheduleReconnectLocked(reconnectDelayMs);
+        reconnectDelayMs = Math.min(MAX_RECONNECT_DELAY_MS, reconnectDelayMs * 2);
+    }
+
+    private static void scheduleReconnectLocked(long delayMs) {
+        nextAttemptAt = clock.getAsLong() + delayMs;
+    }
+
+    /**
+     * Time left before {@link #ensureConnected} tries again (0 or less once it would); for tests.
+     */
+    static synchronized long millisUntilNextAttempt() {
+        return nextAttemptAt - clock.getAsLong();
+    }
+
+    private static void dispatch(String message) {
+        JsonElement parsed = JsonCodec.parse(message);
+        if (parsed == null || !parsed.isJsonObject()) return;
+        JsonObject frame = parsed.getAsJsonObject();
+        JsonElement topicElement = frame.get("topic");
+        if (topicElement == null || !topicElement.isJsonPrimitive()) return;
+        String topic = topicElement.getAsString();
+        List<Listener> topicListeners = listeners.get(topic);
+        if (topicListeners == null) return;
+        for (Listener listener : topicListeners) {
+            try {
+                listener.onEvent(frame);
+            } catch (Exception e) {
+                WBUtilsClient.LOGGER.error("[PushChannel] Listener for {} failed", topic, e);
+            }
+        }
+    }
+
+    private static void resyncAll() {
+        for (List<Listener> topicListeners : listeners.values()) {
+            for (Listener listener : topicListeners) {
+                try {
+                    listener.onResync();
+                } catch (Exception e) {
+                    WBUtilsClient.LOGGER.error("[PushChannel] Resync failed", e);
+                }
+            }
+        }
+    }
+
+    private static class SocketListener implements WebSocket.Listener {
+        private final StringBuilder partial = new StringBuilder();
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            synchronized (PushChannel.class) {
+                if (activeListener != this) {
+                    webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "stale").exceptionally(e -> null);
+                    return;
+                }
+                socket = webSocket;
+                state = State.CONNECTED;
+                reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+            }
+            WBUtilsClient.LOGGER.info("[PushChannel] Connected, subscribed to {}", listeners.keySet());
+            resyncAll();
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String message = partial.toString();
+                partial.setLength(0);
+                dispatch(message);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            onLost(webSocket, "closed (" + statusCode + ")");
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            onLost(webSocket, error.getMessage());
+        }
+
+        private void onLost(WebSocket webSocket, String why) {
+            synchronized (PushChannel.class) {
+                if (activeListener != this) return;
+                activeListener = null;
+                socket = null;
+                state = State.DISCONNECTED;
+                scheduleBackoffLocked();
+            }
+            WBUtilsClient.LOGGER.info("[PushChannel] Connection lost ({}), falling back to polling", why);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.winss.wbutils.network;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache for GET response bodies.
+ * Bounded both by entry count and by the approximate memory used by the cached bodies.
+ * Entries keep their ETag / Last-Modified validators so expired data can be revalidated
+ * with a conditional GET instead of being downloaded again.
+ */
+final class ResponseCache {
+    private final int maxEntries;
+    private final long maxBytes;
+
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private long evictions = 0;
+
+    ResponseCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, Entry entry) {
+        if (entry.size > maxBytes) {
+            // Never let a single oversized body flush the whole cache
+            remove(key);
+            return;
+        }
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            totalBytes -= previous.size;
+        }
+        totalBytes += entry.size;
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            totalBytes -= eldest.getValue().size;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.size;
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return totalBytes;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    static final class Entry {
+        final String data;
+        final String etag;
+        final String lastModified;
+        final long timestamp;
+        final long ttlMs;
+        final long staleMs;
+        final long size;
+
+        Entry(String key, String data, String etag, String lastModified, long ttlMs, long staleMs) {
+            this.data = data;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.timestamp = System.currentTimeMillis();
+            this.ttlMs = ttlMs;
+            this.staleMs = staleMs;
+            // Rough UTF-16 footprint of key + body + validators
+            this.size = 2L * (key.length() + data.length()
+                    + (etag != null ? etag.length() : 0)
+                    + (lastModified != null ? lastModified.length() : 0));
+        }
+
+        /**
+         * Same body and validators, restamped after a 304 Not Modified.
+         */
+        Entry refreshed(String key, String newEtag, String newLastModified) {
+            return new Entry(key, data,
+                    newEtag != null ? newEtag : etag,
+                    newLastModified != null ? newLastModified : lastModified,
+                    ttlMs, staleMs);
+        }
+
+        boolean isFresh(long now) {
+            return now - timestamp <= ttlMs;
+        }
+
+        /**
+         * Expired, but still young enough to be served while a background revalidation runs.
+         */
+        boolean isServeableStale(long now) {
+            return now - timestamp <= ttlMs + staleMs;
+        }
+
+        boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.winss.wbutils.network;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm:
+ * instead of counting tokens we track the theoretical arrival time (TAT) of the next request.
+ * A request may go once now >= TAT - burst tolerance; reserving pushes TAT forward by one interval.
+ * The same arithmetic tells a caller exactly how long to wait, which is what the delay queue needs.
+ */
+final class TokenBucket {
+    private final AtomicLong theoreticalArrivalNs = new AtomicLong(Long.MIN_VALUE);
+    private volatile long intervalNs;
+    private volatile long burstToleranceNs;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        configure(ratePerSecond, burst);
+    }
+
+    void configure(double ratePerSecond, int burst) {
+        double rate = Math.max(0.01, ratePerSecond);
+        this.intervalNs = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.burstToleranceNs = intervalNs * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * Reserves one token.
+     *
+     * @param nowNs Current System.nanoTime()
+     * @param maxWaitNs Longest acceptable wait
+     * @return Nanoseconds the caller must wait before sending (0 = go now), or -1 if that would exceed maxWaitNs
+     */
+    long reserve(long nowNs, long maxWaitNs) {
+        long interval = intervalNs;
+        long tolerance = burstToleranceNs;
+        while (true) {
+            long tat = theoreticalArrivalNs.get();
+            long base = tat == Long.MIN_VALUE ? nowNs : Math.max(tat, nowNs);
+            long waitNs = Math.max(0, base - tolerance - nowNs);
+            if (waitNs > maxWaitNs) {
+                return -1;
+            }
+            if (theoreticalArrivalNs.compareAndSet(tat, base + interval)) {
+                return waitNs;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token from {@link #reserve} whose request was then rejected, so it doesn't hold back later ones.
+     */
+    void refund() {
+        long interval = intervalNs;
+        while (true) {
+            long tat = theoreticalArrivalNs.get();
+            if (tat == Long.MIN_VALUE) return;
+            if (theoreticalArrivalNs.compareAndSet(tat, tat - interval)) return;
+        }
+    }
+
+    /**
+     * Pushes the bucket so nothing is allowed before untilNs (server sent 429 / Retry-After).
+     */
+    void blockUntil(long untilNs) {
+        long target = untilNs + burstToleranceNs;
+        while (true) {
+            long tat = theoreticalArrivalNs.get();
+            if (tat != Long.MIN_VALUE && tat >= target) return;
+            if (theoreticalArrivalNs.compareAndSet(tat, target)) return;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.winss.wbutils.network;
+
+import com.winss.wbutils.WBUtilsClient;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable outbox for uplink reports that could not be delivered (server offline, 5xx, network error).
+ * Records are appended to a memory-mapped file in the config dir and replayed in order once
+ * AuthService sees the server come back. Delivered and expired records are dropped on compaction.
+ *
+ * File layout: [magic:int][writePos:int] then records of
+ * [length:int][state:byte][timestamp:long][seq:long][pathLen:short][path][json]
+ * The sequence number is unique per record and survives compaction, so a replay can still find a record it
+ * delivered after compaction has moved it.
+ * The auth token and server URL are not stored; replay uses the current config.
+ */
+public class UplinkOutbox {
+    private static final String FILE_NAME = "wbutils_outbox.dat";
+    private static final int MAGIC = 0x57424F32; // "WBO2"
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 4 + 1 + 8 + 8 + 2;
+    private static final int MAX_FILE_BYTES = 1024 * 1024;
+    private static final long MAX_RECORD_AGE_MS = TimeUnit.HOURS.toMillis(24);
+    private static final int MAX_REPLAY_IN_FLIGHT = 4;
+
+    private static final byte STATE_PENDING = 0;
+    private static final byte STATE_DONE = 1;
+
+    private static MappedByteBuffer buffer;
+    private static boolean openFailed = false;
+    // Bumped whenever compaction moves records; until then a record's offset is still good
+    private static int generation = 0;
+    private static long nextSeq = 0;
+
+    private static volatile boolean serverReachable = true;
+    private static final AtomicBoolean replaying = new AtomicBoolean(false);
+
+    private static final AtomicLong recordsWritten = new AtomicLong();
+    private static final AtomicLong recordsReplayed = new AtomicLong();
+    private static final AtomicLong recordsDropped = new AtomicLong();
+
+    public record OutboxStats(int pending, int bytesUsed, long written, long replayed, long dropped, boolean replaying) {}
+
+    private record PendingRecord(long seq, int generation, int offset, String path, String json) {}
+
+    /**
+     * Set by AuthService's connectivity check. While unreachable, durable uplinks go straight to disk.
+     */
+    public static void setServerReachable(boolean reachable) {
+        serverReachable = reachable;
+    }
+
+    public static boolean isServerReachable() {
+        return serverReachable;
+    }
+
+    /**
+     * Appends a report to the outbox for later delivery.
+     *
+     * @param path Endpoint path, e.g. "/ktrack/report"
+     * @param json JSON body
+     * @return true if the record was stored
+     */
+    public static synchronized boolean append(String path, String json) {
+        if (!ensureOpen()) return false;
+
+        byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        int length = RECORD_HEADER_SIZE + pathBytes.length + jsonBytes.length;
+        if (length > MAX_FILE_BYTES - HEADER_SIZE || pathBytes.length > Short.MAX_VALUE) {
+            WBUtilsClient.LOGGER.warn("[UplinkOutbox] Report for {} is too large to store ({} bytes)", path, length);
+            recordsDropped.incrementAndGet();
+            return false;
+        }
+
+        if (writePos() + length > MAX_FILE_BYTES) {
+            compactLocked();
+            while (writePos() + length > MAX_FILE_BYTES && dropOldestLocked()) {
+                recordsDropped.incrementAndGet();
+            }
+        }
+
+        int pos = writePos();
+        // Body first, length last, then publish via writePos so a torn write is never read back
+        buffer.put(pos + 4, STATE_PENDING);
+        buffer.putLong(pos + 5, System.currentTimeMillis());
+        buffer.putLong(pos + 13, nextSeq++);
+        buffer.putShort(pos + 21, (short) pathBytes.length);
+        buffer.put(pos + RECORD_HEADER_SIZE, pathBytes);
+        buffer.put(pos + RECORD_HEADER_SIZE + pathBytes.length, jsonBytes);
+        buffer.putInt(pos, length);
+        buffer.putInt(4, pos + length);
+
+        recordsWritten.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Replays pending records in their original order, at most {@value #MAX_REPLAY_IN_FLIGHT} at a time.
+     * Stops at the first window that doesn't fully go through; the rest waits for the next replay.
+     */
+    public static void replay(String serverUrl, String authToken) {
+        if (serverUrl == null || serverUrl.isBlank()) return;
+        if (!replaying.compareAndSet(false, true)) return;
+
+        List<PendingRecord> pending;
+        synchronized (UplinkOutbox.class) {
+            pending = ensureOpen() ? collectPendingLocked() : List.of();
+        }
+        if (pending.isEmpty()) {
+            replaying.set(false);
+            return;
+        }
+
+        WBUtilsClient.LOGGER.info("[UplinkOutbox] Replaying {} stored reports", pending.size());
+        replayWindow(pending, 0, serverUrl, authToken);
+    }
+
+    private static void replayWindow(List<PendingRecord> pending, int start, String serverUrl, String authToken) {
+        if (start >= pending.size()) {
+            finishReplay();
+            return;
+        }
+
+        int end = Math.min(start + MAX_REPLAY_IN_FLIGHT, pending.size());
+        List<CompletableFuture<Boolean>> window = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            PendingRecord record = pending.get(i);
+            window.add(NetworkManager.post(serverUrl + record.path(), record.json(), authToken)
+                .handle((response, error) -> {
+                    // 4xx (other than 429) means the server rejected it - retrying won't help
+                    boolean delivered = error == null && response.statusCode() < 500 && response.statusCode() != 429;
+                    if (delivered) {
+                        markDone(record);
+                    }
+                    return delivered;
+                }));
+        }
+
+        CompletableFuture.allOf(window.toArray(new CompletableFuture[0])).thenRun(() -> {
+            boolean allDelivered = window.stream().allMatch(CompletableFuture::join);
+            if (!allDelivered) {
+                WBUtilsClient.LOGGER.warn("[UplinkOutbox] Replay interrupted, remaining reports kept for later");
+                finishReplay();
+                return;
+            }
+
+            List<PendingRecord> next = pending;
+            int nextStart = end;
+            synchronized (UplinkOutbox.class) {
+                // Records were moved by a compaction while this window was in flight; rescan
+                if (end < pending.size() && pending.get(end).generation() != generation) {
+                    next = collectPendingLocked();
+                    nextStart = 0;
+                }
+            }
+            replayWindow(next, nextStart, serverUrl, authToken);
+        });
+    }
+
+    private static void finishReplay() {
+        synchronized (UplinkOutbox.class) {
+            if (buffer != null) {
+                compactLocked();
+            }
+        }
+        replaying.set(false);
+    }
+
+    private static synchronized void markDone(PendingRecord record) {
+        if (buffer == null) return;
+        int offset = record.generation() == generation ? record.offset() : findLocked(record.seq());
+        // Gone means compaction dropped it (expired, or evicted for space) - nothing left to mark
+        if (offset < 0) return;
+        buffer.put(offset + 4, STATE_DONE);
+        recordsReplayed.incrementAndGet();
+    }
+
+    public static synchronized OutboxStats getStats() {
+        int pending = 0;
+        int used = 0;
+        if (buffer != null) {
+            pending = collectPendingLocked().size();
+            used = writePos();
+        }
+        return new OutboxStats(pending, used, recordsWritten.get(), recordsReplayed.get(), recordsDropped.get(), replaying.get());
+    }
+
+    // ==================== File handling ====================
+
+    private static boolean ensureOpen() {
+        if (buffer != null) return true;
+        if (openFailed) return false;
+
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, MAX_FILE_BYTES);
+        } catch (IOException e) {
+            WBUtilsClient.LOGGER.error("[UplinkOutbox] Failed to open outbox file, reports will not be persisted", e);
+            openFailed = true;
+            return false;
+        }
+
+        int storedWritePos = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || storedWritePos < HEADER_SIZE || storedWritePos > MAX_FILE_BYTES) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, HEADER_SIZE);
+        } else {
+            // Trim anything past the last well-formed record
+            buffer.putInt(4, scanValidEnd(storedWritePos));
+        }
+        int end = writePos();
+        for (int pos = HEADER_SIZE; pos < end; pos += buffer.getInt(pos)) {
+            nextSeq = Math.max(nextSeq, buffer.getLong(pos + 13) + 1);
+        }
+        return true;
+    }
+
+    private static int writePos() {
+        return buffer.getInt(4);
+    }
+
+    private static int scanValidEnd(int limit) {
+        int pos = HEADER_SIZE;
+        while (pos + RECORD_HEADER_SIZE <= limit) {
+            int length = buffer.getInt(pos);
+            int pathLen = buffer.getShort(pos + 21);
+            if (length < RECORD_HEADER_SIZE || pos + length > limit || pathLen < 0 || RECORD_HEADER_SIZE + pathLen > length) {
+                break;
+            }
+            pos += length;
+        }
+        return pos;
+    }
+
+    private static List<PendingRecord> collectPendingLocked() {
+        List<PendingRecord> pending = new ArrayList<>();
+        long cutoff = System.currentTimeMillis() - MAX_RECORD_AGE_MS;
+        int end = writePos();
+        int pos = HEADER_SIZE;
+        while (pos < end) {
+            int length = buffer.getInt(pos);
+            if (buffer.get(pos + 4) == STATE_PENDING && buffer.getLong(pos + 5) >= cutoff) {
+                int pathLen = buffer.getShort(pos + 21);
+                String path = readString(pos + RECORD_HEADER_SIZE, pathLen);
+                String json = readString(pos + RECORD_HEADER_SIZE + pathLen, length - RECORD_HEADER_SIZE - pathLen);
+                pending.add(new PendingRecord(buffer.getLong(pos + 13), generation, pos, path, json));
+            }
+            pos += length;
+        }
+        return pending;
+    }
+
+    /**
+     * @return Offset of the record with this sequence number, or -1 if it isn't in the file any more
+     */
+    private static int findLocked(long seq) {
+        int end = writePos();
+        for (int pos = HEADER_SIZE; pos < end; pos += buffer.getInt(pos)) {
+            if (buffer.getLong(pos + 13) == seq) return pos;
+        }
+        return -1;
+    }
+
+    /**
+     * Slides pending, unexpired records to the front of the file, dropping everything else.
+     */
+    private static void compactLocked() {
+        long cutoff = System.currentTimeMillis() - MAX_RECORD_AGE_MS;
+        int end = writePos();
+        int read = HEADER_SIZE;
+        int write = HEADER_SIZE;
+        byte[] scratch = null;
+
+        while (read < end) {
+            int length = buffer.getInt(read);
+            boolean keep = buffer.get(read + 4) == STATE_PENDING && buffer.getLong(read + 5) >= cutoff;
+            if (keep) {
+                if (read != write) {
+                    if (scratch == null || scratch.length < length) scratch = new byte[length];
+                    buffer.get(read, scratch, 0, length);
+                    buffer.put(write, scratch, 0, length);
+                }
+                write += length;
+            } else if (buffer.get(read + 4) == STATE_PENDING) {
+                recordsDropped.incrementAndGet();
+            }
+            read += length;
+        }
+
+        if (write != end) {
+            buffer.putInt(4, write);
+            generation++;
+            buffer.force();
+        }
+    }
+
+    /**
+     * Drops the oldest record to make room. Only used when compaction alone can't free enough space.
+     */
+    private static boolean dropOldestLocked() {
+        int end = writePos();
+        if (end <= HEADER_SIZE) return false;
+        buffer.put(HEADER_SIZE + 4, STATE_DONE);
+        compactLocked();
+        return true;
+    }
+
+    private static String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,280 @@
+package com.winss.wbutils.network;
+
+import com.winss.wbutils.WBUtilsClient;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side uplink pipeline for feature reports (ktrack, door, rps, mayhem, modusers, boots).
+ * Reports are buffered in a bounded queue and flushed as one batched POST per server/token
+ * once the queue fills up or the oldest event reaches its priority's max delay.
+ * IMMEDIATE events skip the queue entirely so death alerts are never held back.
+ *
+ * Batches go to {@code <server>/uplink/batch} as {"events":[{"path":"/ktrack/report","body":{...}}, ...]}.
+ * If the server doesn't know that endpoint, batching is switched off and events are sent one by one.
+ * The batch endpoint answers with one status for the whole batch, so any other 4xx on it could be down to a
+ * single bad event: the batch is then split and each event sent on its own, so only the bad one is rejected.
+ *
+ * Durable events that fail (network error, 5xx, 429) or are submitted while the server is
+ * unreachable are written to the {@link UplinkOutbox} and replayed later. Their futures fail with
+ * {@link QueuedOfflineException}, so callers can tell "kept for later" apart from both delivery and loss.
+ */
+public class UplinkQueue {
+    public enum Priority {
+        IMMEDIATE(0),
+        NORMAL(TimeUnit.SECONDS.toMillis(1)),
+        LOW(TimeUnit.SECONDS.toMillis(10));
+
+        final long maxDelayMs;
+
+        Priority(long maxDelayMs) {
+            this.maxDelayMs = maxDelayMs;
+        }
+    }
+
+    private static final int MAX_BATCH_SIZE = 32;
+    private static final String BATCH_PATH = "/uplink/batch";
+
+    private static final ArrayDeque<PendingEvent> queue = new ArrayDeque<>();
+    private static long scheduledFlushAt = Long.MAX_VALUE;
+    private static volatile boolean batchingSupported = true;
+
+    private static final AtomicLong eventsSubmitted = new AtomicLong();
+    private static final AtomicLong batchesSent = new AtomicLong();
+    private static final AtomicLong eventsSentDirect = new AtomicLong();
+    private static final AtomicLong eventsStored = new AtomicLong();
+
+    private static final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "WBUtils-Uplink");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public record UplinkStats(long submitted, long batches, long direct, long stored, int queued, boolean batching) {}
+
+    /**
+     * Queues a report for the auth server.
+     *
+     * @param serverUrl Base server URL (config.authServerUrl)
+     * @param path Endpoint path, e.g. "/ktrack/report"
+     * @param json JSON object body
+     * @param authToken Bearer token, may be null
+     * @param priority How long the event may wait to be batched
+     * @return Completes with the server's response once the event (or its batch) has been sent, or fails with
+     *         {@link QueuedOfflineException} if it was stored in the outbox instead
+     */
+    public static CompletableFuture<NetworkManager.NetworkResponse> submit(String serverUrl, String path, String json, String authToken, Priority priority) {
+        return submit(serverUrl, path, json, authToken, priority, true);
+    }
+
+    /**
+     * Queues a report for the auth server.
+     *
+     * @param durable Whether the report is still worth delivering after an outage (stored in the outbox on failure)
+     */
+    public static CompletableFuture<NetworkManager.NetworkResponse> submit(String serverUrl, String path, String json, String authToken, Priority priority, boolean durable) {
+        // Offline on purpose (event replay) - neither send nor keep it for later
+        if (NetworkManager.isOffline()) {
+            return CompletableFuture.failedFuture(new IOException("Network is offline"));
+        }
+        eventsSubmitted.incrementAndGet();
+
+        // Server is known to be down - don't bother trying, keep it for replay
+        if (durable && !UplinkOutbox.isServerReachable() && UplinkOutbox.append(path, json)) {
+            eventsStored.incrementAndGet();
+            return CompletableFuture.failedFuture(new QueuedOfflineException(null));
+        }
+
+        PendingEvent event = new PendingEvent(serverUrl, path, json, authToken, durable, new CompletableFuture<>());
+
+        if (priority == Priority.IMMEDIATE || !batchingSupported) {
+            sendDirect(event);
+            return event.future;
+        }
+
+        List<PendingEvent> toFlush = null;
+
+        synchronized (queue) {
+            queue.add(event);
+            if (queue.size() >= MAX_BATCH_SIZE) {
+                toFlush = drainLocked();
+            } else {
+                long flushAt = System.currentTimeMillis() + priority.maxDelayMs;
+                if (flushAt < scheduledFlushAt) {
+                    scheduledFlushAt = flushAt;
+                    flushScheduler.schedule(UplinkQueue::flushDue, priority.maxDelayMs, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        if (toFlush != null) {
+            send(toFlush);
+        }
+        return event.future;
+    }
+
+    /**
+     * Sends everything that is currently queued.
+     */
+    public static void flush() {
+        List<PendingEvent> toFlush;
+        synchronized (queue) {
+            toFlush = drainLocked();
+        }
+        send(toFlush);
+    }
+
+    public static UplinkStats getStats() {
+        int queued;
+        synchronized (queue) {
+            queued = queue.size();
+        }
+        return new UplinkStats(eventsSubmitted.get(), batchesSent.get(), eventsSentDirect.get(), eventsStored.get(), queued, batchingSupported);
+    }
+
+    private static void flushDue() {
+        List<PendingEvent> toFlush = null;
+        synchronized (queue) {
+            // Timers are never cancelled; a leftover one fires early for the current deadline and does nothing
+            if (System.currentTimeMillis() >= scheduledFlushAt) {
+                toFlush = drainLocked();
+            }
+        }
+        if (toFlush != null) {
+            send(toFlush);
+        }
+    }
+
+    private static List<PendingEvent> drainLocked() {
+        List<PendingEvent> drained = new ArrayList<>(queue);
+        queue.clear();
+        scheduledFlushAt = Long.MAX_VALUE;
+        return drained;
+    }
+
+    private static void send(List<PendingEvent> events) {
+        if (events.isEmpty()) return;
+
+        // One batch per server + token; events keep their submission order inside a batch
+        Map<String, List<PendingEvent>> groups = new LinkedHashMap<>();
+        for (PendingEvent event : events) {
+            groups.computeIfAbsent(event.serverUrl + "|" + event.authToken, k -> new ArrayList<>()).add(event);
+        }
+
+        for (List<PendingEvent> group : groups.values()) {
+            if (group.size() == 1 || !batchingSupported) {
+                group.forEach(UplinkQueue::sendDirect);
+            } else {
+                sendBatch(group);
+            }
+        }
+    }
+
+    private static void sendBatch(List<PendingEvent> group) {
+        PendingEvent first = group.get(0);
+        StringBuilder json = new StringBuilder("{\"events\":[");
+        for (int i = 0; i < group.size(); i++) {
+            PendingEvent event = group.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"path\":\"").append(event.path).append("\",\"body\":").append(event.json).append('}');
+        }
+        json.append("]}");
+
+        batchesSent.incrementAndGet();
+        NetworkManager.post(first.serverUrl + BATCH_PATH, json.toString(), first.authToken)
+            .whenComplete((response, error) -> {
+                if (error != null) {
+                    group.forEach(event -> fail(event, error));
+                    return;
+                }
+
+                int code = response.statusCode();
+                if (code == 404 || code == 405 || code == 501) {
+                    WBUtilsClient.LOGGER.info("[UplinkQueue] Server does not support batched reports (HTTP {}), sending individually", code);
+                    batchingSupported = false;
+                    group.forEach(UplinkQueue::sendDirect);
+                    return;
+                }
+
+                if (!response.isSuccess() && !isRetryable(code)) {
+                    WBUtilsClient.LOGGER.warn("[UplinkQueue] Batch of {} rejected (HTTP {}), resending events individually", group.size(), code);
+                    group.forEach(UplinkQueue::sendDirect);
+                    return;
+                }
+
+                group.forEach(event -> complete(event, response));
+            });
+    }
+
+    private static void sendDirect(PendingEvent event) {
+        eventsSentDirect.incrementAndGet();
+        NetworkManager.post(event.serverUrl + event.path, event.json, event.authToken)
+            .whenComplete((response, error) -> {
+                if (error != null) {
+                    fail(event, error);
+                } else {
+                    complete(event, response);
+                }
+            });
+    }
+
+    private static void complete(PendingEvent event, NetworkManager.NetworkResponse response) {
+        if (isRetryable(response.statusCode()) && storeIfDurable(event)) {
+            event.future.completeExceptionally(new QueuedOfflineException(null));
+        } else {
+            event.future.complete(response);
+        }
+    }
+
+    private static void fail(PendingEvent event, Throwable error) {
+        event.future.completeExceptionally(storeIfDurable(event) ? new QueuedOfflineException(error) : error);
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode >= 500 || statusCode == 429;
+    }
+
+    /**
+     * @return true if the event was stored for replay
+     */
+    private static boolean storeIfDurable(PendingEvent event) {
+        if (event.durable && UplinkOutbox.append(event.path, event.json)) {
+            eventsStored.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether a failure from {@link #submit} only means the report was stored in the outbox for later.
+     */
+    public static boolean isQueued(Throwable error) {
+        Throwable current = error;
+        while (current instanceof CompletionException && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current instanceof QueuedOfflineException;
+    }
+
+    /**
+     * The report wasn't delivered but is safe in the {@link UplinkOutbox} and goes out once the server is back.
+     */
+    public static final class QueuedOfflineException extends IOException {
+        QueuedOfflineException(Throwable cause) {
+            super("Server unreachable, report queued for later", cause);
+        }
+    }
+
+    private record PendingEvent(String serverUrl, String path, String json, String authToken, boolean durable,
+                                CompletableFuture<NetworkManager.NetworkResponse> future) {}
+}
@@ -0,0 +1,129 @@
+package com.winss.wbutils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(50, 1000);
+        wheel.schedule("a", 120, () -> fired.add("a"));
+
+        wheel.advance(1100);
+        assertTrue(fired.isEmpty());
+        assertEquals(50, wheel.remainingMs("a"));
+        wheel.advance(1150);
+        assertEquals(List.of("a"), fired);
+        assertFalse(wheel.isScheduled("a"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void firesInDeadlineOrderAndScheduleOrderWithinATick() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("late", 300, () -> fired.add("late"));
+        wheel.schedule("first", 10, () -> fired.add("first"));
+        wheel.schedule("second", 10, () -> fired.add("second"));
+        wheel.schedule("middle", 100, () -> fired.add("middle"));
+
+        wheel.advance(1000);
+        assertEquals(List.of("first", "second", "middle", "late"), fired);
+    }
+
+    @Test
+    void schedulingAKeyAgainReplacesIt() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("k", 10, () -> fired.add("old"));
+        wheel.schedule("k", 20, () -> fired.add("new"));
+        assertFalse(wheel.scheduleIfAbsent("k", 5, () -> fired.add("ignored")));
+
+        wheel.advance(15);
+        assertTrue(fired.isEmpty());
+        wheel.advance(20);
+        assertEquals(List.of("new"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelAndRescheduleMoveAPendingTimeout() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("cancelled", 10, () -> fired.add("cancelled"));
+        wheel.schedule("moved", 10, () -> fired.add("moved"));
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        assertTrue(wheel.reschedule("moved", 5000));
+        assertFalse(wheel.reschedule("missing", 10));
+
+        wheel.advance(4999);
+        assertTrue(fired.isEmpty());
+        wheel.advance(5000);
+        assertEquals(List.of("moved"), fired);
+    }
+
+    @Test
+    void callbacksMayCancelAndScheduleDuringAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("a", 10, () -> {
+            fired.add("a");
+            wheel.cancel("b");
+            wheel.schedule("c", 1, () -> fired.add("c"));
+        });
+        wheel.schedule("b", 10, () -> fired.add("b"));
+
+        wheel.advance(10);
+        assertEquals(List.of("a"), fired);
+        wheel.advance(11);
+        assertEquals(List.of("a", "c"), fired);
+    }
+
+    @Test
+    void timeoutsPastTheTopLevelStillFireOnTime() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        // 64^4 ticks is the furthest the wheel places directly
+        long far = (1L << 24) + 12_345;
+        wheel.schedule("far", far, () -> fired.add("far"));
+
+        wheel.advance(far - 1);
+        assertTrue(fired.isEmpty());
+        wheel.advance(far);
+        assertEquals(List.of("far"), fired);
+    }
+
+    @Test
+    void neverFiresEarlyAndFiresEverythingInDeadlineOrder() {
+        Random random = new Random(42);
+        TimerWheel<Integer> wheel = new TimerWheel<>(10, 0);
+        long[] due = new long[500];
+        long[] now = {0};
+        List<Integer> firedIds = new ArrayList<>();
+        for (int id = 0; id < due.length; id++) {
+            long delay = 1 + random.nextInt(random.nextBoolean() ? 1_000 : 5_000_000);
+            // Whole ticks from the current one, rounded up, as the wheel counts them
+            due[id] = (now[0] / 10 + (delay + 9) / 10) * 10;
+            int key = id;
+            wheel.schedule(key, delay, () -> {
+                assertTrue(due[key] <= now[0], "fired early: " + key);
+                firedIds.add(key);
+            });
+            now[0] += random.nextInt(50);
+            wheel.advance(now[0]);
+        }
+        while (wheel.size() > 0) {
+            now[0] += 1 + random.nextInt(100_000);
+            wheel.advance(now[0]);
+        }
+        assertEquals(due.length, firedIds.size());
+        for (int i = 1; i < firedIds.size(); i++) {
+            assertTrue(due[firedIds.get(i - 1)] <= due[firedIds.get(i)], "out of order at " + i);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.winss.wbutils.chat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Raw chat lines captured in game (chat/captured-chat.txt), shared by the tests and the JMH benchmarks.
+ */
+public final class CapturedChat {
+    private static final String RESOURCE = "/chat/captured-chat.txt";
+
+    private CapturedChat() {}
+
+    public static List<String> lines() {
+        try (InputStream in = CapturedChat.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) throw new IllegalStateException("Missing " + RESOURCE);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#")) lines.add(line);
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.winss.wbutils.chat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ColorCodesTest {
+    private static final List<String> CORPUS = CapturedChat.lines();
+
+    @Test
+    void stripMatchesTheColourCodeRegex() {
+        for (String line : CORPUS) {
+            assertEquals(line.replaceAll("§[0-9a-fk-or]", ""), ColorCodes.strip(line), line);
+        }
+    }
+
+    @Test
+    void stripAllMatchesTheAnyCodeRegex() {
+        for (String line : CORPUS) {
+            assertEquals(line.replaceAll("§.", ""), ColorCodes.stripAll(line), line);
+        }
+        // The regex dot stops at line breaks, so a § before one stays
+        assertEquals("a§\nb".replaceAll("§.", ""), ColorCodes.stripAll("a§\nb"));
+    }
+
+    @Test
+    void bufferVariantsMatchTheRegex() {
+        StringBuilder out = new StringBuilder();
+        char[] dest = new char[256];
+        for (String line : CORPUS) {
+            String expected = line.replaceAll("§[0-9a-fk-or]", "");
+            out.setLength(0);
+            assertEquals(expected, ColorCodes.strip(line, out).toString(), line);
+            int written = ColorCodes.strip(line, dest);
+            assertEquals(expected, new String(dest, 0, written), line);
+        }
+    }
+
+    @Test
+    void lineWithoutCodesIsReturnedAsIs() {
+        int plain = 0;
+        for (String line : CORPUS) {
+            if (line.indexOf('§') >= 0) continue;
+            plain++;
+            assertSame(line, ColorCodes.strip(line));
+            assertSame(line, ColorCodes.stripAll(line));
+        }
+        assertFalse(plain == 0, "corpus has no plain lines");
+        // Only codes the pattern doesn't cover: nothing changes, so no copy either
+        String uppercase = "§A§Z";
+        assertSame(uppercase, ColorCodes.strip(uppercase));
+    }
+}
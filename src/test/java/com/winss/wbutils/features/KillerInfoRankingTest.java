@@ -0,0 +1,72 @@
+package com.winss.wbutils.features;
+
+import com.winss.wbutils.features.KillTracker.KillerInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hotlist ranking as KillTracker keeps it: a skip list ordered by BY_TOTAL_EVENTS, read by stepping
+ * with higher() from RANKING_HEAD the way forEachTop does.
+ */
+class KillerInfoRankingTest {
+    private final ConcurrentSkipListSet<KillerInfo> ranking = new ConcurrentSkipListSet<>(KillerInfo.BY_TOTAL_EVENTS);
+
+    @Test
+    void mostEventsFirstThenByName() {
+        ranking.add(new KillerInfo("carol", 2, 1, 0));
+        ranking.add(new KillerInfo("Bob", 1, 2, 0));
+        ranking.add(new KillerInfo("alice", 1, 2, 0));
+        ranking.add(new KillerInfo("dave", 10, 0, 0));
+
+        assertEquals(List.of("dave", "alice", "Bob", "carol"), top(10));
+    }
+
+    @Test
+    void headSortsAheadOfEveryEntry() {
+        ranking.add(new KillerInfo("", Integer.MAX_VALUE - 1, 0, 0));
+        ranking.add(new KillerInfo("zero", 0, 0, 0));
+        for (KillerInfo info : ranking) {
+            assertTrue(KillerInfo.BY_TOTAL_EVENTS.compare(KillerInfo.RANKING_HEAD, info) < 0, info.playerName);
+        }
+        assertEquals(2, top(10).size());
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            ranking.add(new KillerInfo("p" + i, i, 0, 0));
+        }
+        assertEquals(List.of("p19", "p18", "p17", "p16", "p15"), top(5));
+        assertEquals(List.of(), top(0));
+    }
+
+    @Test
+    void replacingAnEntryMovesItInTheRanking() {
+        KillerInfo before = new KillerInfo("alice", 1, 0, 0);
+        ranking.add(before);
+        ranking.add(new KillerInfo("bob", 5, 0, 0));
+
+        // What putHotListEntry does when a count changes
+        ranking.remove(before);
+        ranking.add(new KillerInfo("alice", 6, 3, 0));
+
+        assertEquals(List.of("alice", "bob"), top(10));
+        assertEquals(2, ranking.size());
+    }
+
+    private List<String> top(int limit) {
+        List<String> names = new ArrayList<>();
+        KillerInfo info = ranking.higher(KillerInfo.RANKING_HEAD);
+        while (info != null && names.size() < limit) {
+            names.add(info.playerName);
+            info = ranking.higher(info);
+        }
+        return names;
+    }
+}
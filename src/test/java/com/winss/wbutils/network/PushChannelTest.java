@@ -0,0 +1,125 @@
+package com.winss.wbutils.network;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PushChannelTest {
+    private static final long TIMEOUT_MS = 5000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private StandInPushServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PushChannel.disconnect();
+        PushChannel.clock = now::get;
+        server = new StandInPushServer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        PushChannel.disconnect();
+        PushChannel.clock = System::currentTimeMillis;
+        server.close();
+    }
+
+    @Test
+    void deliversFramesAndResubscribesAfterReconnect() throws Exception {
+        AtomicInteger resyncs = new AtomicInteger();
+        BlockingQueue<JsonObject> events = new LinkedBlockingQueue<>();
+        PushChannel.subscribe("test-resubscribe", new PushChannel.Listener() {
+            @Override
+            public void onEvent(JsonObject frame) {
+                events.add(frame);
+            }
+
+            @Override
+            public void onResync() {
+                resyncs.incrementAndGet();
+            }
+        });
+
+        PushChannel.ensureConnected(server.url(), null);
+        await(() -> resyncs.get() == 1);
+        assertTrue(PushChannel.isConnected());
+        assertTrue(server.requestPaths().get(0).contains("test-resubscribe"), server.requestPaths().get(0));
+
+        server.send("{\"topic\":\"test-resubscribe\",\"version\":7}");
+        JsonObject frame = events.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertNotNull(frame);
+        assertEquals(7, frame.get("version").getAsInt());
+
+        server.dropConnections();
+        await(() -> !PushChannel.isConnected());
+        assertEquals(5000, PushChannel.millisUntilNextAttempt());
+
+        // Still inside the backoff: no new handshake
+        now.addAndGet(4999);
+        PushChannel.ensureConnected(server.url(), null);
+        assertFalse(PushChannel.isConnected());
+        assertEquals(1, server.handshakes());
+
+        now.addAndGet(1);
+        PushChannel.ensureConnected(server.url(), null);
+        // The listeners are told to refetch whatever they missed while disconnected
+        await(() -> resyncs.get() == 2);
+        assertEquals(2, server.handshakes());
+        assertTrue(server.requestPaths().get(1).contains("test-resubscribe"));
+    }
+
+    @Test
+    void backsOffExponentiallyOnFailedConnects() throws Exception {
+        PushChannel.subscribe("test-backoff", frame -> {});
+        server.refuseWith(503);
+
+        long expected = 5000;
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            PushChannel.ensureConnected(server.url(), null);
+            await(() -> PushChannel.millisUntilNextAttempt() > 0);
+            assertEquals(expected, PushChannel.millisUntilNextAttempt(), "attempt " + attempt);
+            assertEquals(attempt, server.handshakes());
+            now.addAndGet(expected);
+            expected *= 2;
+        }
+
+        // A successful connect resets the backoff for the next failure
+        server.refuseWith(0);
+        PushChannel.ensureConnected(server.url(), null);
+        await(PushChannel::isConnected);
+        server.dropConnections();
+        await(() -> !PushChannel.isConnected());
+        assertEquals(5000, PushChannel.millisUntilNextAttempt());
+    }
+
+    @Test
+    void serverWithoutPushIsLeftAloneForLonger() throws Exception {
+        PushChannel.subscribe("test-unsupported", frame -> {});
+        server.refuseWith(404);
+
+        PushChannel.ensureConnected(server.url(), null);
+        await(() -> PushChannel.millisUntilNextAttempt() > 0);
+        assertEquals(TimeUnit.MINUTES.toMillis(30), PushChannel.millisUntilNextAttempt());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("Timed out waiting");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.winss.wbutils.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Just enough of a WebSocket server to stand in for the auth server's /push endpoint: answers the upgrade
+ * (or refuses it with a chosen status), sends text frames and drops connections on demand.
+ */
+final class StandInPushServer implements AutoCloseable {
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket server;
+    private final List<Socket> open = new CopyOnWriteArrayList<>();
+    private final List<String> requestPaths = new CopyOnWriteArrayList<>();
+    private final AtomicInteger handshakes = new AtomicInteger();
+    // 0 accepts the upgrade, anything else is the status the handshake is refused with
+    private volatile int refuseWith = 0;
+
+    StandInPushServer() throws IOException {
+        server = new ServerSocket(0, 16, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "StandInPushServer");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getLocalPort();
+    }
+
+    void refuseWith(int status) {
+        refuseWith = status;
+    }
+
+    int handshakes() {
+        return handshakes.get();
+    }
+
+    List<String> requestPaths() {
+        return requestPaths;
+    }
+
+    void send(String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(0x81);
+        if (payload.length < 126) {
+            frame.write(payload.length);
+        } else {
+            frame.write(126);
+            frame.write(payload.length >>> 8);
+            frame.write(payload.length & 0xFF);
+        }
+        frame.write(payload);
+        for (Socket socket : open) {
+            OutputStream out = socket.getOutputStream();
+            out.write(frame.toByteArray());
+            out.flush();
+        }
+    }
+
+    /**
+     * Closes every connection the way a restarting server does: a 1001 "going away" close frame, then the socket.
+     */
+    void dropConnections() throws IOException {
+        for (Socket socket : open) {
+            try {
+                OutputStream out = socket.getOutputStream();
+                out.write(new byte[]{(byte) 0x88, 0x02, 0x03, (byte) 0xE9});
+                out.flush();
+            } catch (IOException e) {
+                // Already gone
+            }
+            socket.close();
+        }
+        open.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        dropConnections();
+        server.close();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                handshake(socket);
+            } catch (IOException e) {
+                // Closed, or a client that went away mid-handshake
+            }
+        }
+    }
+
+    private void handshake(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        String key = null;
+        String line = readLine(in);
+        requestPaths.add(line.split(" ")[1]);
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        handshakes.incrementAndGet();
+
+        OutputStream out = socket.getOutputStream();
+        int status = refuseWith;
+        if (status != 0 || key == null) {
+            out.write(("HTTP/1.1 " + (status != 0 ? status : 400) + " Refused\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            socket.close();
+            return;
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept(key) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        open.add(socket);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) >= 0 && c != '\n') {
+            if (c != '\r') line.append((char) c);
+        }
+        if (c < 0 && line.isEmpty()) throw new IOException("Connection closed during handshake");
+        return line.toString();
+    }
+
+    private static String accept(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.winss.wbutils.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
+    @Test
+    void burstGoesAtOnceThenOnePerInterval() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        assertEquals(0, bucket.reserve(0, UNBOUNDED));
+        assertEquals(0, bucket.reserve(0, UNBOUNDED));
+        assertEquals(0, bucket.reserve(0, UNBOUNDED));
+        assertEquals(100 * MS, bucket.reserve(0, UNBOUNDED));
+        assertEquals(200 * MS, bucket.reserve(0, UNBOUNDED));
+    }
+
+    @Test
+    void refillsToTheBurstWhileIdle() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        for (int i = 0; i < 5; i++) bucket.reserve(0, UNBOUNDED);
+
+        long later = 10_000 * MS;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve(later, UNBOUNDED));
+        }
+        assertEquals(100 * MS, bucket.reserve(later, UNBOUNDED));
+    }
+
+    @Test
+    void waitPastTheLimitIsRefusedWithoutTakingAToken() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        assertEquals(0, bucket.reserve(0, 0));
+        assertEquals(-1, bucket.reserve(0, 50 * MS));
+        assertEquals(-1, bucket.reserve(0, 50 * MS));
+        assertEquals(100 * MS, bucket.reserve(0, 100 * MS));
+    }
+
+    @Test
+    void refundGivesTheTokenBack() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        assertEquals(0, bucket.reserve(0, UNBOUNDED));
+        assertEquals(100 * MS, bucket.reserve(0, UNBOUNDED));
+        bucket.refund();
+        assertEquals(100 * MS, bucket.reserve(0, UNBOUNDED));
+    }
+
+    @Test
+    void blockUntilHoldsEverythingBackUntilThen() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        bucket.blockUntil(1000 * MS);
+        assertEquals(1000 * MS, bucket.reserve(0, UNBOUNDED));
+        // An earlier block doesn't pull the bucket back
+        bucket.blockUntil(500 * MS);
+        assertEquals(1100 * MS, bucket.reserve(0, UNBOUNDED));
+    }
+}